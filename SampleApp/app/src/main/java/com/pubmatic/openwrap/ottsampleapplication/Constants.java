@@ -13,6 +13,8 @@ class Constants {
     public static final String PUB_ID = "156276";
     public static final int PROFILE_ID = 2486;
     public static final String AD_UNIT_ID = "/15671365/pm_ott_video";
+    // Maximum time in milliseconds to wait for OpenWrap targeting before starting GAM ad request
+    public static final int OW_DEADLINE = 1500;
     // Master content url
     public static final String CONTENT_URL = "https://storage.googleapis.com/gvabox/media/samples/stock.mp4";
 
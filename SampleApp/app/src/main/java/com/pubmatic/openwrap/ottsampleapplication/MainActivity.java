@@ -25,12 +25,11 @@ import com.pubmatic.openwrap.POWAdLoading;
 import com.pubmatic.openwrap.POWAdRequest;
 import com.pubmatic.openwrap.POWAdResponse;
 import com.pubmatic.openwrap.POWAdsLoader;
+import com.pubmatic.openwrap.POWAndroidPlatform;
 import com.pubmatic.openwrap.POWConfiguration;
-import com.pubmatic.openwrap.POWUtil;
+import com.pubmatic.openwrap.POWGamTagBuilder;
 import com.pubmatic.openwrap.models.POWApplicationInfo;
 
-import org.json.JSONObject;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
@@ -67,9 +66,13 @@ public class MainActivity extends AppCompatActivity {
         // Update the GAM url by replacing required values like Ad unit id, ad size
         final String gamAdsUrl = String.format(Constants.GAM_AD_URL, Constants.AD_UNIT_ID,
                 AD_SIZE.getFormattedAdSize());
+        // Parse the GAM url once, OpenWrap targeting is added to it for each ad break
+        final POWGamTagBuilder gamTagBuilder = new POWGamTagBuilder(gamAdsUrl);
 
         // Initialise OpenWrap Ads Loader
         owAdsLoader = new POWAdsLoader(this);
+        // Bound the player start-up delay, GAM is requested without OpenWrap targeting on timeout
+        owAdsLoader.setDeadline(Constants.OW_DEADLINE);
 
         // Create OpenWrap request with valid params
         POWAdRequest adRequest = new POWAdRequest(Constants.PUB_ID, Constants.PROFILE_ID,
@@ -77,7 +80,7 @@ public class MainActivity extends AppCompatActivity {
 
         // Set Application details
         POWConfiguration configuration = POWConfiguration.getInstance();
-        POWApplicationInfo applicationInfo = new POWApplicationInfo(this);
+        POWApplicationInfo applicationInfo = POWAndroidPlatform.createApplicationInfo(this);
         applicationInfo.setStoreURL("https://play.google.com/store/apps/details?id=com.example.lite&hl=en_IN");
         configuration.setAppInfo(applicationInfo);
 
@@ -85,11 +88,7 @@ public class MainActivity extends AppCompatActivity {
         owAdsLoader.setAdsLoaderListener(new POWAdLoading.AdsLoaderListener() {
             @Override
             public void onAdReceived(@NonNull POWAdResponse response) {
-                JSONObject targetingJson = response.getTargeting();
-                String updatedGamAdsUrl = gamAdsUrl;
-                if (targetingJson != null) {
-                    updatedGamAdsUrl = updatedGamAdsUrl + "&cust_params=" + POWUtil.generateEncodedQueryParams(targetingJson);
-                }
+                String updatedGamAdsUrl = gamTagBuilder.build(response.getTargeting());
                 Log.d(TAG, "DFP URL :" + updatedGamAdsUrl);
                 initializeAdsLoader(updatedGamAdsUrl);
             }
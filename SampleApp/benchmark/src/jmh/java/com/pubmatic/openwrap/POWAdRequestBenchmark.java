@@ -0,0 +1,108 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.UnsupportedEncodingException;
+
+/**
+ * Benchmarks of OpenWrap request url building, done for every ad request which is not served
+ * from bid cache. The query string is also built through the previous path, i.e. populating a
+ * {@link JSONObject} and encoding its values one by one using the frozen copy of the previous
+ * encoding, {@link POWUtilBenchmark#buildUrlUsingURLEncoder(String, JSONObject)}, for comparison
+ * with the streaming {@link POWQueryStringBuilder}.
+ */
+@State(Scope.Thread)
+public class POWAdRequestBenchmark {
+
+    static final String PUB_ID = "156276";
+    static final int PROFILE_ID = 2486;
+    static final String AD_UNIT_ID = "/15671365/pm_ott_video";
+
+    private static final String OW_URL = "https://ow.pubmatic.com/openrtb/2.5/video";
+    private static final String ADVERTISING_ID = "38400000-8cf0-11bd-b23e-10b96e40000d";
+    private static final String STORE_URL = "https://play.google.com/store/apps/details?id=com.example.lite&hl=en_IN";
+    private static final String BIDDER_PARAMS = "{\"pubmatic\":{\"keywords\":[{\"key\":\"dctr\",\"value\":[\"val1\",\"val2\"]}]}}";
+
+    private POWAdRequest request;
+
+    @Setup
+    public void setUp() throws JSONException {
+        request = new POWAdRequest(PUB_ID, PROFILE_ID, AD_UNIT_ID, new POWAdRequest.POWAdSize(640, 480));
+        request.setAdvertisingInfo(new POWAdvertisingInfo(ADVERTISING_ID, false));
+        request.setBidderCustomParams(new JSONObject(
+                BIDDER_PARAMS));
+    }
+
+    @Benchmark
+    public String buildUrl() {
+        return request.buildUrl();
+    }
+
+    @Benchmark
+    public String getFingerprint() {
+        return request.getFingerprint();
+    }
+
+    @Benchmark
+    public String buildQueryUsingJSONObject() throws JSONException, UnsupportedEncodingException {
+        JSONObject params = new JSONObject();
+        params.put("pwtapp", "1");
+        params.put("pwtplt", "video");
+        params.put("adserver", "DFP");
+        params.put("f", "json");
+        params.put("pwtmime", "1");
+        params.put("pubId", PUB_ID);
+        params.put("profId", PROFILE_ID);
+        params.put("pwtm_iu", AD_UNIT_ID);
+        params.put("pwtv", 2);
+        params.put("pwtm_sz", "640x480");
+        params.put("pwtvlin", 1);
+        params.put("pwtlmt", 0);
+        params.put("pwtdnt", 0);
+        params.put("pwtifa", ADVERTISING_ID);
+        params.put("pwtjs", 1);
+        params.put("pwtuto", 330);
+        params.put("pwtm_url", STORE_URL);
+        params.put("pwtappbdl", "com.pubmatic.openwrap.ottsampleapplication");
+        params.put("pwtbidrprm", BIDDER_PARAMS);
+        return POWUtilBenchmark.buildUrlUsingURLEncoder(OW_URL, params);
+    }
+
+    @Benchmark
+    public String buildQueryUsingQueryStringBuilder() {
+        return POWQueryStringBuilder.obtain(OW_URL)
+                .append("pwtapp", "1")
+                .append("pwtplt", "video")
+                .append("adserver", "DFP")
+                .append("f", "json")
+                .append("pwtmime", "1")
+                .append("pubId", PUB_ID)
+                .append("profId", PROFILE_ID)
+                .append("pwtm_iu", AD_UNIT_ID)
+                .append("pwtv", 2)
+                .append("pwtm_sz", "640x480")
+                .append("pwtvlin", 1)
+                .append("pwtlmt", 0)
+                .append("pwtdnt", 0)
+                .append("pwtifa", ADVERTISING_ID)
+                .append("pwtjs", 1)
+                .append("pwtuto", 330)
+                .append("pwtm_url", STORE_URL)
+                .append("pwtappbdl", "com.pubmatic.openwrap.ottsampleapplication")
+                .append("pwtbidrprm", BIDDER_PARAMS)
+                .build();
+    }
+}
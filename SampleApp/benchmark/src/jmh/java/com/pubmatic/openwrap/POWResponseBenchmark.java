@@ -0,0 +1,85 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks of OpenWrap response parsing and targeting extraction, on the plain response and on
+ * the response having debug bids
+ */
+@State(Scope.Thread)
+public class POWResponseBenchmark {
+
+    /**
+     * Number of debug bids in the response, 0 for the plain response
+     */
+    @Param({"0", "200"})
+    public int debugBids;
+
+    private String response;
+    private POWAdResponse adResponse;
+    private POWTargetingProjection projection;
+
+    @Setup
+    public void setUp() throws JSONException {
+        response = createResponse(debugBids);
+        adResponse = POWResponseParser.parse(response, null);
+        projection = new POWTargetingProjection.Builder().build();
+    }
+
+    @Benchmark
+    public JSONObject parseUsingJSONObject() throws JSONException {
+        return new POWAdResponse(new JSONObject(response)).getTargeting();
+    }
+
+    @Benchmark
+    public POWTargeting parseUsingStreamingParser() throws JSONException {
+        return POWResponseParser.parse(response, null).getTargetingValues();
+    }
+
+    @Benchmark
+    public JSONObject targetingJson() {
+        // Targeting json is derived lazily once per response, so a new response is used
+        return new POWAdResponse(adResponse.getTargetingValues(), null).getTargeting();
+    }
+
+    @Benchmark
+    public POWAdResponse projectTargeting() {
+        return adResponse.project(projection);
+    }
+
+    private static String createResponse(int debugBids) throws JSONException {
+        JSONObject response = new JSONObject().put("targeting", new JSONObject(POWUtilBenchmark.TARGETING));
+        if (debugBids == 0) {
+            return response.toString();
+        }
+        StringBuilder debug = new StringBuilder("{\"id\":\"2a96119c\",\"seatbid\":[");
+        for (int i = 0; i < debugBids; i++) {
+            if (i > 0) {
+                debug.append(',');
+            }
+            debug.append("{\"seat\":\"bidder").append(i).append("\",\"bid\":[{\"id\":\"bid-").append(i)
+                    .append("\",\"impid\":\"1\",\"price\":").append(i % 7).append(".25,\"adm\":\"<VAST version=\\\"3.0\\\">")
+                    .append("<Ad id=\\\"").append(i).append("\\\"><InLine><AdSystem>OpenWrap</AdSystem></InLine></Ad></VAST>\",")
+                    .append("\"ext\":{\"prebid\":{\"type\":\"video\",\"targeting\":{\"hb_pb\":\"").append(i % 7)
+                    .append(".20\",\"hb_bidder\":\"bidder").append(i).append("\"}}}}]}");
+        }
+        debug.append("],\"ext\":{\"debug\":{\"httpcalls\":{\"pubmatic\":[{\"uri\":\"https://hbopenbid.pubmatic.com\",")
+                .append("\"requestbody\":\"{\\\"id\\\":\\\"1\\\"}\",\"status\":200}]}}}}");
+        response.put("ext", new JSONObject(debug.toString()));
+        return response.toString();
+    }
+}
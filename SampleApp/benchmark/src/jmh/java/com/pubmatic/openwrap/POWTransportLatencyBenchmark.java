@@ -0,0 +1,201 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Latency of one OpenWrap call to a local mock server, over {@link POWHttpTransport} which reuses
+ * the keep-alive connection, and over a baseline transport which opens a fresh connection per
+ * call. Both transports send the call on a worker thread, so only the connection handling
+ * differs. The benchmark opens local sockets and is run on demand, in sample mode which reports
+ * the p50 and p99 latency per call:
+ * <pre>
+ *   ./gradlew :benchmark:jmh -PtransportLatency
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class POWTransportLatencyBenchmark {
+
+    private static final int TIMEOUT = 5000;
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private HttpServer server;
+    private String url;
+    private POWTransport keepAliveTransport;
+    private FreshConnectionTransport freshConnectionTransport;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Avoid Nagle's delay on the mock server, which otherwise dominates every response
+        System.setProperty(NODELAY_PROPERTY, "true");
+        byte[] body = ("{\"targeting\":" + POWUtilBenchmark.TARGETING + "}").getBytes("UTF-8");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/openrtb/2.5/video", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/openrtb/2.5/video?pubId="
+                + POWAdRequestBenchmark.PUB_ID;
+        keepAliveTransport = new POWHttpTransport.Builder().setPoolSize(1).build();
+        freshConnectionTransport = new FreshConnectionTransport();
+    }
+
+    @TearDown
+    public void tearDown() {
+        freshConnectionTransport.shutdown();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public String keepAliveConnection() throws InterruptedException {
+        return send(keepAliveTransport);
+    }
+
+    @Benchmark
+    public String freshConnection() throws InterruptedException {
+        return send(freshConnectionTransport);
+    }
+
+    /**
+     * Sends the call and waits for its response
+     */
+    @NonNull
+    private String send(@NonNull POWTransport transport) throws InterruptedException {
+        ResponseListener listener = new ResponseListener();
+        transport.get(url, TIMEOUT, listener, listener);
+        if (!listener.latch.await(TIMEOUT, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("No response in " + TIMEOUT + " ms");
+        }
+        if (listener.response == null) {
+            throw new IllegalStateException("Call failed with error " + listener.errorCode);
+        }
+        return listener.response;
+    }
+
+    /**
+     * Baseline transport, which sends every call over a new connection and closes it once the
+     * response is read, i.e. every call pays the TCP handshake
+     */
+    private static class FreshConnectionTransport implements POWTransport {
+
+        @NonNull
+        private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "FreshConnectionTransport");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        @Override
+        public void get(@NonNull String url, int timeout, @NonNull Object tag, @NonNull TransportListener listener) {
+            executor.execute(() -> {
+                HttpURLConnection connection = null;
+                try {
+                    connection = (HttpURLConnection) new URL(url).openConnection();
+                    connection.setConnectTimeout(timeout);
+                    connection.setReadTimeout(timeout);
+                    connection.setUseCaches(false);
+                    connection.setRequestProperty("Connection", "close");
+                    connection.setRequestProperty("Accept", "application/json");
+                    int statusCode = connection.getResponseCode();
+                    if (statusCode >= 200 && statusCode < 300) {
+                        listener.onSuccess(new String(readFully(connection.getInputStream()), "UTF-8"));
+                    } else {
+                        listener.onFailure(statusCode, connection.getResponseMessage());
+                    }
+                } catch (IOException e) {
+                    listener.onFailure(POWError.NETWORK_ERROR.getErrorCode(), e.getMessage());
+                } finally {
+                    if (connection != null) {
+                        connection.disconnect();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void cancel(@NonNull Object tag) {
+            // Calls are awaited until their response
+        }
+
+        void shutdown() {
+            executor.shutdownNow();
+        }
+
+        @NonNull
+        private static byte[] readFully(@NonNull InputStream stream) throws IOException {
+            try {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int count;
+                while ((count = stream.read(buffer)) != -1) {
+                    output.write(buffer, 0, count);
+                }
+                return output.toByteArray();
+            } finally {
+                stream.close();
+            }
+        }
+    }
+
+    /**
+     * Listener which lets the benchmark thread wait for the response
+     */
+    private static class ResponseListener implements POWTransport.TransportListener {
+
+        @NonNull
+        private final CountDownLatch latch = new CountDownLatch(1);
+        @Nullable
+        private volatile String response;
+        private volatile int errorCode;
+
+        @Override
+        public void onSuccess(@NonNull String response) {
+            this.response = response;
+            latch.countDown();
+        }
+
+        @Override
+        public void onFailure(int errorCode, @Nullable String errorMsg) {
+            this.errorCode = errorCode;
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Benchmarks of hashing and query string helpers of {@link POWUtil}, along with the GAM ad tag
+ * composition which replaces {@link POWUtil#generateEncodedQueryParams(JSONObject)}. Hashing is
+ * also measured through the previous digest formatting each byte with {@link String#format}, and
+ * through the hashes cached per advertising ID, which are used by the ad requests. Query string
+ * helpers, which now run on {@link POWQueryStringBuilder}, are compared with a frozen copy of their
+ * previous algorithm, see {@link #buildUrlUsingURLEncoder(String, JSONObject)}.
+ */
+@State(Scope.Thread)
+public class POWUtilBenchmark {
+
+    static final String TARGETING = "{\"pwtbst\":\"1\",\"pwtcid\":\"2a96119c-1537-43ac-b4a0-b37e6a615abd\","
+            + "\"pwtcpath\":\"/cache\",\"pwtcurl\":\"https://ow.pubmatic.com\",\"pwtecp\":\"3.00\","
+            + "\"pwtpid\":\"pubmatic\",\"pwtplt\":\"video\",\"pwtprofid\":\"2486\",\"pwtpubid\":\"156276\","
+            + "\"pwtsid\":\"/15671365/pm_ott_video\",\"pwtsz\":\"0x0\",\"pwtverid\":\"2\"}";
+
+    private static final String GAM_TAG = "https://pubads.g.doubleclick.net/gampad/live/ads?iu=/15671365/pm_ott_video"
+            + "&description_url=http://pubmatic.com/&tfcd=0&npa=0&sz=640x480&gdfp_req=1&output=vast"
+            + "&unviewed_position_start=1&env=vp&impl=s";
+
+    private static final String ADVERTISING_ID = "38400000-8cf0-11bd-b23e-10b96e40000d";
+
+    private JSONObject targeting;
+    private POWGamTagBuilder gamTagBuilder;
+
+    @Setup
+    public void setUp() throws JSONException {
+        targeting = new JSONObject(TARGETING);
+        gamTagBuilder = new POWGamTagBuilder(GAM_TAG);
+    }
+
+    @Benchmark
+    public String md5() {
+        return POWUtil.md5(ADVERTISING_ID);
+    }
+
+    @Benchmark
+    public String sha1() {
+        return POWUtil.sha1(ADVERTISING_ID);
+    }
+
+    @Benchmark
+    public String md5UsingStringFormat() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("MD5");
+        byte[] bytes = ADVERTISING_ID.getBytes(Charset.forName("UTF-8"));
+        digest.update(bytes, 0, bytes.length);
+        StringBuilder stringBuilder = new StringBuilder();
+        for (byte b : digest.digest()) {
+            stringBuilder.append(String.format("%02X", b));
+        }
+        return stringBuilder.toString().toLowerCase(Locale.getDefault());
+    }
+
+    @Benchmark
+    public String cachedMd5() {
+        return POWAdvertisingInfo.getHashedId(ADVERTISING_ID, POWConfiguration.HashType.MD5);
+    }
+
+    @Benchmark
+    public String cachedSha1() {
+        return POWAdvertisingInfo.getHashedId(ADVERTISING_ID, POWConfiguration.HashType.SHA1);
+    }
+
+    @Benchmark
+    public String buildUrlWithQueryString() {
+        return POWUtil.buildUrlWithQueryString(GAM_TAG, targeting);
+    }
+
+    @Benchmark
+    public String buildUrlWithQueryStringUsingURLEncoder() throws UnsupportedEncodingException {
+        return buildUrlUsingURLEncoder(GAM_TAG, targeting);
+    }
+
+    @Benchmark
+    public String generateEncodedQueryParams() {
+        return GAM_TAG + "&cust_params=" + POWUtil.generateEncodedQueryParams(targeting);
+    }
+
+    @Benchmark
+    public String generateEncodedQueryParamsUsingURLEncoder() throws UnsupportedEncodingException {
+        // Previous POWUtil.generateEncodedQueryParams, encoding the query string once more
+        String customParams = buildUrlUsingURLEncoder("", targeting).replace("?", "");
+        return GAM_TAG + "&cust_params=" + URLEncoder.encode(customParams, "UTF-8");
+    }
+
+    @Benchmark
+    public String gamTagBuilder() {
+        return gamTagBuilder.build(targeting);
+    }
+
+    /**
+     * Frozen copy of the query string building which preceded {@link POWQueryStringBuilder}, kept
+     * as the baseline of the benchmarks. It walked the json keys through {@code Uri.Builder},
+     * which is not available on JVM, so every key and value is escaped as {@code Uri.encode} using
+     * {@link URLEncoder}, with the same per parameter string allocations.
+     *
+     * @param url   the url to append the query string to
+     * @param query the json of query parameters
+     * @return the url with query string
+     */
+    static String buildUrlUsingURLEncoder(String url, JSONObject query) throws UnsupportedEncodingException {
+        StringBuilder builder = new StringBuilder(url);
+        boolean hasQuery = url.indexOf('?') >= 0;
+        Iterator<String> iterator = query.keys();
+        while (iterator.hasNext()) {
+            String key = iterator.next();
+            builder.append(hasQuery ? '&' : '?')
+                    .append(uriEncode(key))
+                    .append('=')
+                    .append(uriEncode(String.valueOf(query.opt(key))));
+            hasQuery = true;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Escapes the value as {@code Uri.encode}, which keeps the unreserved characters
+     * {@code -_.!~*'()} and escapes space as %20
+     */
+    private static String uriEncode(String value) throws UnsupportedEncodingException {
+        return URLEncoder.encode(value, "UTF-8")
+                .replace("+", "%20")
+                .replace("%21", "!")
+                .replace("%27", "'")
+                .replace("%28", "(")
+                .replace("%29", ")")
+                .replace("%7E", "~");
+    }
+}
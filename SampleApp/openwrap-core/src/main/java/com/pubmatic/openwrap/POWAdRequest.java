@@ -0,0 +1,675 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import com.pubmatic.openwrap.models.POWApplicationInfo;
+import com.pubmatic.openwrap.models.POWLocation;
+import com.pubmatic.openwrap.models.POWUserInfo;
+
+import org.json.JSONObject;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Model class represents OpenWrap ad request.
+ * Publisher should create instance of this class and set the required/applicable parameters before
+ * passing it to ad loader
+ */
+public class POWAdRequest {
+
+    public static final int DEFAULT_REQUEST_TIMEOUT = 5000;
+    public static final int DEFAULT_VERSION_ID = 0;
+    public static final int DEFAULT_JS_ENABLE_VALUE = 1;
+    // OpenWrap keys
+    private static final String PUB_ID_KEY = "pubId";
+    private static final String PROFILE_ID_KEY = "profId";
+    private static final String AD_UNIT_ID_KEY = "pwtm_iu";
+    private static final String AD_SIZE_KEY = "pwtm_sz";
+    private static final String VERSION_ID_KEY = "pwtv";
+    private static final String DEBUG_KEY = "pwtvc";
+    private static final String AD_FORMAT_KEY = "pwtplt";
+    private static final String RESPONSE_FORMAT_KEY = "f";
+    private static final String REQUEST_MIME_KEY = "pwtmime";
+    private static final String AD_SERVER_KEY = "adserver";
+    private static final String LINEARITY_KEY = "pwtvlin";
+    // Device Object
+    private static final String LMT_KEY = "pwtlmt";
+    private static final String DNT_KEY = "pwtdnt";
+    private static final String JS_KEY = "pwtjs";
+    private static final String IFA_KEY = "pwtifa";
+    private static final String SHA1_KEY = "pwtdpidsha1";
+    private static final String MD5_KEY = "pwtdpidmd5";
+    private static final String LAT_KEY = "pwtlat";
+    private static final String LON_KEY = "pwtlon";
+    private static final String GEO_TYPE_KEY = "pwtgtype";
+    private static final String COUNTRY_KEY = "pwtcntr";
+    private static final String CITY_KEY = "pwtcity";
+    private static final String METRO_KEY = "pwtmet";
+    private static final String ZIP_KEY = "pwtzip";
+    private static final String UTC_OFFSET_KEY = "pwtuto";
+    private static final String BIDDER_PARAM_KEY = "pwtbidrprm";
+    // User Object
+    private static final String BIRTH_YEAR_KEY = "pwtyob";
+    private static final String GENDER_KEY = "pwtgender";
+    // App Object
+    private static final String APP_KEY = "pwtapp";
+    private static final String APP_NAME_KEY = "pwtappname";
+    private static final String APP_BUNDLE_KEY = "pwtappbdl";
+    private static final String APP_DOMAIN_KEY = "pwtappdom";
+    private static final String APP_URL_KEY = "pwtm_url";
+    private static final String APP_STORE_URL_KEY = "pwtappurl";
+    private static final String APP_CATEGORY_KEY = "pwtappcat";
+    private static final String APP_PAID_KEY = "pwtapppd";
+    // Extension param
+    private static final String GDPR_KEY = "pwtgdpr";
+    private static final String GDPR_CONSENT_KEY = "pwtcnst";
+    private static final String CCPA_KEY = "pwtccpa";
+    // Default values
+    private static final String APP_PARAM_VALUE = "1";
+    private static final String AD_FORMAT_VALUE = "video";
+    private static final String AD_SERVER_VALUE = "DFP";
+    private static final String RESPONSE_FORMAT_VALUE = "json";
+    private static final String REQUEST_MIME_VALUE = "1";
+
+    // OpenWrap Base Url
+    static final String OW_URL = "https://ow.pubmatic.com/openrtb/2.5/video";
+
+    // Keys of the request params held in the pre-encoded request prefix
+    private static final Set<String> STATIC_KEYS = new HashSet<>(Arrays.asList(APP_KEY,
+            AD_FORMAT_KEY, AD_SERVER_KEY, RESPONSE_FORMAT_KEY, REQUEST_MIME_KEY, GDPR_KEY,
+            GDPR_CONSENT_KEY, CCPA_KEY, LINEARITY_KEY, APP_URL_KEY, APP_STORE_URL_KEY,
+            APP_BUNDLE_KEY, APP_NAME_KEY, APP_DOMAIN_KEY, APP_CATEGORY_KEY, APP_PAID_KEY));
+
+    /**
+     * Pre-encoded request prefix, shared by all the ad requests and compiled lazily per
+     * configuration change
+     */
+    @Nullable
+    private static volatile POWRequestPrefix requestPrefix;
+
+    /**
+     * OpenWrap Publisher Id
+     */
+    @NonNull
+    private String publisherId;
+
+    /**
+     * OpenWrap Profile Id
+     */
+    private int profileId;
+
+    /**
+     * Request timeout in milliseconds
+     */
+    private int networkTimeout = DEFAULT_REQUEST_TIMEOUT;
+
+    /**
+     * OpenWrap Ad unit Id
+     */
+    @NonNull
+    private String adUnitId;
+
+    /**
+     * Size of the video ad
+     */
+    @NonNull
+    private POWAdSize adSize;
+
+    /**
+     * Flag to maintain OpenWrap debug mode
+     */
+    private Boolean debugEnable;
+
+    /**
+     * OpenWrap Profile Version id
+     */
+    private int versionId = DEFAULT_VERSION_ID;
+
+    /**
+     * JSON having custom parameters in the form of a key-value.
+     * Example :
+     * bidderCustomParams =
+     * {
+     * "pubmatic": {
+     * "keywords": [
+     * {
+     * "key": "dctr",
+     * "value": ["val1", "val2"]
+     * }
+     * ]
+     * },
+     * "appnexus": {
+     * "keywords": [
+     * {
+     * "key": "key1",
+     * "value": ["val1"]
+     * },
+     * {
+     * "key": "key2",
+     * "value": ["val2"]
+     * }
+     * ]
+     * }
+     * }
+     */
+    private JSONObject bidderCustomParams;
+
+    /**
+     * Advertising info consist of Advertising ID and LMT state
+     */
+    @Nullable
+    private POWAdvertisingInfo adInfo;
+
+    /**
+     * Flag to read OpenWrap response using streaming parser
+     */
+    private boolean streamingParserEnabled;
+
+    /**
+     * Top level fields of OpenWrap response to be read by streaming parser along with targeting
+     */
+    @Nullable
+    private Set<String> responseFields;
+
+    /**
+     * Constructs {@link POWAdRequest} with necessary arguments
+     *
+     * @param publisherId the OpenWrap Publisher Id
+     * @param profileId   the OpenWrap Profile Id
+     * @param adUnitId    the OpenWrap Video Ad Unit Id
+     * @param adSize      the Video Ad Size
+     */
+    public POWAdRequest(@NonNull String publisherId, int profileId,
+                        @NonNull String adUnitId, @NonNull POWAdSize adSize) {
+        this.publisherId = publisherId;
+        this.profileId = profileId;
+        this.adUnitId = adUnitId;
+        this.adSize = adSize;
+    }
+
+    /**
+     * Setter to toggle OpenWrap request debug mode
+     *
+     * @param debugEnable the boolean value for debug mode
+     */
+    public void setDebugEnable(boolean debugEnable) {
+        this.debugEnable = debugEnable;
+    }
+
+    /**
+     * OpenWrap Ad request timeout in milliseconds
+     *
+     * @return the network timeout in millisecond
+     */
+    public int getNetworkTimeout() {
+        return networkTimeout;
+    }
+
+    /**
+     * Sets OpenWrap request network timeout if you want overwrite default timeout.
+     * Default timeout is {@link POWAdRequest#DEFAULT_REQUEST_TIMEOUT}
+     *
+     * @param networkTimeout the network timeout in milliseconds
+     */
+    public void setNetworkTimeout(int networkTimeout) {
+        this.networkTimeout = networkTimeout;
+    }
+
+    /**
+     * Sets OpenWrap Profile Version Id
+     *
+     * @param versionId the integer OpenWrap version
+     */
+    public void setVersionId(int versionId) {
+        this.versionId = versionId;
+    }
+
+    /**
+     * Enables streaming parser for OpenWrap response. It reads only the targeting, and the fields
+     * set using {@link POWAdRequest#setResponseFields(String...)}, into compact key-value pairs
+     * without building json of the entire response, which is large in debug mode. The targeting
+     * is available through {@link POWAdResponse#getTargetingValues()} and
+     * {@link POWAdResponse#getTargeting()}, having string values. It is disabled by default.
+     *
+     * @param streamingParserEnabled true to enable streaming parser
+     */
+    public void setStreamingParserEnabled(boolean streamingParserEnabled) {
+        this.streamingParserEnabled = streamingParserEnabled;
+    }
+
+    /**
+     * Sets the top level fields of OpenWrap response to be read by streaming parser along with
+     * targeting, see {@link POWAdRequest#setStreamingParserEnabled(boolean)}. These are available
+     * through {@link POWAdResponse#getField(String)}.
+     *
+     * @param fields the names of response fields
+     */
+    public void setResponseFields(@NonNull String... fields) {
+        responseFields = fields.length > 0 ? new HashSet<>(Arrays.asList(fields)) : null;
+    }
+
+    /**
+     * Returns the OpenWrap Video Ad Unit Id
+     *
+     * @return the ad unit id
+     */
+    @NonNull
+    String getAdUnitId() {
+        return adUnitId;
+    }
+
+    /**
+     * Returns whether OpenWrap response is read using streaming parser
+     *
+     * @return true if streaming parser is enabled
+     */
+    boolean isStreamingParserEnabled() {
+        return streamingParserEnabled;
+    }
+
+    /**
+     * Returns the top level fields of OpenWrap response to be read by streaming parser
+     *
+     * @return the names of response fields
+     */
+    @Nullable
+    Set<String> getResponseFields() {
+        return responseFields;
+    }
+
+    /**
+     * Builds/forms the final OpenWrap Url by adding provided request params as a part of query string
+     *
+     * @return final OpenWrap request url
+     */
+    public String buildUrl() {
+        // Read all the configuration params from one snapshot, consistent even if the
+        // configuration is updated meanwhile
+        POWConfiguration.Snapshot sharedConfiguration = POWConfiguration.getInstance().getSnapshot();
+        Map<String, String> customParams = sharedConfiguration.getCustomKeyValues();
+        POWQueryStringBuilder queryBuilder;
+        if (customParams != null && !Collections.disjoint(customParams.keySet(), STATIC_KEYS)) {
+            // Custom parameters override some of the static params, build complete url as the
+            // overridden params must be replaced in the prefix.
+            queryBuilder = POWQueryStringBuilder.obtain(OW_URL);
+            queryBuilder.setOverriddenParams(customParams);
+            appendStaticParams(queryBuilder, sharedConfiguration);
+        } else {
+            queryBuilder = POWQueryStringBuilder.obtain(getRequestPrefix(sharedConfiguration).getValue());
+        }
+        appendRequestParams(queryBuilder, sharedConfiguration, customParams);
+        return queryBuilder.build();
+    }
+
+    /**
+     * Returns the pre-encoded request prefix for given configuration snapshot, compiles it again
+     * if the configuration is changed since the cached prefix is compiled
+     *
+     * @param configuration the OpenWrap configuration snapshot
+     * @return the valid request prefix
+     */
+    @NonNull
+    static POWRequestPrefix getRequestPrefix(@NonNull POWConfiguration.Snapshot configuration) {
+        POWRequestPrefix prefix = requestPrefix;
+        if (prefix == null || !prefix.isValid(configuration)) {
+            POWQueryStringBuilder queryBuilder = POWQueryStringBuilder.obtain(OW_URL);
+            appendStaticParams(queryBuilder, configuration);
+            prefix = new POWRequestPrefix(queryBuilder.build(), configuration.getVersion());
+            requestPrefix = prefix;
+        }
+        return prefix;
+    }
+
+    /**
+     * Returns the fingerprint of this request, formed using the parameters which decide the
+     * OpenWrap auction i.e. publisher id, profile id, ad unit id, ad size, version id, debug flag,
+     * bidder parameters and the parameters set over {@link POWConfiguration}, e.g. GDPR consent.
+     * Requests having same fingerprint are served with same response from {@code POWBidCache}, so
+     * a response of the auction run under previous consent is never served after its change.
+     *
+     * @return the request fingerprint
+     */
+    @NonNull
+    String getFingerprint() {
+        StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(publisherId).append('|')
+                .append(profileId).append('|')
+                .append(adUnitId).append('|')
+                .append(adSize != null ? adSize.getFormattedAdSize() : "").append('|')
+                .append(versionId).append('|')
+                .append(debugEnable);
+        if (bidderCustomParams != null) {
+            fingerprint.append('|').append(bidderCustomParams.toString());
+        }
+        fingerprint.append('|').append(POWConfiguration.getInstance().getSnapshot().getFingerprint());
+        // Streamed response holds only the requested fields, so it can not be shared with others
+        if (streamingParserEnabled) {
+            fingerprint.append("|streaming");
+            if (responseFields != null) {
+                fingerprint.append(new TreeSet<>(responseFields));
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Writes the request params which are same for all the ad requests, i.e. default params and
+     * the ones derived from {@link POWConfiguration}, to given query builder
+     *
+     * @param queryBuilder  the query builder of OpenWrap request url
+     * @param configuration the OpenWrap configuration snapshot
+     */
+    private static void appendStaticParams(@NonNull POWQueryStringBuilder queryBuilder,
+                                           @NonNull POWConfiguration.Snapshot configuration) {
+        // Add default request params
+        queryBuilder.append(APP_KEY, APP_PARAM_VALUE);
+        queryBuilder.append(AD_FORMAT_KEY, AD_FORMAT_VALUE);
+        queryBuilder.append(AD_SERVER_KEY, AD_SERVER_VALUE);
+        queryBuilder.append(RESPONSE_FORMAT_KEY, RESPONSE_FORMAT_VALUE);
+
+        /*
+         Possible values are:
+         0 - All
+         1 - video/mp4
+         2 - application/x-shockwave-flash (VPAID - FLASH)
+         3 - video/wmv
+         4 - video/h264
+         5 - video/webm
+         6 - application/javascript (VPAID - JS)
+         7 - video/ogg
+         8 - video/flv
+         */
+        queryBuilder.append(REQUEST_MIME_KEY, REQUEST_MIME_VALUE);
+
+        // Add GDPR flag, if set by publisher.
+        if (configuration.isEnableGDPR() != null) {
+            queryBuilder.append(GDPR_KEY, configuration.isEnableGDPR() ? 1 : 0);
+        }
+
+        // Add GDPR consent
+        queryBuilder.append(GDPR_CONSENT_KEY, configuration.getGdprConsent());
+
+        // Add CCPA
+        queryBuilder.append(CCPA_KEY, configuration.getCCPAString());
+
+        // Set Linearity
+        POWConfiguration.Linearity linearity = configuration.getLinearity();
+        if (linearity != POWConfiguration.Linearity.UNKNOWN) {
+            queryBuilder.append(LINEARITY_KEY, linearity.getValue());
+        }
+
+        // Add app information parameters to request params
+        addApplicationData(queryBuilder, configuration.getAppInfo());
+    }
+
+    /**
+     * Writes the request params specific to this ad request, followed by the custom params, to
+     * given query builder. Custom params overriding a request param are written in its place.
+     *
+     * @param queryBuilder  the query builder of OpenWrap request url
+     * @param configuration the OpenWrap configuration snapshot
+     * @param customParams  the custom params
+     */
+    private void appendRequestParams(@NonNull POWQueryStringBuilder queryBuilder,
+                                     @NonNull POWConfiguration.Snapshot configuration,
+                                     @Nullable Map<String, String> customParams) {
+        // Custom parameters override the request params having same key
+        queryBuilder.setOverriddenParams(customParams);
+
+        // Add request params from Ad request instance
+        queryBuilder.append(PUB_ID_KEY, publisherId);
+        queryBuilder.append(PROFILE_ID_KEY, profileId);
+        queryBuilder.append(AD_UNIT_ID_KEY, adUnitId);
+        if (versionId > 0) {
+            queryBuilder.append(VERSION_ID_KEY, versionId);
+        }
+        if (debugEnable != null) {
+            queryBuilder.append(DEBUG_KEY, debugEnable ? 1 : 0);
+        }
+        if (adSize != null) {
+            queryBuilder.append(AD_SIZE_KEY, adSize.getFormattedAdSize());
+        }
+
+        // Add device information parameters to request params
+        addDeviceData(queryBuilder, configuration);
+
+        // Add user information parameters to request params
+        addUserData(queryBuilder, configuration);
+
+        // Add bidder parameters
+        if (bidderCustomParams != null) {
+            queryBuilder.append(BIDDER_PARAM_KEY, bidderCustomParams.toString());
+        }
+
+        // Add rest of the custom parameters (set over POWConfiguration) to request params as is.
+        queryBuilder.appendRemainingOverrides();
+    }
+
+    /**
+     * Helper method to add device specific parameters in Ad request query
+     *
+     * @param queryBuilder  Ad request query builder
+     * @param configuration the OpenWrap configuration snapshot
+     */
+    private void addDeviceData(@NonNull POWQueryStringBuilder queryBuilder,
+                               @NonNull POWConfiguration.Snapshot configuration) {
+
+        if (adInfo != null) {
+
+            // Send lmt and dnt values.
+            queryBuilder.append(LMT_KEY, adInfo.isLimitAdTrackingEnabled() ? 1 : 0);
+            queryBuilder.append(DNT_KEY, adInfo.isLimitAdTrackingEnabled() ? 1 : 0);
+
+            // Set advertising identifier with the provided HashType
+            String advertisingId = adInfo.getId();
+            POWConfiguration.HashType hashType = configuration.getHashTypeForAdvertisingId();
+            if (advertisingId != null) {
+
+                switch (hashType) {
+                    case MD5:
+                        queryBuilder.append(MD5_KEY,
+                                POWAdvertisingInfo.getHashedId(advertisingId, hashType));
+                        break;
+                    case SHA1:
+                        queryBuilder.append(SHA1_KEY,
+                                POWAdvertisingInfo.getHashedId(advertisingId, hashType));
+                        break;
+                    default:
+                        queryBuilder.append(IFA_KEY, advertisingId);
+                        break;
+                }
+            }
+        }
+
+        // Send js param as 1.
+        queryBuilder.append(JS_KEY, DEFAULT_JS_ENABLE_VALUE);
+
+        // Set UTC offset
+        queryBuilder.append(UTC_OFFSET_KEY, POWUtil.getTimeOffsetInMinutes());
+    }
+
+    /**
+     * Helper method to add User specific parameters in Ad request query
+     *
+     * @param queryBuilder  Ad request query builder
+     * @param configuration the OpenWrap configuration snapshot
+     */
+    private static void addUserData(@NonNull POWQueryStringBuilder queryBuilder,
+                                    @NonNull POWConfiguration.Snapshot configuration) {
+
+        POWUserInfo userInfo = configuration.getUserInfo();
+        if (userInfo != null) {
+            // Save user's location if provided by user.
+            POWLocation location = userInfo.getLocation();
+            if (location != null) {
+                // Location is available
+                queryBuilder.append(LAT_KEY, location.getLatitude());
+                queryBuilder.append(LON_KEY, location.getLongitude());
+
+                // Location is user provided.
+                if (location.getSource() != null) {
+                    queryBuilder.append(GEO_TYPE_KEY, location.getSource().getValue());
+                }
+            }
+
+            // Save country, city, metro, zip etc.
+            queryBuilder.append(COUNTRY_KEY, userInfo.getCountry());
+            queryBuilder.append(CITY_KEY, userInfo.getCity());
+            queryBuilder.append(METRO_KEY, userInfo.getMetro());
+            queryBuilder.append(ZIP_KEY, userInfo.getZip());
+
+            // Get stringified value of gender and save it.
+            queryBuilder.append(GENDER_KEY, userInfo.getGender() != null ? userInfo.getGender().getValue() : null);
+
+            // Save user's birth year is available
+            if (userInfo.getBirthYear() > 0) {
+                queryBuilder.append(BIRTH_YEAR_KEY, userInfo.getBirthYear());
+            }
+        }
+    }
+
+    /**
+     * Helper method to add Application specific parameters in Ad request query
+     *
+     * @param queryBuilder Ad request query builder
+     * @param appInfo      the application info
+     */
+    private static void addApplicationData(@NonNull POWQueryStringBuilder queryBuilder,
+                                           @Nullable POWApplicationInfo appInfo) {
+
+        if (appInfo != null) {
+            // Save app store url
+            queryBuilder.append(APP_URL_KEY, appInfo.getStoreURL());
+            queryBuilder.append(APP_STORE_URL_KEY, appInfo.getStoreURL());
+
+            // Send app's bundle, name, domain values if provided by user.
+            queryBuilder.append(APP_BUNDLE_KEY, appInfo.getPackageName());
+            queryBuilder.append(APP_NAME_KEY, appInfo.getName());
+            queryBuilder.append(APP_DOMAIN_KEY, appInfo.getDomain());
+
+            // Save app categories if available
+            queryBuilder.append(APP_CATEGORY_KEY, appInfo.getCategories());
+
+            // Save app paid value
+            if (appInfo.isPaid() != null) {
+                queryBuilder.append(APP_PAID_KEY, appInfo.isPaid() ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Returns the Advertising info consist of Advertising ID and LMT state
+     *
+     * @return the Advertising info consist of Advertising ID and LMT state
+     */
+    @Nullable
+    public POWAdvertisingInfo getAdvertisingInfo() {
+        return adInfo;
+    }
+
+    /**
+     * Setter to set the Advertising info consist of Advertising ID and LMT state, to be sent in Ad
+     * request. Ads loader sets it from its {@link POWIdProvider}.
+     *
+     * @param adInfo Advertising info consist of Advertising ID and LMT state
+     */
+    public void setAdvertisingInfo(@Nullable POWAdvertisingInfo adInfo) {
+        this.adInfo = adInfo;
+    }
+
+    /**
+     * Returns the JSON object having key-value pair for bidders
+     *
+     * @return JSON object having key-value pair for bidders
+     */
+    @Nullable
+    protected JSONObject getBidderCustomParams() {
+        return bidderCustomParams;
+    }
+
+    /**
+     * Sets custom keywords in the form of a JSONObject. Please use below format to set the
+     * partner specific keywords.
+     * <p>
+     * Example:
+     * <p>
+     * {
+     * "pubmatic": {
+     * "keywords": [
+     * {
+     * "key": "dctr",
+     * "value": ["val1", "val2"]
+     * }
+     * ]
+     * },
+     * "appnexus": {
+     * "keywords": [
+     * {
+     * "key": "key1",
+     * "value": ["val1"]
+     * },
+     * {
+     * "key": "key2",
+     * "value": ["val2"]
+     * }
+     * ]
+     * }
+     * }
+     *
+     * @param bidderJson JSON object having key-value pair for bidders
+     */
+    public void setBidderCustomParams(@NonNull JSONObject bidderJson) {
+        bidderCustomParams = bidderJson;
+    }
+
+    /**
+     * Class to maintain OpenWrap Ad Size
+     */
+    public static class POWAdSize {
+        /**
+         * Ad Width
+         */
+        private int width;
+
+        /**
+         * Ad Height
+         */
+        private int height;
+
+        /**
+         * Constructs ad size
+         *
+         * @param width  the ad width
+         * @param height the ad height
+         */
+        public POWAdSize(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Get formatted ad size value, in below string format
+         * {<width>x<height>}
+         *
+         * @return the formatted ad size
+         */
+        @NonNull
+        public String getFormattedAdSize() {
+            return width + "x" + height;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * This class holds the response of OpenWrap
+ */
+public class POWAdResponse {
+
+    private static final String TARGETING_KEY = "targeting";
+
+    /**
+     * OpenWrap response json, null if the response is read by streaming parser
+     */
+    @Nullable
+    private final JSONObject responseJson;
+
+    /**
+     * Flat targeting key-value pairs, derived lazily from response json if it is present
+     */
+    @Nullable
+    private volatile POWTargeting targeting;
+
+    /**
+     * Targeting json, derived lazily from flat targeting if response json is not present
+     */
+    @Nullable
+    private volatile JSONObject targetingJson;
+
+    /**
+     * Top level fields read by streaming parser along with targeting
+     */
+    @Nullable
+    private final Map<String, String> fields;
+
+    /**
+     * Bytes removed from the cust_params of the ad tag by targeting projection
+     */
+    private int targetingBytesSaved;
+
+    /**
+     * Constructs the {@link POWAdResponse}
+     *
+     * @param responseJson the response json
+     */
+    public POWAdResponse(@NonNull JSONObject responseJson) {
+        this.responseJson = responseJson;
+        this.fields = null;
+    }
+
+    /**
+     * Constructs the {@link POWAdResponse} from the values read by streaming parser
+     *
+     * @param targeting the targeting, null if response does not contain it
+     * @param fields    the requested top level fields
+     */
+    POWAdResponse(@Nullable POWTargeting targeting, @Nullable Map<String, String> fields) {
+        this.responseJson = null;
+        this.targeting = targeting;
+        this.fields = fields;
+    }
+
+    /**
+     * Retrieve targeting json from OpenWrap Ad response. Null in-case if OpenWrap response does
+     * not contains targeting json
+     *
+     * @return the targeting json
+     */
+    @Nullable
+    public JSONObject getTargeting() {
+        if (responseJson != null) {
+            return responseJson.optJSONObject(TARGETING_KEY);
+        }
+        JSONObject json = targetingJson;
+        if (json == null && targeting != null) {
+            json = targeting.toJSONObject();
+            targetingJson = json;
+        }
+        return json;
+    }
+
+    /**
+     * Retrieve targeting from OpenWrap Ad response as flat key-value pairs. Null in-case if
+     * OpenWrap response does not contains targeting
+     *
+     * @return the targeting key-value pairs
+     */
+    @Nullable
+    public POWTargeting getTargetingValues() {
+        POWTargeting values = targeting;
+        if (values == null && responseJson != null) {
+            JSONObject json = responseJson.optJSONObject(TARGETING_KEY);
+            if (json != null) {
+                values = new POWTargeting();
+                Iterator<String> iterator = json.keys();
+                while (iterator.hasNext()) {
+                    String key = iterator.next();
+                    Object value = json.opt(key);
+                    if (value != null && value != JSONObject.NULL) {
+                        values.put(key, String.valueOf(value));
+                    }
+                }
+                targeting = values;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the top level field of OpenWrap response as text, nested values are returned as
+     * json text. When the response is read by streaming parser only the fields set using
+     * {@link POWAdRequest#setResponseFields(String...)} are available.
+     *
+     * @param name the field name
+     * @return the field value, null if it is not available
+     */
+    @Nullable
+    public String getField(@NonNull String name) {
+        if (responseJson != null) {
+            Object value = responseJson.opt(name);
+            return value != null && value != JSONObject.NULL ? String.valueOf(value) : null;
+        }
+        return fields != null ? fields.get(name) : null;
+    }
+
+    /**
+     * Returns the number of bytes removed from the cust_params of the ad tag by the projection
+     * set using {@link POWConfiguration#setTargetingProjection(POWTargetingProjection)}
+     *
+     * @return the saved bytes, 0 if targeting is not projected
+     */
+    public int getTargetingBytesSaved() {
+        return targetingBytesSaved;
+    }
+
+    /**
+     * Returns the copy of this response having projected targeting. Top level fields are kept
+     * as text.
+     *
+     * @param projection the targeting projection
+     * @return the projected response
+     */
+    @NonNull
+    POWAdResponse project(@NonNull POWTargetingProjection projection) {
+        POWTargeting values = getTargetingValues();
+        POWTargeting projected = values != null ? projection.apply(values) : null;
+        Map<String, String> projectedFields = fields;
+        if (responseJson != null) {
+            projectedFields = new HashMap<>();
+            Iterator<String> iterator = responseJson.keys();
+            while (iterator.hasNext()) {
+                String name = iterator.next();
+                String value = getField(name);
+                if (!TARGETING_KEY.equals(name) && value != null) {
+                    projectedFields.put(name, value);
+                }
+            }
+        }
+        POWAdResponse response = new POWAdResponse(projected, projectedFields);
+        if (values != null) {
+            response.targetingBytesSaved = POWTargetingProjection.getEncodedLength(values)
+                    - POWTargetingProjection.getEncodedLength(projected);
+        }
+        return response;
+    }
+
+    /**
+     * Checks whether the response has at least one targeting key-value pair
+     *
+     * @return true if targeting is available
+     */
+    boolean hasTargeting() {
+        if (responseJson != null) {
+            JSONObject json = responseJson.optJSONObject(TARGETING_KEY);
+            return json != null && json.length() > 0;
+        }
+        return targeting != null && !targeting.isEmpty();
+    }
+
+}
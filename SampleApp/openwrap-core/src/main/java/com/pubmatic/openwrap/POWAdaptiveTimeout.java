@@ -0,0 +1,158 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Settings of adaptive network timeout. When set using
+ * {@link POWConfiguration#setAdaptiveTimeout(POWAdaptiveTimeout)}, the network timeout of each
+ * OpenWrap call is derived from the recent OpenWrap response times on the current network type,
+ * i.e. Wi-Fi, cellular or ethernet: the response time at configured percentile, multiplied by
+ * the headroom and kept within the min and max timeouts. The timeout set on the ad request, or
+ * {@link POWAdRequest#DEFAULT_REQUEST_TIMEOUT}, remains the upper limit.
+ * <p>
+ * Max timeout is used until enough responses are observed on the network type. Timed out calls
+ * count as responses at the timeout, so that the timeout grows back on slow networks.
+ * <p>
+ * Create the instance using {@link Builder}
+ */
+public class POWAdaptiveTimeout {
+
+    public static final double DEFAULT_PERCENTILE = 95;
+    public static final float DEFAULT_HEADROOM = 1.5f;
+    public static final int DEFAULT_MIN_TIMEOUT = 1000;
+    public static final int DEFAULT_MAX_TIMEOUT = POWAdRequest.DEFAULT_REQUEST_TIMEOUT;
+
+    private final double percentile;
+    private final float headroom;
+    private final int minTimeout;
+    private final int maxTimeout;
+
+    private POWAdaptiveTimeout(@NonNull Builder builder) {
+        percentile = builder.percentile;
+        headroom = builder.headroom;
+        minTimeout = builder.minTimeout;
+        maxTimeout = Math.max(builder.minTimeout, builder.maxTimeout);
+    }
+
+    /**
+     * Returns the percentile of response times the timeout is derived from
+     *
+     * @return the percentile, from 0 to 100
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * Returns the multiplier applied to the response time at percentile
+     *
+     * @return the headroom
+     */
+    public float getHeadroom() {
+        return headroom;
+    }
+
+    /**
+     * Returns the lowest timeout
+     *
+     * @return the min timeout in milliseconds
+     */
+    public int getMinTimeout() {
+        return minTimeout;
+    }
+
+    /**
+     * Returns the highest timeout, used until enough responses are observed
+     *
+     * @return the max timeout in milliseconds
+     */
+    public int getMaxTimeout() {
+        return maxTimeout;
+    }
+
+    /**
+     * Builder to create {@link POWAdaptiveTimeout}
+     */
+    public static class Builder {
+        private double percentile = DEFAULT_PERCENTILE;
+        private float headroom = DEFAULT_HEADROOM;
+        private int minTimeout = DEFAULT_MIN_TIMEOUT;
+        private int maxTimeout = DEFAULT_MAX_TIMEOUT;
+
+        /**
+         * Sets the percentile of response times the timeout is derived from. Default value is
+         * {@link POWAdaptiveTimeout#DEFAULT_PERCENTILE}
+         *
+         * @param percentile the percentile, from 0 to 100
+         * @return this builder
+         */
+        @NonNull
+        public Builder setPercentile(double percentile) {
+            if (percentile > 0 && percentile <= 100) {
+                this.percentile = percentile;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the multiplier applied to the response time at percentile. Default value is
+         * {@link POWAdaptiveTimeout#DEFAULT_HEADROOM}
+         *
+         * @param headroom the multiplier, at least 1
+         * @return this builder
+         */
+        @NonNull
+        public Builder setHeadroom(float headroom) {
+            if (headroom >= 1) {
+                this.headroom = headroom;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the lowest timeout. Default value is {@link POWAdaptiveTimeout#DEFAULT_MIN_TIMEOUT}
+         *
+         * @param minTimeout the min timeout in milliseconds
+         * @return this builder
+         */
+        @NonNull
+        public Builder setMinTimeout(int minTimeout) {
+            if (minTimeout > 0) {
+                this.minTimeout = minTimeout;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the highest timeout. Default value is {@link POWAdaptiveTimeout#DEFAULT_MAX_TIMEOUT}
+         *
+         * @param maxTimeout the max timeout in milliseconds
+         * @return this builder
+         */
+        @NonNull
+        public Builder setMaxTimeout(int maxTimeout) {
+            if (maxTimeout > 0) {
+                this.maxTimeout = maxTimeout;
+            }
+            return this;
+        }
+
+        /**
+         * Creates the adaptive timeout settings
+         *
+         * @return the adaptive timeout settings
+         */
+        @NonNull
+        public POWAdaptiveTimeout build() {
+            return new POWAdaptiveTimeout(this);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Advertising ID along with the limit ad tracking state, passed to OpenWrap ad request. It is
+ * provided by {@link POWIdProvider}, e.g. from Google Play services on Android.
+ */
+public final class POWAdvertisingInfo {
+
+    /**
+     * Hashes of the last used advertising ID, computed once per advertising ID change
+     */
+    @Nullable
+    private static volatile HashedId hashedId;
+
+    @Nullable
+    private final String id;
+
+    private final boolean limitAdTrackingEnabled;
+
+    /**
+     * Constructs the {@link POWAdvertisingInfo}
+     *
+     * @param id                     the advertising ID, null if it is not available
+     * @param limitAdTrackingEnabled true if the user has limited ad tracking
+     */
+    public POWAdvertisingInfo(@Nullable String id, boolean limitAdTrackingEnabled) {
+        this.id = id;
+        this.limitAdTrackingEnabled = limitAdTrackingEnabled;
+    }
+
+    /**
+     * Returns the advertising ID
+     *
+     * @return the advertising ID, null if it is not available
+     */
+    @Nullable
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns whether the user has limited ad tracking
+     *
+     * @return true if ad tracking is limited
+     */
+    public boolean isLimitAdTrackingEnabled() {
+        return limitAdTrackingEnabled;
+    }
+
+    /**
+     * Returns the hash of given advertising ID as per given hash type. Hashes are computed once
+     * and reused till the advertising ID changes.
+     *
+     * @param advertisingId the advertising ID
+     * @param hashType      the hash type, {@link POWConfiguration.HashType#RAW} returns the ID as is
+     * @return the hashed advertising ID
+     */
+    @NonNull
+    static String getHashedId(@NonNull String advertisingId, @NonNull POWConfiguration.HashType hashType) {
+        if (hashType == POWConfiguration.HashType.RAW) {
+            return advertisingId;
+        }
+        HashedId cachedId = hashedId;
+        if (cachedId == null || !cachedId.advertisingId.equals(advertisingId)) {
+            cachedId = new HashedId(advertisingId);
+            hashedId = cachedId;
+        }
+        return hashType == POWConfiguration.HashType.MD5 ? cachedId.getMd5() : cachedId.getSha1();
+    }
+
+    /**
+     * Clears the cached hashes, e.g. when the application session is to be restarted in tests
+     */
+    static void clearHashedId() {
+        hashedId = null;
+    }
+
+    /**
+     * Holds the advertising ID along with its hashes, computed lazily
+     */
+    private static class HashedId {
+        @NonNull
+        private final String advertisingId;
+        @Nullable
+        private volatile String md5;
+        @Nullable
+        private volatile String sha1;
+
+        HashedId(@NonNull String advertisingId) {
+            this.advertisingId = advertisingId;
+        }
+
+        @NonNull
+        String getMd5() {
+            String hash = md5;
+            if (hash == null) {
+                hash = POWUtil.md5(advertisingId);
+                md5 = hash;
+            }
+            return hash;
+        }
+
+        @NonNull
+        String getSha1() {
+            String hash = sha1;
+            if (hash == null) {
+                hash = POWUtil.sha1(advertisingId);
+                sha1 = hash;
+            }
+            return hash;
+        }
+    }
+}
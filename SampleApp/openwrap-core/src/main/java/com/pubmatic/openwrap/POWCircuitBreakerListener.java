@@ -0,0 +1,44 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Interface definition to get the state changes of the circuit breaker of OpenWrap calls, set
+ * using {@link POWConfiguration#setCircuitBreakerListener(POWCircuitBreakerListener)}
+ */
+public interface POWCircuitBreakerListener {
+
+    /**
+     * State of the circuit breaker
+     */
+    enum State {
+        /**
+         * OpenWrap calls are sent
+         */
+        CLOSED,
+        /**
+         * OpenWrap calls fail immediately, as OpenWrap server is failing
+         */
+        OPEN,
+        /**
+         * One probe call is sent to check whether OpenWrap server is recovered, other calls fail
+         * immediately
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Notifies the new state of the circuit breaker. It is called on main thread.
+     *
+     * @param state the new state
+     */
+    void onCircuitStateChanged(@NonNull State state);
+}
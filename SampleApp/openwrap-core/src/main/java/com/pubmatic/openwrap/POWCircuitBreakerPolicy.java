@@ -0,0 +1,130 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Settings of the circuit breaker of OpenWrap calls, set using
+ * {@link POWConfiguration#setCircuitBreakerPolicy(POWCircuitBreakerPolicy)}. The circuit opens
+ * once the configured number of calls fail within the failure window, due to timeout, server
+ * error or connection failure. While the circuit is open, ad loadings fail immediately with
+ * error code 1001, so that the ad is requested from ad server without waiting for OpenWrap.
+ * After the open duration, one probe call is sent in half-open state: the circuit closes if it
+ * succeeds, otherwise it opens again.
+ * <p>
+ * Create the instance using {@link Builder}
+ */
+public class POWCircuitBreakerPolicy {
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final int DEFAULT_FAILURE_WINDOW = 10000;
+    public static final int DEFAULT_OPEN_DURATION = 30000;
+
+    private final int failureThreshold;
+    private final int failureWindow;
+    private final int openDuration;
+
+    private POWCircuitBreakerPolicy(@NonNull Builder builder) {
+        failureThreshold = builder.failureThreshold;
+        failureWindow = builder.failureWindow;
+        openDuration = builder.openDuration;
+    }
+
+    /**
+     * Returns the number of failed calls within failure window which opens the circuit
+     *
+     * @return the failure threshold
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Returns the window the failures are counted in
+     *
+     * @return the failure window in milliseconds
+     */
+    public int getFailureWindow() {
+        return failureWindow;
+    }
+
+    /**
+     * Returns the time the circuit stays open before a probe call is sent
+     *
+     * @return the open duration in milliseconds
+     */
+    public int getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * Builder to create {@link POWCircuitBreakerPolicy}
+     */
+    public static class Builder {
+        private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+        private int failureWindow = DEFAULT_FAILURE_WINDOW;
+        private int openDuration = DEFAULT_OPEN_DURATION;
+
+        /**
+         * Sets the number of failed calls within failure window which opens the circuit.
+         * Default value is {@link POWCircuitBreakerPolicy#DEFAULT_FAILURE_THRESHOLD}
+         *
+         * @param failureThreshold the failure threshold
+         * @return this builder
+         */
+        @NonNull
+        public Builder setFailureThreshold(int failureThreshold) {
+            if (failureThreshold > 0) {
+                this.failureThreshold = failureThreshold;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the window the failures are counted in. Default value is
+         * {@link POWCircuitBreakerPolicy#DEFAULT_FAILURE_WINDOW}
+         *
+         * @param failureWindow the failure window in milliseconds
+         * @return this builder
+         */
+        @NonNull
+        public Builder setFailureWindow(int failureWindow) {
+            if (failureWindow > 0) {
+                this.failureWindow = failureWindow;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the time the circuit stays open before a probe call is sent. Default value is
+         * {@link POWCircuitBreakerPolicy#DEFAULT_OPEN_DURATION}
+         *
+         * @param openDuration the open duration in milliseconds
+         * @return this builder
+         */
+        @NonNull
+        public Builder setOpenDuration(int openDuration) {
+            if (openDuration > 0) {
+                this.openDuration = openDuration;
+            }
+            return this;
+        }
+
+        /**
+         * Creates the circuit breaker policy
+         *
+         * @return the circuit breaker policy
+         */
+        @NonNull
+        public POWCircuitBreakerPolicy build() {
+            return new POWCircuitBreakerPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,819 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import com.pubmatic.openwrap.models.POWApplicationInfo;
+import com.pubmatic.openwrap.models.POWLocation;
+import com.pubmatic.openwrap.models.POWUserInfo;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Provides global configurations for the OpenWrap module, e.g. location access, CCPA, GDPR, etc.
+ * These configurations are globally applicable for OpenWrap module; you don't have to set these for
+ * every ad request.
+ */
+public class POWConfiguration {
+
+    /**
+     * Default maximum number of OpenWrap responses held in bid cache
+     */
+    public static final int DEFAULT_BID_CACHE_SIZE = 10;
+
+    /**
+     * Private Static instance
+     */
+    private static volatile POWConfiguration sSelf;
+    /**
+     * Current values of the ad request parameters. Setters publish an updated copy, so that an
+     * ad request reads all the parameters from one consistent snapshot without locking.
+     */
+    @NonNull
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot());
+    /**
+     * Time in milliseconds for which OpenWrap response is served from bid cache. Bid cache is
+     * disabled if it is 0, which is default value.
+     */
+    private volatile long bidCacheTTL;
+    /**
+     * Maximum number of OpenWrap responses held in bid cache
+     */
+    private volatile int bidCacheSize = DEFAULT_BID_CACHE_SIZE;
+    /**
+     * Maximum size in bytes of the file persisting bid cache. Bid store is disabled if it is 0,
+     * which is default value.
+     */
+    private volatile int bidStoreSize;
+    /**
+     * Network engine used to send OpenWrap requests, Volley is used if it is not set
+     */
+    @Nullable
+    private volatile POWTransport transport;
+    /**
+     * Flag to warm up the connection with OpenWrap server when ads loader is created
+     */
+    private volatile boolean connectionWarmUpEnabled;
+    /**
+     * Listener to get the timing of every ad loading
+     */
+    @Nullable
+    private volatile POWMetricsListener metricsListener;
+    /**
+     * Settings of adaptive network timeout, null if disabled
+     */
+    @Nullable
+    private volatile POWAdaptiveTimeout adaptiveTimeout;
+    /**
+     * Retry settings of OpenWrap calls
+     */
+    @NonNull
+    private volatile POWRetryPolicy retryPolicy = new POWRetryPolicy.Builder().build();
+    /**
+     * Settings of the circuit breaker of OpenWrap calls, null if disabled. It is disabled by
+     * default, so that the failure behavior is unchanged unless it is opted in.
+     */
+    @Nullable
+    private volatile POWCircuitBreakerPolicy circuitBreakerPolicy;
+    /**
+     * Listener to get the state changes of the circuit breaker
+     */
+    @Nullable
+    private volatile POWCircuitBreakerListener circuitBreakerListener;
+    /**
+     * Projection applied to the targeting of OpenWrap responses, full targeting is delivered if
+     * it is not set
+     */
+    @Nullable
+    private volatile POWTargetingProjection targetingProjection;
+    /**
+     * Logger receiving the log messages of OpenWrap module, messages are dropped if it is not set
+     */
+    @Nullable
+    private volatile POWLogger logger;
+
+    /**
+     * Method to get the shared instance of OpenWrap module configuration.
+     *
+     * @return Shared instance of POWConfiguration
+     */
+    public static POWConfiguration getInstance() {
+        POWConfiguration configuration = sSelf;
+        if (configuration == null) {
+            synchronized (POWConfiguration.class) {
+                configuration = sSelf;
+                if (configuration == null) {
+                    configuration = new POWConfiguration();
+                    sSelf = configuration;
+                }
+            }
+        }
+        return configuration;
+    }
+
+    /**
+     * Private constructor
+     */
+    private POWConfiguration() {
+    }
+
+    /**
+     * Returns the current snapshot of ad request parameters. It never changes, so the parameters
+     * read from it are consistent even if the configuration is updated concurrently.
+     *
+     * @return the configuration snapshot
+     */
+    @NonNull
+    Snapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Returns the version of the configuration, it changes whenever any ad request parameter is
+     * updated
+     *
+     * @return the configuration version
+     */
+    int getVersion() {
+        return snapshot.get().version;
+    }
+
+    /**
+     * Publishes a copy of the current snapshot updated by given updater, retrying if another
+     * update is published meanwhile
+     *
+     * @param updater the updater applying the change to the copy
+     */
+    private void update(@NonNull SnapshotUpdater updater) {
+        Snapshot current;
+        Snapshot updated;
+        do {
+            current = snapshot.get();
+            updated = new Snapshot(current);
+            updater.update(updated);
+        } while (!snapshot.compareAndSet(current, updated));
+    }
+
+    /**
+     * Returns the custom key-value pairs to be passed in the OpenWrap request.
+     *
+     * @return custom key-value pairs to be passed in the OpenWrap request.
+     */
+    public @Nullable
+    Map<String, String> getCustomKeyValues() {
+        return snapshot.get().customKeyValues;
+    }
+
+    /**
+     * Method to set the custom key-value pairs to be passed in the OpenWrap request.
+     *
+     * @param customKeyValues custom key-value pairs to be passed in the OpenWrap request.
+     */
+    public void setCustomKeyValues(@NonNull Map<String, String> customKeyValues) {
+        // Copy the map, so that later changes of caller's map do not leak into the snapshot
+        Map<String, String> keyValues = Collections.unmodifiableMap(new LinkedHashMap<>(customKeyValues));
+        update(updated -> updated.customKeyValues = keyValues);
+    }
+
+    /**
+     * Returns the Hash type to be applied on the advertising id befire sending it in bid request.
+     *
+     * @return Hash type
+     */
+    public HashType getHashTypeForAdvertisingId() {
+        return snapshot.get().hashTypeForAdvertisingId;
+    }
+
+    /**
+     * Sets the Hash type to be applied on the advertising id befire sending it in bid request.
+     *
+     * @param hashTypeForAdvertisingId Hash type
+     */
+    public void setHashTypeForAdvertisingId(@NonNull HashType hashTypeForAdvertisingId) {
+        update(updated -> updated.hashTypeForAdvertisingId = hashTypeForAdvertisingId);
+    }
+
+    /**
+     * Returns the Linearity type. Its value could be LINEAR / NON_LINEAR
+     *
+     * @return Linearity type
+     */
+    @NonNull
+    public Linearity getLinearity() {
+        return snapshot.get().linearity;
+    }
+
+    /**
+     * Sets the Linearity type. Its value could be LINEAR / NON_LINEAR
+     *
+     * @param linearity Linearity type
+     */
+    public void setLinearity(@NonNull Linearity linearity) {
+        update(updated -> updated.linearity = linearity);
+    }
+
+    /**
+     * Returns CCPA compliant string
+     *
+     * @return CCPA compliant string
+     */
+    @Nullable
+    public String getCCPAString() {
+        return snapshot.get().ccpaString;
+    }
+
+    /**
+     * Sets the CCPA compliant string
+     *
+     * @param ccpaString CCPA compliant string
+     */
+    public void setCCPAString(@NonNull String ccpaString) {
+        update(updated -> updated.ccpaString = ccpaString);
+    }
+
+    /**
+     * Returns the GDPR compliance state
+     *
+     * @return GDPR compliance state
+     */
+    public Boolean isEnableGDPR() {
+        return snapshot.get().enableGDPR;
+    }
+
+    /**
+     * Sets the GDPR compliance state
+     *
+     * @param enableGDPR GDPR compliance state
+     */
+    public void setEnableGDPR(boolean enableGDPR) {
+        update(updated -> updated.enableGDPR = enableGDPR);
+    }
+
+    /**
+     * Returns the GDPR consent string
+     *
+     * @return GDPR consent string
+     */
+    @Nullable
+    public String getGdprConsent() {
+        return snapshot.get().gdprConsent;
+    }
+
+    /**
+     * Set GDPR consent string
+     *
+     * @param gdprConsent GDPR consent string
+     */
+    public void setGdprConsent(@NonNull String gdprConsent) {
+        update(updated -> updated.gdprConsent = gdprConsent);
+    }
+
+    /**
+     * Returns a copy of the user info object, changes to it take effect once it is set again
+     * using {@link #setUserInfo(POWUserInfo)}
+     *
+     * @return user info object
+     */
+    @Nullable
+    public POWUserInfo getUserInfo() {
+        POWUserInfo info = snapshot.get().userInfo;
+        return info != null ? new POWUserInfo(info) : null;
+    }
+
+    /**
+     * Sets the user info object. It is copied, so later changes to given object are not passed
+     * in the ad request unless it is set again.
+     *
+     * @param info user info object
+     */
+    public void setUserInfo(@NonNull POWUserInfo info) {
+        // Copy the info, so that a request never reads a partially updated user info
+        POWUserInfo userInfo = new POWUserInfo(info);
+        update(updated -> updated.userInfo = userInfo);
+    }
+
+    /**
+     * Returns a copy of the application info object, changes to it take effect once it is set
+     * again using {@link #setAppInfo(POWApplicationInfo)}
+     *
+     * @return the application info object
+     */
+    @Nullable
+    public POWApplicationInfo getAppInfo() {
+        POWApplicationInfo info = snapshot.get().appInfo;
+        return info != null ? info.copy() : null;
+    }
+
+    /**
+     * Sets the POWApplicationInfo object. It is copied, so later changes to given object are not
+     * passed in the ad request unless it is set again.
+     *
+     * @param info POWApplicationInfo object
+     */
+    public void setAppInfo(@NonNull POWApplicationInfo info) {
+        // Copy the info, so that a request never reads a partially updated application info
+        POWApplicationInfo appInfo = info.copy();
+        update(updated -> updated.appInfo = appInfo);
+    }
+
+    /**
+     * Returns the time in milliseconds for which OpenWrap response is served from bid cache
+     *
+     * @return bid cache TTL in milliseconds, 0 if bid cache is disabled
+     */
+    public long getBidCacheTTL() {
+        return bidCacheTTL;
+    }
+
+    /**
+     * Sets the time in milliseconds for which OpenWrap response is served from bid cache. Ad
+     * requests having same fingerprint, i.e. publisher id, profile id, ad unit id, ad size etc.
+     * are served from cache without network call within this duration. Pass 0 to disable the
+     * bid cache.
+     *
+     * @param bidCacheTTL bid cache TTL in milliseconds
+     */
+    public void setBidCacheTTL(long bidCacheTTL) {
+        this.bidCacheTTL = Math.max(0, bidCacheTTL);
+    }
+
+    /**
+     * Returns the maximum number of OpenWrap responses held in bid cache
+     *
+     * @return maximum number of cached responses
+     */
+    public int getBidCacheSize() {
+        return bidCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of OpenWrap responses held in bid cache. Least recently used
+     * response is evicted once the limit is reached. Default value is
+     * {@link POWConfiguration#DEFAULT_BID_CACHE_SIZE}
+     *
+     * @param bidCacheSize maximum number of cached responses
+     */
+    public void setBidCacheSize(int bidCacheSize) {
+        if (bidCacheSize > 0) {
+            this.bidCacheSize = bidCacheSize;
+        }
+    }
+
+    /**
+     * Returns the maximum size in bytes of the file persisting bid cache
+     *
+     * @return bid store size in bytes, 0 if bid store is disabled
+     */
+    public int getBidStoreSize() {
+        return bidStoreSize;
+    }
+
+    /**
+     * Sets the maximum size in bytes of the file persisting the targeting of bid cache and
+     * prefetched responses. Unexpired responses are restored when the ads loader is created after
+     * the process death, so that the resumed session is served without network call. Oldest
+     * responses are dropped once the file reaches this size. Pass 0 to disable the bid store,
+     * which is default. It must be set before the ads loader is created.
+     *
+     * @param bidStoreSize bid store size in bytes
+     */
+    public void setBidStoreSize(int bidStoreSize) {
+        this.bidStoreSize = Math.max(0, bidStoreSize);
+    }
+
+    /**
+     * Returns the network engine used to send OpenWrap requests
+     *
+     * @return the transport, null if default Volley transport is used
+     */
+    @Nullable
+    public POWTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Sets the network engine used to send OpenWrap requests, e.g. {@link POWHttpTransport}
+     * keeping persistent connections to OpenWrap server. Pass null to use default Volley
+     * transport.
+     *
+     * @param transport the transport
+     */
+    public void setTransport(@Nullable POWTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Returns whether the connection with OpenWrap server is warmed up when ads loader is created
+     *
+     * @return true if connection warm-up is enabled
+     */
+    public boolean isConnectionWarmUpEnabled() {
+        return connectionWarmUpEnabled;
+    }
+
+    /**
+     * Enables warming up the connection with OpenWrap server, i.e. DNS lookup along with TCP and
+     * TLS handshake, on background thread when the first {@code POWAdsLoader} is created. The
+     * connection is kept alive for the first ad request, so enable it well before the first ad
+     * request, e.g. on application launch. It is applicable for the default transport and
+     * {@link POWHttpTransport}. It is disabled by default.
+     *
+     * @param connectionWarmUpEnabled true to enable connection warm-up
+     */
+    public void setConnectionWarmUpEnabled(boolean connectionWarmUpEnabled) {
+        this.connectionWarmUpEnabled = connectionWarmUpEnabled;
+    }
+
+    /**
+     * Returns the listener getting the timing of every ad loading
+     *
+     * @return the metrics listener, null if not set
+     */
+    @Nullable
+    public POWMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Sets the listener to get the timing of every ad loading, split into the stages of ad
+     * loading pipeline. The timings are aggregated in {@code POWMetrics} even if the listener is
+     * not set.
+     *
+     * @param metricsListener the metrics listener, null to remove it
+     */
+    public void setMetricsListener(@Nullable POWMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    /**
+     * Returns the settings of adaptive network timeout
+     *
+     * @return the adaptive timeout settings, null if disabled
+     */
+    @Nullable
+    public POWAdaptiveTimeout getAdaptiveTimeout() {
+        return adaptiveTimeout;
+    }
+
+    /**
+     * Enables adaptive network timeout, which derives the network timeout of OpenWrap calls
+     * from the recent OpenWrap response times on current network type. It is disabled by
+     * default, and the network timeout of ad request is used.
+     *
+     * @param adaptiveTimeout the adaptive timeout settings, null to disable it
+     */
+    public void setAdaptiveTimeout(@Nullable POWAdaptiveTimeout adaptiveTimeout) {
+        this.adaptiveTimeout = adaptiveTimeout;
+    }
+
+    /**
+     * Returns the retry settings of OpenWrap calls
+     *
+     * @return the retry policy
+     */
+    @NonNull
+    public POWRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the retry settings of OpenWrap calls. By default a failed call is retried once, as
+     * per the defaults of {@link POWRetryPolicy.Builder}
+     *
+     * @param retryPolicy the retry policy, null to restore the default
+     */
+    public void setRetryPolicy(@Nullable POWRetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy != null ? retryPolicy : new POWRetryPolicy.Builder().build();
+    }
+
+    /**
+     * Returns the settings of the circuit breaker of OpenWrap calls
+     *
+     * @return the circuit breaker policy, null if disabled
+     */
+    @Nullable
+    public POWCircuitBreakerPolicy getCircuitBreakerPolicy() {
+        return circuitBreakerPolicy;
+    }
+
+    /**
+     * Sets the settings of the circuit breaker, which fails the ad loadings immediately with
+     * error code 1001 while OpenWrap server is failing. It is disabled by default, set
+     * {@code new POWCircuitBreakerPolicy.Builder().build()} to enable it with default settings.
+     *
+     * @param circuitBreakerPolicy the circuit breaker policy, null to disable the circuit breaker
+     */
+    public void setCircuitBreakerPolicy(@Nullable POWCircuitBreakerPolicy circuitBreakerPolicy) {
+        this.circuitBreakerPolicy = circuitBreakerPolicy;
+    }
+
+    /**
+     * Returns the listener getting the state changes of the circuit breaker
+     *
+     * @return the circuit breaker listener, null if not set
+     */
+    @Nullable
+    public POWCircuitBreakerListener getCircuitBreakerListener() {
+        return circuitBreakerListener;
+    }
+
+    /**
+     * Sets the listener to get the state changes of the circuit breaker
+     *
+     * @param circuitBreakerListener the circuit breaker listener, null to remove it
+     */
+    public void setCircuitBreakerListener(@Nullable POWCircuitBreakerListener circuitBreakerListener) {
+        this.circuitBreakerListener = circuitBreakerListener;
+    }
+
+    /**
+     * Returns the projection applied to the targeting of OpenWrap responses
+     *
+     * @return the targeting projection, null if full targeting is delivered
+     */
+    @Nullable
+    public POWTargetingProjection getTargetingProjection() {
+        return targetingProjection;
+    }
+
+    /**
+     * Sets the projection applied to the targeting of the responses delivered to
+     * {@code POWAdLoading.AdsLoaderListener}, so that only the keys used by GAM line items are
+     * passed to the ad tag. Full targeting is delivered by default.
+     *
+     * @param targetingProjection the targeting projection, null to deliver full targeting
+     */
+    public void setTargetingProjection(@Nullable POWTargetingProjection targetingProjection) {
+        this.targetingProjection = targetingProjection;
+    }
+
+    /**
+     * Returns the logger receiving the log messages of OpenWrap module
+     *
+     * @return the logger, null if the messages are dropped
+     */
+    @Nullable
+    public POWLogger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Sets the logger receiving the log messages of OpenWrap module. On Android, Logcat logger is
+     * set when the first {@code POWAdsLoader} is created, unless a logger is already set.
+     *
+     * @param logger the logger, null to drop the messages
+     */
+    public void setLogger(@Nullable POWLogger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Updater applying a change to the copy of snapshot before it is published
+     */
+    private interface SnapshotUpdater {
+        void update(@NonNull Snapshot snapshot);
+    }
+
+    /**
+     * Immutable snapshot of the ad request parameters. Its fields are assigned only on the copy
+     * which is not yet published.
+     */
+    static final class Snapshot {
+        /**
+         * Version of the configuration, incremented by every update. It lets the derived data,
+         * e.g. pre-encoded request prefix, to be invalidated on change.
+         */
+        private final int version;
+        /**
+         * Object having user information, such as birth year, gender, region, etc, for more relevant ads.
+         * It is a private copy which is never modified.
+         */
+        @Nullable
+        private POWUserInfo userInfo;
+        /**
+         * Object having application information, which contains various attributes about app,
+         * such as application category, store URL, domain, etc, for more relevant ads. It is a
+         * private copy which is never modified.
+         */
+        @Nullable
+        private POWApplicationInfo appInfo;
+        /**
+         * Enable GDPR compliance, it indicates whether or not the ad request is GDPR(General Data Protection Regulation) compliant.
+         * Note: By default, this parameter is omitted in the ad request.
+         */
+        @Nullable
+        private Boolean enableGDPR;
+        /**
+         * Set GDPR consent string to convey user consent when GDPR regulations are in effect. A valid
+         * Base64 encoded consent string as per
+         * https://github.com/InteractiveAdvertisingBureau/GDPR-Transparency-and-Consent-Framework.
+         * The user consent string is optional, but highly recommended if the request is subject to GDPR
+         * regulations (i.e. gdpr = YES). The default sense of consent under GDPR is “opt-out” and
+         * as such, an omitted consent string in a request subject to GDPR would be interpreted as
+         * equivalent to the user fully opting out of all defined purposes for data use by all parties.
+         */
+        @Nullable
+        private String gdprConsent;
+        /**
+         * CCPA compliant string, it helps publisher toward compliance with the California Consumer Privacy Act (CCPA).
+         * For more details refer https://www.iab.com/guidelines/ccpa-framework/
+         * Make sure that the string value you use is compliant with the IAB Specification, refer
+         * https://iabtechlab.com/wp-content/uploads/2019/11/U.S.-Privacy-String-v1.0-IAB-Tech-Lab.pdf
+         * <p>
+         * If this is not set, it looks for app's UserDefault with key 'IABUSPrivacy_String'
+         * If CCPA is applied through both options, the OpenWrap will honour only API property.
+         * If both are not set then CCPA parameter is omitted from an ad request.
+         */
+        @Nullable
+        private String ccpaString;
+        /**
+         * Linearity type
+         */
+        @NonNull
+        private Linearity linearity = Linearity.LINEAR;
+        /**
+         * Hash type to be applied on the advertising id befire sending it in bid request.
+         */
+        @NonNull
+        private HashType hashTypeForAdvertisingId = HashType.RAW;
+        /**
+         * Unmodifiable map of key-value pairs to be passed in the OpenWrap request.
+         */
+        @Nullable
+        private Map<String, String> customKeyValues;
+        /**
+         * Fingerprint of the ad request parameters, derived lazily once the snapshot is published
+         */
+        @Nullable
+        private volatile String fingerprint;
+
+        private Snapshot() {
+            version = 0;
+        }
+
+        private Snapshot(@NonNull Snapshot snapshot) {
+            version = snapshot.version + 1;
+            userInfo = snapshot.userInfo;
+            appInfo = snapshot.appInfo;
+            enableGDPR = snapshot.enableGDPR;
+            gdprConsent = snapshot.gdprConsent;
+            ccpaString = snapshot.ccpaString;
+            linearity = snapshot.linearity;
+            hashTypeForAdvertisingId = snapshot.hashTypeForAdvertisingId;
+            customKeyValues = snapshot.customKeyValues;
+        }
+
+        int getVersion() {
+            return version;
+        }
+
+        @Nullable
+        POWUserInfo getUserInfo() {
+            return userInfo;
+        }
+
+        @Nullable
+        POWApplicationInfo getAppInfo() {
+            return appInfo;
+        }
+
+        @Nullable
+        Boolean isEnableGDPR() {
+            return enableGDPR;
+        }
+
+        @Nullable
+        String getGdprConsent() {
+            return gdprConsent;
+        }
+
+        @Nullable
+        String getCCPAString() {
+            return ccpaString;
+        }
+
+        @NonNull
+        Linearity getLinearity() {
+            return linearity;
+        }
+
+        @NonNull
+        HashType getHashTypeForAdvertisingId() {
+            return hashTypeForAdvertisingId;
+        }
+
+        @Nullable
+        Map<String, String> getCustomKeyValues() {
+            return customKeyValues;
+        }
+
+        /**
+         * Returns the fingerprint of the ad request parameters of this snapshot, i.e. privacy
+         * signals, custom key-values, user info and app info. It is formed from their values, not
+         * from the version, so that it also identifies the configuration across application
+         * sessions, e.g. for the persisted bids.
+         *
+         * @return the configuration fingerprint
+         */
+        @NonNull
+        String getFingerprint() {
+            String value = fingerprint;
+            if (value == null) {
+                StringBuilder builder = new StringBuilder();
+                builder.append(enableGDPR).append('|')
+                        .append(gdprConsent).append('|')
+                        .append(ccpaString).append('|')
+                        .append(linearity).append('|')
+                        .append(hashTypeForAdvertisingId).append('|')
+                        .append(customKeyValues);
+                if (userInfo != null) {
+                    builder.append("|user:")
+                            .append(userInfo.getBirthYear()).append(',')
+                            .append(userInfo.getGender()).append(',')
+                            .append(userInfo.getCountry()).append(',')
+                            .append(userInfo.getCity()).append(',')
+                            .append(userInfo.getMetro()).append(',')
+                            .append(userInfo.getZip());
+                    POWLocation location = userInfo.getLocation();
+                    if (location != null) {
+                        builder.append(',').append(location.getLatitude())
+                                .append(',').append(location.getLongitude())
+                                .append(',').append(location.getSource());
+                    }
+                }
+                if (appInfo != null) {
+                    builder.append("|app:")
+                            .append(appInfo.getName()).append(',')
+                            .append(appInfo.getPackageName()).append(',')
+                            .append(appInfo.getDomain()).append(',')
+                            .append(appInfo.getStoreURL()).append(',')
+                            .append(appInfo.isPaid()).append(',')
+                            .append(appInfo.getCategories());
+                }
+                value = builder.toString();
+                fingerprint = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Enum for Linearity type
+     */
+    public enum Linearity {
+        UNKNOWN(0), LINEAR(1), NON_LINEAR(2);
+
+        private final int value;
+
+        Linearity(int val) {
+            value = val;
+        }
+
+        /**
+         * Returns the int identifier of Linearity. Possible values are:
+         * 1 - LINEAR
+         * 2 - NON_LINEAR
+         *
+         * @return int identifier of Linearity
+         */
+        public int getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Enum for Advertising id hashing
+     */
+    public enum HashType {
+        RAW(1), SHA1(2), MD5(3);
+
+        private final int value;
+
+        HashType(int val) {
+            value = val;
+        }
+
+        /**
+         * Returns the int identifier of HashType. Possible values are:
+         * 1 - RAW
+         * 2 - SHA1
+         * 3 - MD5
+         *
+         * @return int identifier of HashType
+         */
+        public int getValue() {
+            return value;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+/**
+ * Network error equivalent Enum class with error codes
+ */
+enum POWError {
+    AUTH_FAILURE_ERROR(401),
+    NETWORK_ERROR(410),
+    PARSE_ERROR(204),
+    SERVER_ERROR(500),
+    TIMEOUT_ERROR(408),
+    NO_CONNECTION_ERROR(502),
+    CONNECTION_RESET_ERROR(1000),
+    CIRCUIT_OPEN_ERROR(1001);
+
+    private int errorCode;
+
+    POWError(int errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    int getErrorCode() {
+        return errorCode;
+    }
+}
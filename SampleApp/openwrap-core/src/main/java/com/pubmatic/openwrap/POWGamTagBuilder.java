@@ -0,0 +1,149 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import org.json.JSONObject;
+
+import java.util.Iterator;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Composes GAM ad tag url for IMA by adding OpenWrap targeting as the cust_params of given GAM
+ * tag. The tag is parsed once, when the builder is created, and each ad tag is written in one
+ * pass into a buffer reused by the builder, without intermediate strings.
+ * <p>
+ * Targeting is encoded same as {@link POWUtil#generateEncodedQueryParams(JSONObject)}, i.e. the
+ * key-value pairs are encoded as query string and the query string is encoded again as the value
+ * of cust_params. If the tag already has cust_params, targeting is appended to its value.
+ */
+public class POWGamTagBuilder {
+
+    private static final String CUST_PARAMS = "cust_params";
+    /**
+     * Encoded '&amp;' separating the key-value pairs within cust_params
+     */
+    private static final String ENCODED_SEPARATOR = "%26";
+
+    @NonNull
+    private final String gamTag;
+
+    /**
+     * Part of the tag up to the cust_params value, i.e. where targeting is written
+     */
+    @NonNull
+    private final String head;
+
+    /**
+     * Part of the tag after the cust_params value, i.e. remaining parameters or fragment
+     */
+    @NonNull
+    private final String tail;
+
+    /**
+     * Flag to indicate that the tag has a non-empty cust_params value, to which the targeting is
+     * appended after a separator
+     */
+    private final boolean hasCustParams;
+
+    @NonNull
+    private final StringBuilder buffer;
+
+    /**
+     * Creates the builder for given GAM tag, e.g. the GAM ad tag url with ad unit and size filled in
+     *
+     * @param gamTag the GAM ad tag url
+     */
+    public POWGamTagBuilder(@NonNull String gamTag) {
+        this.gamTag = gamTag;
+        int fragmentIndex = gamTag.indexOf('#');
+        int queryEnd = fragmentIndex >= 0 ? fragmentIndex : gamTag.length();
+        int queryIndex = gamTag.indexOf('?');
+        if (queryIndex > queryEnd) {
+            queryIndex = -1;
+        }
+        int valueStart = queryIndex >= 0 ? findValue(gamTag, queryIndex + 1, queryEnd) : -1;
+        if (valueStart >= 0) {
+            int valueEnd = gamTag.indexOf('&', valueStart);
+            if (valueEnd < 0 || valueEnd > queryEnd) {
+                valueEnd = queryEnd;
+            }
+            head = gamTag.substring(0, valueEnd);
+            tail = gamTag.substring(valueEnd);
+            hasCustParams = valueEnd > valueStart;
+        } else {
+            String separator;
+            if (queryIndex < 0) {
+                separator = "?";
+            } else if (queryIndex == queryEnd - 1 || gamTag.charAt(queryEnd - 1) == '&') {
+                separator = "";
+            } else {
+                separator = "&";
+            }
+            head = gamTag.substring(0, queryEnd) + separator + CUST_PARAMS + "=";
+            tail = gamTag.substring(queryEnd);
+            hasCustParams = false;
+        }
+        buffer = new StringBuilder(head.length() + tail.length() + 512);
+    }
+
+    /**
+     * Returns the GAM ad tag url along with given targeting. The builder can be used from any
+     * thread, but the calls are serialized on its buffer.
+     *
+     * @param targeting the OpenWrap targeting, see {@link POWAdResponse#getTargeting()}
+     * @return the ad tag url, the GAM tag as is if targeting is null or empty
+     */
+    @NonNull
+    public synchronized String build(@Nullable JSONObject targeting) {
+        if (targeting == null || targeting.length() == 0) {
+            return gamTag;
+        }
+        buffer.setLength(0);
+        buffer.append(head);
+        boolean separatorNeeded = hasCustParams;
+        Iterator<String> iterator = targeting.keys();
+        while (iterator.hasNext()) {
+            String key = iterator.next();
+            if (separatorNeeded) {
+                buffer.append(ENCODED_SEPARATOR);
+            }
+            separatorNeeded = true;
+            POWQueryStringBuilder.encode(buffer, key, true);
+            // Encoded '='
+            buffer.append("%3D");
+            POWQueryStringBuilder.encode(buffer, String.valueOf(targeting.opt(key)), true);
+        }
+        buffer.append(tail);
+        return buffer.toString();
+    }
+
+    /**
+     * Returns the index of the cust_params value in given query string
+     *
+     * @return the value index, -1 if the query string does not have cust_params
+     */
+    private static int findValue(@NonNull String url, int queryStart, int queryEnd) {
+        int paramStart = queryStart;
+        while (paramStart < queryEnd) {
+            int paramEnd = url.indexOf('&', paramStart);
+            if (paramEnd < 0 || paramEnd > queryEnd) {
+                paramEnd = queryEnd;
+            }
+            int keyEnd = paramStart + CUST_PARAMS.length();
+            if (keyEnd < paramEnd && url.charAt(keyEnd) == '='
+                    && url.regionMatches(paramStart, CUST_PARAMS, 0, CUST_PARAMS.length())) {
+                return keyEnd + 1;
+            }
+            paramStart = paramEnd + 1;
+        }
+        return -1;
+    }
+}
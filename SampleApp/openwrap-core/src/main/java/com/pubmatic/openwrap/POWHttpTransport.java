@@ -0,0 +1,340 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * {@link POWTransport} built on {@link HttpURLConnection}. It keeps persistent HTTP/1.1
+ * keep-alive connections to OpenWrap server, as response bodies are always drained and
+ * connections are never disconnected explicitly, so that the successive requests skip DNS, TCP
+ * and TLS handshakes. Requests run on a bounded pool of worker threads, which also deliver the
+ * response to be parsed.
+ * <p>
+ * Create the instance using {@link Builder} and set it using
+ * {@link POWConfiguration#setTransport(POWTransport)}
+ */
+public class POWHttpTransport implements POWTransport {
+
+    public static final int DEFAULT_POOL_SIZE = 4;
+    private static final String TAG = "POWHttpTransport";
+    private static final String UTF_8 = "UTF-8";
+    private static final String GZIP = "gzip";
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 30;
+
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final boolean gzipEnabled;
+    @NonNull
+    private final ThreadPoolExecutor executor;
+    /**
+     * Ongoing requests mapped with their tag
+     */
+    @NonNull
+    private final Map<Object, List<Call>> calls = new HashMap<>();
+
+    private POWHttpTransport(@NonNull Builder builder) {
+        connectTimeout = builder.connectTimeout;
+        readTimeout = builder.readTimeout;
+        gzipEnabled = builder.gzipEnabled;
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(builder.poolSize, builder.poolSize,
+                IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, TAG + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void get(@NonNull String url, int timeout, @NonNull Object tag, @NonNull TransportListener listener) {
+        Call call = new Call(url, timeout, tag, listener);
+        synchronized (calls) {
+            List<Call> taggedCalls = calls.get(tag);
+            if (taggedCalls == null) {
+                taggedCalls = new ArrayList<>(1);
+                calls.put(tag, taggedCalls);
+            }
+            taggedCalls.add(call);
+        }
+        call.future = executor.submit(call);
+    }
+
+    @Override
+    public void cancel(@NonNull Object tag) {
+        List<Call> taggedCalls;
+        synchronized (calls) {
+            taggedCalls = calls.remove(tag);
+        }
+        if (taggedCalls != null) {
+            for (Call call : taggedCalls) {
+                call.cancel();
+            }
+        }
+    }
+
+    /**
+     * Removes the call from ongoing requests
+     *
+     * @param call the finished call
+     * @return true if the call was not cancelled
+     */
+    private boolean finish(@NonNull Call call) {
+        synchronized (calls) {
+            List<Call> taggedCalls = calls.get(call.tag);
+            if (taggedCalls == null || !taggedCalls.remove(call)) {
+                return false;
+            }
+            if (taggedCalls.isEmpty()) {
+                calls.remove(call.tag);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reads the stream completely, so that the connection can be reused, and closes it
+     *
+     * @param stream the stream to be read
+     * @return the bytes read
+     * @throws IOException if the stream could not be read
+     */
+    @NonNull
+    private static byte[] readFully(@Nullable InputStream stream) throws IOException {
+        if (stream == null) {
+            return new byte[0];
+        }
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, count);
+            }
+            return output.toByteArray();
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Network request sent on worker thread
+     */
+    private class Call implements Runnable {
+        @NonNull
+        private final String url;
+        private final int timeout;
+        @NonNull
+        private final Object tag;
+        @NonNull
+        private final TransportListener listener;
+        @Nullable
+        private volatile Future<?> future;
+        private volatile boolean cancelled;
+        // Nano times of the call stages, 0 if the stage is not reached
+        private final long submitNanos = System.nanoTime();
+        private long startNanos;
+        private long connectedNanos;
+        private long respondedNanos;
+
+        Call(@NonNull String url, int timeout, @NonNull Object tag, @NonNull TransportListener listener) {
+            this.url = url;
+            this.timeout = timeout;
+            this.tag = tag;
+            this.listener = listener;
+        }
+
+        void cancel() {
+            cancelled = true;
+            Future<?> requestFuture = future;
+            if (requestFuture != null) {
+                // Do not interrupt, so that an ongoing read does not break the pooled connection
+                requestFuture.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            startNanos = System.nanoTime();
+            HttpURLConnection connection = null;
+            try {
+                connection = (HttpURLConnection) new URL(url).openConnection();
+                connection.setConnectTimeout(connectTimeout > 0 ? connectTimeout : timeout);
+                connection.setReadTimeout(readTimeout > 0 ? readTimeout : timeout);
+                connection.setUseCaches(false);
+                // Setting the encoding explicitly disables transparent gzip of the platform, so
+                // the response is decoded here.
+                connection.setRequestProperty("Accept-Encoding", gzipEnabled ? GZIP : "identity");
+                connection.setRequestProperty("Accept", "application/json");
+
+                connection.connect();
+                connectedNanos = System.nanoTime();
+                int statusCode = connection.getResponseCode();
+                respondedNanos = System.nanoTime();
+                if (statusCode >= 200 && statusCode < 300) {
+                    InputStream stream = connection.getInputStream();
+                    if (GZIP.equalsIgnoreCase(connection.getContentEncoding())) {
+                        stream = new GZIPInputStream(stream);
+                    }
+                    deliverSuccess(new String(readFully(stream), UTF_8));
+                } else {
+                    // Drain the error body to keep the connection alive
+                    readFully(connection.getErrorStream());
+                    deliverFailure(statusCode, connection.getResponseMessage());
+                }
+            } catch (SocketTimeoutException e) {
+                disconnect(connection);
+                deliverFailure(POWError.TIMEOUT_ERROR.getErrorCode(), e.getMessage());
+            } catch (UnknownHostException | ConnectException | NoRouteToHostException e) {
+                disconnect(connection);
+                deliverFailure(POWError.NO_CONNECTION_ERROR.getErrorCode(), e.getMessage());
+            } catch (IOException e) {
+                disconnect(connection);
+                POWError error = POWUtil.isConnectionReset(e)
+                        ? POWError.CONNECTION_RESET_ERROR : POWError.NETWORK_ERROR;
+                deliverFailure(error.getErrorCode(), e.getMessage());
+            } catch (RuntimeException e) {
+                disconnect(connection);
+                deliverFailure(POWError.NETWORK_ERROR.getErrorCode(), e.getMessage());
+            }
+        }
+
+        private void disconnect(@Nullable HttpURLConnection connection) {
+            // Connection in unknown state must not be returned to the pool
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+
+        private void deliverSuccess(@NonNull String response) {
+            if (!cancelled && finish(this)) {
+                deliverTimings();
+                listener.onSuccess(response);
+            }
+        }
+
+        private void deliverFailure(int errorCode, @Nullable String errorMsg) {
+            POWLog.d(TAG, "error :" + errorCode + ", " + errorMsg);
+            if (!cancelled && finish(this)) {
+                deliverTimings();
+                listener.onFailure(errorCode, errorMsg);
+            }
+        }
+
+        private void deliverTimings() {
+            if (listener instanceof POWNetworkTimingListener) {
+                long endNanos = System.nanoTime();
+                ((POWNetworkTimingListener) listener).onNetworkTimings(
+                        (startNanos - submitNanos) / 1000,
+                        connectedNanos > 0 ? (connectedNanos - startNanos) / 1000 : POWLoadMetrics.NOT_MEASURED,
+                        respondedNanos > 0 ? (respondedNanos - connectedNanos) / 1000 : POWLoadMetrics.NOT_MEASURED,
+                        (endNanos - startNanos) / 1000);
+            }
+        }
+    }
+
+    /**
+     * Builder to create {@link POWHttpTransport}
+     */
+    public static class Builder {
+        private int poolSize = DEFAULT_POOL_SIZE;
+        private int connectTimeout;
+        private int readTimeout;
+        private boolean gzipEnabled = true;
+
+        /**
+         * Sets the maximum number of concurrent requests, i.e. the connections kept busy with
+         * OpenWrap server. Default value is {@link POWHttpTransport#DEFAULT_POOL_SIZE}
+         *
+         * @param poolSize the number of concurrent requests
+         * @return this builder
+         */
+        @NonNull
+        public Builder setPoolSize(int poolSize) {
+            if (poolSize > 0) {
+                this.poolSize = poolSize;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the connect timeout in milliseconds. By default network timeout of the ad request
+         * is used.
+         *
+         * @param connectTimeout the connect timeout in milliseconds
+         * @return this builder
+         */
+        @NonNull
+        public Builder setConnectTimeout(int connectTimeout) {
+            this.connectTimeout = Math.max(0, connectTimeout);
+            return this;
+        }
+
+        /**
+         * Sets the read timeout in milliseconds. By default network timeout of the ad request is
+         * used.
+         *
+         * @param readTimeout the read timeout in milliseconds
+         * @return this builder
+         */
+        @NonNull
+        public Builder setReadTimeout(int readTimeout) {
+            this.readTimeout = Math.max(0, readTimeout);
+            return this;
+        }
+
+        /**
+         * Sets whether gzip compressed response is requested. It is enabled by default.
+         *
+         * @param gzipEnabled true to request gzip compressed response
+         * @return this builder
+         */
+        @NonNull
+        public Builder setGzipEnabled(boolean gzipEnabled) {
+            this.gzipEnabled = gzipEnabled;
+            return this;
+        }
+
+        /**
+         * Creates the transport
+         *
+         * @return the transport
+         */
+        @NonNull
+        public POWHttpTransport build() {
+            return new POWHttpTransport(this);
+        }
+    }
+}
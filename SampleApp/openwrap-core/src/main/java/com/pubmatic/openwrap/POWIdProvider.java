@@ -0,0 +1,42 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Platform provider of the advertising ID, e.g. Google Play services on Android
+ */
+public interface POWIdProvider {
+
+    /**
+     * Fetches the advertising info, the listener may be notified on any thread
+     *
+     * @param listener the listener to be notified with the advertising info
+     */
+    void getAdvertisingInfo(@NonNull Listener listener);
+
+    /**
+     * Interface to provide callback for Advertising Id and LMT state
+     */
+    interface Listener {
+
+        /**
+         * Success callback provides the Advertising info consist of ID and LMT state
+         *
+         * @param adInfo Advertising info consist of ID and LMT state
+         */
+        void onAdvertisingInfoFetched(@NonNull POWAdvertisingInfo adInfo);
+
+        /**
+         * Failure callback called if unable to get Advertising info
+         */
+        void onAdvertisingInfoFailed();
+    }
+}
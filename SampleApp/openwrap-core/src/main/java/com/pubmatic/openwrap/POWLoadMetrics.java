@@ -0,0 +1,203 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Timing of one ad loading, split into the stages of the ad loading pipeline. It is provided
+ * through {@link POWMetricsListener} once the loading is completed.
+ */
+public class POWLoadMetrics {
+
+    /**
+     * Outcome of the loading which received OpenWrap response
+     */
+    public static final int OUTCOME_SUCCESS = 0;
+
+    /**
+     * Value of the stages which are not applicable for the loading, e.g. network stages of the
+     * loading served from bid cache
+     */
+    public static final long NOT_MEASURED = -1;
+
+    /**
+     * Stages of the ad loading pipeline
+     */
+    public enum Stage {
+        /**
+         * Wait for advertising info
+         */
+        AD_ID_WAIT,
+        /**
+         * OpenWrap request url build
+         */
+        URL_BUILD,
+        /**
+         * Wait of the request in transport queue for a network thread
+         */
+        QUEUE,
+        /**
+         * DNS lookup, TCP connect and TLS handshake, close to 0 on reused connection. Not measured
+         * by default Volley transport.
+         */
+        CONNECT,
+        /**
+         * Time to first byte, from the request sent till the response headers are received. Not
+         * measured by default Volley transport.
+         */
+        TTFB,
+        /**
+         * Complete network call, including connect, TTFB, response download and retries
+         */
+        NETWORK,
+        /**
+         * Response parsing
+         */
+        PARSE,
+        /**
+         * Delivery of the parsed response, i.e. hop to main thread and the listener callback
+         */
+        DELIVERY,
+        /**
+         * End-to-end loading time
+         */
+        TOTAL
+    }
+
+    /**
+     * All the stages, cached to avoid copying the values array
+     */
+    @NonNull
+    static final Stage[] STAGES = Stage.values();
+
+    @NonNull
+    private final String adUnitId;
+
+    @NonNull
+    private final long[] durations = new long[STAGES.length];
+
+    private int outcome = OUTCOME_SUCCESS;
+
+    private boolean cached;
+
+    private int targetingBytesSaved;
+
+    /**
+     * Nano time when the network result is ready to be delivered, 0 if not received
+     */
+    private long deliveryStartNanos;
+
+    POWLoadMetrics(@NonNull String adUnitId) {
+        this.adUnitId = adUnitId;
+        Arrays.fill(durations, NOT_MEASURED);
+    }
+
+    /**
+     * Returns the ad unit id of the loaded request
+     *
+     * @return the ad unit id
+     */
+    @NonNull
+    public String getAdUnitId() {
+        return adUnitId;
+    }
+
+    /**
+     * Returns the duration of given stage
+     *
+     * @param stage the stage of the pipeline
+     * @return the duration in microseconds, {@link POWLoadMetrics#NOT_MEASURED} if the stage is
+     * not applicable
+     */
+    public long getDuration(@NonNull Stage stage) {
+        return durations[stage.ordinal()];
+    }
+
+    /**
+     * Returns the outcome of the loading
+     *
+     * @return {@link POWLoadMetrics#OUTCOME_SUCCESS}, or the error code passed to
+     * {@code POWAdLoading.AdsLoaderListener#onAdFailed(int, String)}
+     */
+    public int getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Returns whether the response is served from bid cache or prefetched pool
+     *
+     * @return true if no network call is made for the loading
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Returns the number of bytes removed from the cust_params of the ad tag by targeting
+     * projection, see {@link POWConfiguration#setTargetingProjection(POWTargetingProjection)}
+     *
+     * @return the saved bytes, 0 if targeting is not projected
+     */
+    public int getTargetingBytesSaved() {
+        return targetingBytesSaved;
+    }
+
+    void setDuration(@NonNull Stage stage, long durationMicros) {
+        durations[stage.ordinal()] = durationMicros;
+    }
+
+    /**
+     * Sets the duration of given stage from the nano times of its start and end, 0 start time
+     * denotes the stage is not started
+     */
+    void setDuration(@NonNull Stage stage, long startNanos, long endNanos) {
+        if (startNanos > 0 && endNanos >= startNanos) {
+            durations[stage.ordinal()] = (endNanos - startNanos) / 1000;
+        }
+    }
+
+    void setOutcome(int outcome) {
+        this.outcome = outcome;
+    }
+
+    void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    void setTargetingBytesSaved(int targetingBytesSaved) {
+        this.targetingBytesSaved = targetingBytesSaved;
+    }
+
+    long getDeliveryStartNanos() {
+        return deliveryStartNanos;
+    }
+
+    void setDeliveryStartNanos(long deliveryStartNanos) {
+        this.deliveryStartNanos = deliveryStartNanos;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("POWLoadMetrics{adUnitId=").append(adUnitId)
+                .append(", outcome=").append(outcome)
+                .append(", cached=").append(cached)
+                .append(", targetingBytesSaved=").append(targetingBytesSaved);
+        for (Stage stage : STAGES) {
+            long duration = durations[stage.ordinal()];
+            if (duration != NOT_MEASURED) {
+                builder.append(", ").append(stage).append('=').append(duration).append("us");
+            }
+        }
+        return builder.append('}').toString();
+    }
+}
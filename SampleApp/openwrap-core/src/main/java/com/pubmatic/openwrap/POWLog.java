@@ -0,0 +1,42 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Logging facade of the platform independent classes, which forwards the messages to the logger
+ * set using {@link POWConfiguration#setLogger(POWLogger)}
+ */
+final class POWLog {
+
+    private POWLog() {
+    }
+
+    static void d(@NonNull String tag, @NonNull String message) {
+        POWLogger logger = POWConfiguration.getInstance().getLogger();
+        if (logger != null) {
+            logger.debug(tag, message);
+        }
+    }
+
+    static void w(@NonNull String tag, @NonNull String message) {
+        POWLogger logger = POWConfiguration.getInstance().getLogger();
+        if (logger != null) {
+            logger.warn(tag, message);
+        }
+    }
+
+    static void e(@NonNull String tag, @NonNull String message) {
+        POWLogger logger = POWConfiguration.getInstance().getLogger();
+        if (logger != null) {
+            logger.error(tag, message);
+        }
+    }
+}
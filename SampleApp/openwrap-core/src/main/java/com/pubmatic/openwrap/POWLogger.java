@@ -0,0 +1,42 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Platform logger of OpenWrap module, e.g. Logcat on Android. Set it using
+ * {@link POWConfiguration#setLogger(POWLogger)}, logs are dropped if it is not set.
+ */
+public interface POWLogger {
+
+    /**
+     * Logs the debug message
+     *
+     * @param tag     the source of the message
+     * @param message the message
+     */
+    void debug(@NonNull String tag, @NonNull String message);
+
+    /**
+     * Logs the warning message
+     *
+     * @param tag     the source of the message
+     * @param message the message
+     */
+    void warn(@NonNull String tag, @NonNull String message);
+
+    /**
+     * Logs the error message
+     *
+     * @param tag     the source of the message
+     * @param message the message
+     */
+    void error(@NonNull String tag, @NonNull String message);
+}
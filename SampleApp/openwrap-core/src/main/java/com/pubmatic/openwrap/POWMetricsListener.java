@@ -0,0 +1,27 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Interface definition to get the timing of every completed ad loading. Set it using
+ * {@link POWConfiguration#setMetricsListener(POWMetricsListener)}, aggregated timings are
+ * available through {@code POWMetrics} regardless of the listener.
+ */
+public interface POWMetricsListener {
+
+    /**
+     * Called on main thread after the ads loader listener is notified. Keep it short, as it runs
+     * for every ad loading.
+     *
+     * @param metrics the timing of the ad loading
+     */
+    void onAdLoadMetrics(@NonNull POWLoadMetrics metrics);
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+/**
+ * Interface definition to get the timing of network call, implemented by the transport
+ * listeners of the ad loading engine. Transports provide it, if measured, before the response
+ * callback on the same thread.
+ */
+interface POWNetworkTimingListener {
+    /**
+     * Notifies the timing of network call, {@link POWLoadMetrics#NOT_MEASURED} for the stages
+     * not measured by the transport
+     *
+     * @param queueMicros   the wait in transport queue in microseconds
+     * @param connectMicros the DNS lookup, TCP connect and TLS handshake time in microseconds
+     * @param ttfbMicros    the time to first byte in microseconds
+     * @param networkMicros the complete network call time in microseconds
+     */
+    void onNetworkTimings(long queueMicros, long connectMicros, long ttfbMicros, long networkMicros);
+}
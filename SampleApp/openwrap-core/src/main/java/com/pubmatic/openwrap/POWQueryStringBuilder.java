@@ -0,0 +1,301 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Streaming query string encoder which writes the url and query parameters straight into one
+ * buffer, reused per thread, without building intermediate json or {@code android.net.Uri}.
+ * Keys and values are escaped same as {@code Uri.encode(String)}, i.e. everything
+ * except letters, digits and "_-!.~'()*" is percent encoded using UTF-8.
+ */
+class POWQueryStringBuilder {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(1024);
+        }
+    };
+
+    @NonNull
+    private final StringBuilder buffer;
+
+    /**
+     * Url fragment, including '#', to be appended after the query string
+     */
+    @Nullable
+    private final String fragment;
+
+    /**
+     * Parameters of which the values replace the appended ones, e.g. custom parameters
+     */
+    @Nullable
+    private Map<String, String> overriddenParams;
+
+    /**
+     * Keys of the overridden parameters which are already appended
+     */
+    @Nullable
+    private Set<String> appliedOverrides;
+
+    private boolean hasQuery;
+
+    /**
+     * Flag to indicate that '?' is added by this builder
+     */
+    private boolean queryMarkAdded;
+
+    /**
+     * Creates builder for given url. The returned builder uses the buffer of calling thread, so it
+     * must be built before another builder is created on the same thread.
+     *
+     * @param url the url for which query string is going to be created
+     * @return the query string builder
+     */
+    @NonNull
+    static POWQueryStringBuilder obtain(@NonNull String url) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return new POWQueryStringBuilder(buffer, url);
+    }
+
+    private POWQueryStringBuilder(@NonNull StringBuilder buffer, @NonNull String url) {
+        this.buffer = buffer;
+        int fragmentIndex = url.indexOf('#');
+        if (fragmentIndex >= 0) {
+            fragment = url.substring(fragmentIndex);
+            url = url.substring(0, fragmentIndex);
+        } else {
+            fragment = null;
+        }
+        buffer.append(url);
+        int queryIndex = url.indexOf('?');
+        if (queryIndex >= 0) {
+            // Url already has query string, append the parameters to it
+            hasQuery = queryIndex < url.length() - 1;
+        } else {
+            buffer.append('?');
+            queryMarkAdded = true;
+        }
+    }
+
+    /**
+     * Sets the parameters overriding the appended ones. An overridden parameter is written at the
+     * position where it is appended, using the overriding value unless that is null.
+     *
+     * @param overriddenParams the overriding parameters
+     */
+    void setOverriddenParams(@Nullable Map<String, String> overriddenParams) {
+        this.overriddenParams = overriddenParams;
+    }
+
+    /**
+     * Appends the overriding parameters which did not replace any appended parameter, in their
+     * iteration order
+     *
+     * @return this builder
+     */
+    @NonNull
+    POWQueryStringBuilder appendRemainingOverrides() {
+        if (overriddenParams != null) {
+            for (Map.Entry<String, String> param : overriddenParams.entrySet()) {
+                if (appliedOverrides == null || !appliedOverrides.contains(param.getKey())) {
+                    append(param.getKey(), param.getValue());
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends the query parameter, it is no-op if the value is null
+     *
+     * @param key   the query parameter key
+     * @param value the query parameter value
+     * @return this builder
+     */
+    @NonNull
+    POWQueryStringBuilder append(@NonNull String key, @Nullable String value) {
+        String override = applyOverride(key);
+        if (override != null) {
+            value = override;
+        }
+        if (value != null) {
+            appendKey(key);
+            encode(value);
+        }
+        return this;
+    }
+
+    /**
+     * Appends the integer query parameter
+     *
+     * @param key   the query parameter key
+     * @param value the query parameter value
+     * @return this builder
+     */
+    @NonNull
+    POWQueryStringBuilder append(@NonNull String key, int value) {
+        String override = applyOverride(key);
+        appendKey(key);
+        if (override != null) {
+            encode(override);
+        } else {
+            buffer.append(value);
+        }
+        return this;
+    }
+
+    /**
+     * Appends the decimal query parameter
+     *
+     * @param key   the query parameter key
+     * @param value the query parameter value
+     * @return this builder
+     */
+    @NonNull
+    POWQueryStringBuilder append(@NonNull String key, double value) {
+        String override = applyOverride(key);
+        appendKey(key);
+        if (override != null) {
+            encode(override);
+        } else {
+            // Decimal representation may contain exponent, i.e. letters and digits only
+            buffer.append(value);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the url along with the appended query string
+     *
+     * @return the formulated url
+     */
+    @NonNull
+    String build() {
+        if (queryMarkAdded && !hasQuery) {
+            // Remove the trailing '?' added for the url without query parameters
+            buffer.setLength(buffer.length() - 1);
+        }
+        if (fragment != null) {
+            buffer.append(fragment);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Returns the value overriding given parameter and marks it as applied
+     *
+     * @param key the query parameter key
+     * @return the overriding value, null if the parameter is not overridden
+     */
+    @Nullable
+    private String applyOverride(@NonNull String key) {
+        if (overriddenParams == null || !overriddenParams.containsKey(key)) {
+            return null;
+        }
+        if (appliedOverrides == null) {
+            appliedOverrides = new HashSet<>();
+        }
+        appliedOverrides.add(key);
+        return overriddenParams.get(key);
+    }
+
+    private void appendKey(@NonNull String key) {
+        if (hasQuery) {
+            buffer.append('&');
+        }
+        hasQuery = true;
+        encode(key);
+        buffer.append('=');
+    }
+
+    /**
+     * Encodes given string same as {@code Uri.encode(String)} and appends it to the
+     * buffer
+     *
+     * @param string the string to be encoded
+     */
+    private void encode(@NonNull String string) {
+        encode(buffer, string, false);
+    }
+
+    /**
+     * Encodes given string same as {@code Uri.encode(String)} and appends it to given
+     * buffer. If it is encoded twice, the result is further encoded in the same pass same as
+     * {@link java.net.URLEncoder#encode(String, String)} with UTF-8, e.g. for a query string
+     * passed as the value of another query parameter.
+     *
+     * @param buffer the buffer to which the encoded string is appended
+     * @param string the string to be encoded
+     * @param twice  true to encode the string twice
+     */
+    static void encode(@NonNull StringBuilder buffer, @NonNull String string, boolean twice) {
+        int length = string.length();
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (isAllowed(c)) {
+                if (twice && !isAllowedTwice(c)) {
+                    appendEscaped(buffer, c, false);
+                } else {
+                    buffer.append(c);
+                }
+            } else if (c < 0x80) {
+                appendEscaped(buffer, c, twice);
+            } else if (c < 0x800) {
+                appendEscaped(buffer, 0xC0 | (c >> 6), twice);
+                appendEscaped(buffer, 0x80 | (c & 0x3F), twice);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                appendEscaped(buffer, 0xF0 | (codePoint >> 18), twice);
+                appendEscaped(buffer, 0x80 | ((codePoint >> 12) & 0x3F), twice);
+                appendEscaped(buffer, 0x80 | ((codePoint >> 6) & 0x3F), twice);
+                appendEscaped(buffer, 0x80 | (codePoint & 0x3F), twice);
+            } else if (Character.isSurrogate(c)) {
+                // Malformed surrogate is replaced with '?' by UTF-8 encoder
+                appendEscaped(buffer, '?', twice);
+            } else {
+                appendEscaped(buffer, 0xE0 | (c >> 12), twice);
+                appendEscaped(buffer, 0x80 | ((c >> 6) & 0x3F), twice);
+                appendEscaped(buffer, 0x80 | (c & 0x3F), twice);
+            }
+        }
+    }
+
+    /**
+     * Appends the percent encoded byte, along with the encoding of '%' itself if it is escaped
+     * twice
+     */
+    static void appendEscaped(@NonNull StringBuilder buffer, int b, boolean twice) {
+        buffer.append(twice ? "%25" : "%").append(HEX_DIGITS[(b >> 4) & 0x0F]).append(HEX_DIGITS[b & 0x0F]);
+    }
+
+    private static boolean isAllowed(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || "_-!.~'()*".indexOf(c) != -1;
+    }
+
+    /**
+     * Returns whether the character left by {@code Uri.encode(String)} is also left by
+     * {@link java.net.URLEncoder}
+     */
+    private static boolean isAllowedTwice(char c) {
+        return c != '!' && c != '~' && c != '\'' && c != '(' && c != ')';
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Immutable, pre-encoded OpenWrap request url prefix holding the request parameters which do not
+ * change between ad requests, i.e. default parameters and the ones derived from
+ * {@link POWConfiguration}. It is valid as long as configuration version it was compiled from is
+ * not changed. The configuration keeps its own copy of the application info, so the prefix can
+ * not be made stale by changing the application info object.
+ */
+class POWRequestPrefix {
+
+    /**
+     * OpenWrap url along with the pre-encoded query string
+     */
+    @NonNull
+    private final String value;
+
+    /**
+     * Version of configuration the prefix is compiled from
+     */
+    private final int configVersion;
+
+    POWRequestPrefix(@NonNull String value, int configVersion) {
+        this.value = value;
+        this.configVersion = configVersion;
+    }
+
+    /**
+     * Returns the OpenWrap url along with the pre-encoded query string
+     *
+     * @return the request prefix
+     */
+    @NonNull
+    String getValue() {
+        return value;
+    }
+
+    /**
+     * Checks whether the prefix reflects the state of given configuration snapshot
+     *
+     * @param configuration the OpenWrap configuration snapshot
+     * @return true if the prefix can be used for ad request
+     */
+    boolean isValid(@NonNull POWConfiguration.Snapshot configuration) {
+        return configVersion == configuration.getVersion();
+    }
+}
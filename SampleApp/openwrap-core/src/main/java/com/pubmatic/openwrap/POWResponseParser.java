@@ -0,0 +1,285 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import org.json.JSONException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Streaming parser of OpenWrap response. It reads the "targeting" object into a flat
+ * {@link POWTargeting} and the explicitly requested top level fields as text, all other values,
+ * e.g. debug information, are skipped without building json objects for them.
+ */
+class POWResponseParser {
+
+    private static final String TARGETING_KEY = "targeting";
+
+    @NonNull
+    private final String json;
+
+    @Nullable
+    private final Set<String> fields;
+
+    private int position;
+
+    @Nullable
+    private StringBuilder buffer;
+
+    private POWResponseParser(@NonNull String json, @Nullable Set<String> fields) {
+        this.json = json;
+        this.fields = fields;
+    }
+
+    /**
+     * Parses the OpenWrap response
+     *
+     * @param response the OpenWrap response json text
+     * @param fields   the top level fields to be read along with targeting, values are kept as
+     *                 text, nested values as json text
+     * @return the ad response
+     * @throws JSONException if the response is not a valid json object
+     */
+    @NonNull
+    static POWAdResponse parse(@NonNull String response, @Nullable Set<String> fields) throws JSONException {
+        return new POWResponseParser(response, fields).parseResponse();
+    }
+
+    @NonNull
+    private POWAdResponse parseResponse() throws JSONException {
+        POWTargeting targeting = null;
+        Map<String, String> fieldValues = null;
+        expect('{');
+        if (!consume('}')) {
+            do {
+                String key = readString();
+                expect(':');
+                skipWhitespace();
+                if (TARGETING_KEY.equals(key) && peek() == '{') {
+                    targeting = readTargeting();
+                } else if (fields != null && fields.contains(key)) {
+                    String value = readValue();
+                    if (value != null) {
+                        if (fieldValues == null) {
+                            fieldValues = new HashMap<>();
+                        }
+                        fieldValues.put(key, value);
+                    }
+                } else {
+                    skipValue();
+                }
+            } while (consume(','));
+            expect('}');
+        }
+        skipWhitespace();
+        if (position < json.length()) {
+            throw syntaxError("Unexpected trailing characters");
+        }
+        return new POWAdResponse(targeting, fieldValues);
+    }
+
+    @NonNull
+    private POWTargeting readTargeting() throws JSONException {
+        POWTargeting targeting = new POWTargeting();
+        expect('{');
+        if (!consume('}')) {
+            do {
+                String key = readString();
+                expect(':');
+                skipWhitespace();
+                String value = readValue();
+                if (value != null) {
+                    targeting.put(key, value);
+                }
+            } while (consume(','));
+            expect('}');
+        }
+        return targeting;
+    }
+
+    /**
+     * Reads the value as text, strings are unescaped and nested values are kept as json text
+     *
+     * @return the value, null for json null
+     */
+    @Nullable
+    private String readValue() throws JSONException {
+        skipWhitespace();
+        if (peek() == '"') {
+            return readString();
+        }
+        int start = position;
+        skipValue();
+        String value = json.substring(start, position);
+        return "null".equals(value) ? null : value;
+    }
+
+    @NonNull
+    private String readString() throws JSONException {
+        skipWhitespace();
+        if (peek() != '"') {
+            throw syntaxError("Expected string");
+        }
+        int start = ++position;
+        // Fast path for the strings without escape sequence
+        while (position < json.length()) {
+            char c = json.charAt(position);
+            if (c == '"') {
+                return json.substring(start, position++);
+            } else if (c == '\\') {
+                break;
+            }
+            position++;
+        }
+        if (buffer == null) {
+            buffer = new StringBuilder();
+        }
+        buffer.setLength(0);
+        buffer.append(json, start, position);
+        while (position < json.length()) {
+            char c = json.charAt(position++);
+            if (c == '"') {
+                return buffer.toString();
+            } else if (c == '\\') {
+                buffer.append(readEscapedChar());
+            } else {
+                buffer.append(c);
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    private char readEscapedChar() throws JSONException {
+        if (position >= json.length()) {
+            throw syntaxError("Unterminated escape sequence");
+        }
+        char c = json.charAt(position++);
+        switch (c) {
+            case 'u':
+                if (position + 4 > json.length()) {
+                    throw syntaxError("Unterminated escape sequence");
+                }
+                try {
+                    char unicode = (char) Integer.parseInt(json.substring(position, position + 4), 16);
+                    position += 4;
+                    return unicode;
+                } catch (NumberFormatException e) {
+                    throw syntaxError("Invalid escape sequence");
+                }
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    /**
+     * Skips the value without creating any object for it
+     */
+    private void skipValue() throws JSONException {
+        skipWhitespace();
+        char c = peek();
+        if (c == '"') {
+            skipString();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            while (position < json.length()) {
+                c = json.charAt(position);
+                if (c == '"') {
+                    skipString();
+                    continue;
+                }
+                position++;
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    if (--depth == 0) {
+                        return;
+                    }
+                }
+            }
+            throw syntaxError("Unterminated object");
+        } else {
+            int start = position;
+            while (position < json.length()) {
+                c = json.charAt(position);
+                if (c == ',' || c == '}' || c == ']' || c <= ' ') {
+                    break;
+                }
+                position++;
+            }
+            if (position == start) {
+                throw syntaxError("Expected value");
+            }
+        }
+    }
+
+    private void skipString() throws JSONException {
+        position++;
+        while (position < json.length()) {
+            char c = json.charAt(position++);
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                position++;
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length() && json.charAt(position) <= ' ') {
+            position++;
+        }
+    }
+
+    private char peek() throws JSONException {
+        if (position >= json.length()) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return json.charAt(position);
+    }
+
+    private boolean consume(char c) {
+        skipWhitespace();
+        if (position < json.length() && json.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) throws JSONException {
+        if (!consume(c)) {
+            throw syntaxError("Expected '" + c + "'");
+        }
+    }
+
+    @NonNull
+    private JSONException syntaxError(@NonNull String message) {
+        return new JSONException(message + " at character " + position);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Retry settings of OpenWrap calls, set using
+ * {@link POWConfiguration#setRetryPolicy(POWRetryPolicy)}. Failed calls are retried as per the
+ * class of the error:
+ * <ul>
+ * <li>Parse error (204), any other 4xx including timeout (408), are not retried, as a retry
+ * would fail again or delay the ad further</li>
+ * <li>Connection reset (1000), e.g. of a stale keep-alive connection, is retried immediately</li>
+ * <li>Server errors (5xx) and no connection (502) are retried after exponential backoff with
+ * full jitter, i.e. a random delay up to initial backoff doubled per retry, limited by max
+ * backoff</li>
+ * </ul>
+ * Retries of all the calls share a budget, which earns {@link POWRetryPolicy#getBudgetRatio()}
+ * retry per call up to {@link POWRetryPolicy#MAX_BUDGET} retries, so that a failing server gets
+ * only a fraction of extra calls instead of a multiple.
+ * <p>
+ * Create the instance using {@link Builder}
+ */
+public class POWRetryPolicy {
+
+    public static final int DEFAULT_MAX_RETRIES = 1;
+    public static final int DEFAULT_INITIAL_BACKOFF = 100;
+    public static final int DEFAULT_MAX_BACKOFF = 1000;
+    public static final float DEFAULT_BUDGET_RATIO = 0.1f;
+
+    /**
+     * Maximum number of retries saved in the retry budget
+     */
+    public static final int MAX_BUDGET = 10;
+
+    private final int maxRetries;
+    private final int initialBackoff;
+    private final int maxBackoff;
+    private final float budgetRatio;
+
+    private POWRetryPolicy(@NonNull Builder builder) {
+        maxRetries = builder.maxRetries;
+        initialBackoff = builder.initialBackoff;
+        maxBackoff = Math.max(builder.initialBackoff, builder.maxBackoff);
+        budgetRatio = builder.budgetRatio;
+    }
+
+    /**
+     * Returns the maximum number of retries of one call
+     *
+     * @return the max retries
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Returns the upper limit of the delay before first retry
+     *
+     * @return the initial backoff in milliseconds
+     */
+    public int getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    /**
+     * Returns the upper limit of the delay before any retry
+     *
+     * @return the max backoff in milliseconds
+     */
+    public int getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * Returns the retries earned in retry budget per call
+     *
+     * @return the budget ratio
+     */
+    public float getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    /**
+     * Builder to create {@link POWRetryPolicy}
+     */
+    public static class Builder {
+        private int maxRetries = DEFAULT_MAX_RETRIES;
+        private int initialBackoff = DEFAULT_INITIAL_BACKOFF;
+        private int maxBackoff = DEFAULT_MAX_BACKOFF;
+        private float budgetRatio = DEFAULT_BUDGET_RATIO;
+
+        /**
+         * Sets the maximum number of retries of one call, 0 to disable retries. Default value
+         * is {@link POWRetryPolicy#DEFAULT_MAX_RETRIES}
+         *
+         * @param maxRetries the max retries
+         * @return this builder
+         */
+        @NonNull
+        public Builder setMaxRetries(int maxRetries) {
+            this.maxRetries = Math.max(0, maxRetries);
+            return this;
+        }
+
+        /**
+         * Sets the upper limit of the delay before first retry. Default value is
+         * {@link POWRetryPolicy#DEFAULT_INITIAL_BACKOFF}
+         *
+         * @param initialBackoff the initial backoff in milliseconds
+         * @return this builder
+         */
+        @NonNull
+        public Builder setInitialBackoff(int initialBackoff) {
+            this.initialBackoff = Math.max(0, initialBackoff);
+            return this;
+        }
+
+        /**
+         * Sets the upper limit of the delay before any retry. Default value is
+         * {@link POWRetryPolicy#DEFAULT_MAX_BACKOFF}
+         *
+         * @param maxBackoff the max backoff in milliseconds
+         * @return this builder
+         */
+        @NonNull
+        public Builder setMaxBackoff(int maxBackoff) {
+            this.maxBackoff = Math.max(0, maxBackoff);
+            return this;
+        }
+
+        /**
+         * Sets the retries earned in retry budget per call, e.g. 0.1 allows one retry per ten
+         * calls once the saved budget is spent. Default value is
+         * {@link POWRetryPolicy#DEFAULT_BUDGET_RATIO}
+         *
+         * @param budgetRatio the budget ratio
+         * @return this builder
+         */
+        @NonNull
+        public Builder setBudgetRatio(float budgetRatio) {
+            this.budgetRatio = Math.max(0, budgetRatio);
+            return this;
+        }
+
+        /**
+         * Creates the retry policy
+         *
+         * @return the retry policy
+         */
+        @NonNull
+        public POWRetryPolicy build() {
+            return new POWRetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Compact, flat holder of OpenWrap targeting key-value pairs. Values are kept as the text
+ * received in OpenWrap response, nested values are kept as json text.
+ */
+public class POWTargeting {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    @NonNull
+    private String[] keys;
+
+    @NonNull
+    private String[] values;
+
+    private int size;
+
+    POWTargeting() {
+        keys = new String[DEFAULT_CAPACITY];
+        values = new String[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Adds the key-value pair, replaces the value if the key is already present
+     *
+     * @param key   the targeting key
+     * @param value the targeting value
+     */
+    void put(@NonNull String key, @NonNull String value) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Returns the number of targeting key-value pairs
+     *
+     * @return the number of key-value pairs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether there is no targeting key-value pair
+     *
+     * @return true if targeting is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the targeting key at given index
+     *
+     * @param index the index, from 0 to {@link POWTargeting#size()} - 1
+     * @return the targeting key
+     */
+    @NonNull
+    public String getKey(int index) {
+        checkIndex(index);
+        return keys[index];
+    }
+
+    /**
+     * Returns the targeting value at given index
+     *
+     * @param index the index, from 0 to {@link POWTargeting#size()} - 1
+     * @return the targeting value
+     */
+    @NonNull
+    public String getValue(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Returns the targeting value of given key
+     *
+     * @param key the targeting key
+     * @return the targeting value, null if the key is not present
+     */
+    @Nullable
+    public String get(@NonNull String key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    /**
+     * Converts the targeting to json, having string values
+     *
+     * @return the targeting json
+     */
+    @NonNull
+    public JSONObject toJSONObject() {
+        JSONObject targetingJson = new JSONObject();
+        try {
+            for (int i = 0; i < size; i++) {
+                targetingJson.put(keys[i], values[i]);
+            }
+        } catch (JSONException e) {
+            // Keys are never null, so it is not expected
+        }
+        return targetingJson;
+    }
+
+    private int indexOf(@NonNull String key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return toJSONObject().toString();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Projection of OpenWrap targeting to the keys used by GAM line items, so that the cust_params
+ * of the IMA ad tag stay short. Per-bidder duplicates, i.e. the keys of the form
+ * &lt;key&gt;_&lt;bidder&gt; whose &lt;key&gt; is also present in the targeting, can be dropped
+ * along with it.
+ * <p>
+ * Create the instance using {@link Builder} and set it using
+ * {@link POWConfiguration#setTargetingProjection(POWTargetingProjection)}. The bytes saved in the
+ * ad tag are reported by {@link POWAdResponse#getTargetingBytesSaved()} and
+ * {@link POWLoadMetrics#getTargetingBytesSaved()}.
+ */
+public class POWTargetingProjection {
+
+    /**
+     * Default keys, i.e. bid status, winning bid price, price bucket, deal id, cache id and
+     * cache url of the winning bid
+     */
+    @NonNull
+    public static final Set<String> DEFAULT_KEYS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "pwtbst", "pwtecp", "pwtpb", "pwtdid", "pwtcid", "pwtcurl", "pwtcpath")));
+
+    /**
+     * Kept keys, null to keep all the keys
+     */
+    @Nullable
+    private final Set<String> keys;
+
+    private final boolean bidderKeysDropped;
+
+    private POWTargetingProjection(@NonNull Builder builder) {
+        keys = builder.keys;
+        bidderKeysDropped = builder.bidderKeysDropped;
+    }
+
+    /**
+     * Returns the kept keys
+     *
+     * @return the kept keys, null if all the keys are kept
+     */
+    @Nullable
+    public Set<String> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Returns whether per-bidder duplicates of the keys are dropped
+     *
+     * @return true if per-bidder keys are dropped
+     */
+    public boolean isBidderKeysDropped() {
+        return bidderKeysDropped;
+    }
+
+    /**
+     * Projects given targeting
+     *
+     * @param targeting the targeting of OpenWrap response
+     * @return the projected targeting
+     */
+    @NonNull
+    POWTargeting apply(@NonNull POWTargeting targeting) {
+        POWTargeting projected = new POWTargeting();
+        for (int i = 0; i < targeting.size(); i++) {
+            String key = targeting.getKey(i);
+            String baseKey = getBaseKey(key, targeting);
+            if (baseKey != null && bidderKeysDropped) {
+                continue;
+            }
+            // Per-bidder key is kept along with its base key
+            if (keys == null || keys.contains(baseKey != null ? baseKey : key)) {
+                projected.put(key, targeting.getValue(i));
+            }
+        }
+        return projected;
+    }
+
+    /**
+     * Returns the length of given targeting once it is encoded as the cust_params value of the
+     * ad tag, see {@link POWGamTagBuilder}
+     *
+     * @param targeting the targeting
+     * @return the encoded length in bytes
+     */
+    static int getEncodedLength(@NonNull POWTargeting targeting) {
+        StringBuilder buffer = new StringBuilder(512);
+        for (int i = 0; i < targeting.size(); i++) {
+            if (i > 0) {
+                // Encoded '&'
+                buffer.append("%26");
+            }
+            POWQueryStringBuilder.encode(buffer, targeting.getKey(i), true);
+            // Encoded '='
+            buffer.append("%3D");
+            POWQueryStringBuilder.encode(buffer, targeting.getValue(i), true);
+        }
+        return buffer.length();
+    }
+
+    /**
+     * Returns the key of which given key is a per-bidder duplicate
+     *
+     * @return the base key, null if given key is not a per-bidder key
+     */
+    @Nullable
+    private static String getBaseKey(@NonNull String key, @NonNull POWTargeting targeting) {
+        int separatorIndex = key.lastIndexOf('_');
+        if (separatorIndex <= 0 || separatorIndex == key.length() - 1) {
+            return null;
+        }
+        String baseKey = key.substring(0, separatorIndex);
+        return targeting.get(baseKey) != null ? baseKey : null;
+    }
+
+    /**
+     * Builder to create {@link POWTargetingProjection}
+     */
+    public static class Builder {
+        @Nullable
+        private Set<String> keys = DEFAULT_KEYS;
+        private boolean bidderKeysDropped = true;
+
+        /**
+         * Sets the keys to be kept, i.e. the keys used by GAM line items. Default value is
+         * {@link POWTargetingProjection#DEFAULT_KEYS}
+         *
+         * @param keys the kept keys, null to keep all the keys
+         * @return this builder
+         */
+        @NonNull
+        public Builder setKeys(@Nullable Set<String> keys) {
+            this.keys = keys != null ? Collections.unmodifiableSet(new HashSet<>(keys)) : null;
+            return this;
+        }
+
+        /**
+         * Sets whether per-bidder duplicates of the keys are dropped. It is enabled by default.
+         *
+         * @param bidderKeysDropped true to drop per-bidder keys
+         * @return this builder
+         */
+        @NonNull
+        public Builder setBidderKeysDropped(boolean bidderKeysDropped) {
+            this.bidderKeysDropped = bidderKeysDropped;
+            return this;
+        }
+
+        /**
+         * Creates the projection
+         *
+         * @return the projection
+         */
+        @NonNull
+        public POWTargetingProjection build() {
+            return new POWTargetingProjection(this);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Interface definition of the network engine used to send OpenWrap requests. By default the
+ * requests are sent over Volley, set another engine, e.g. {@link POWHttpTransport}, using
+ * {@link POWConfiguration#setTransport(POWTransport)}
+ */
+public interface POWTransport {
+
+    /**
+     * Sends the HTTP GET request and provides the response body to the listener on a background
+     * thread, where it is parsed
+     *
+     * @param url      the request url
+     * @param timeout  the request timeout in milliseconds
+     * @param tag      the tag used to cancel the request
+     * @param listener the listener to get the response callbacks
+     */
+    void get(@NonNull String url, int timeout, @NonNull Object tag, @NonNull TransportListener listener);
+
+    /**
+     * Cancels the ongoing requests having given tag, so that their listener is not notified
+     *
+     * @param tag the tag of the requests to be cancelled
+     */
+    void cancel(@NonNull Object tag);
+
+    /**
+     * Interface definition to provide the transport callbacks, which are called on a background
+     * thread.
+     */
+    interface TransportListener {
+        /**
+         * Notifies the network success with response body
+         *
+         * @param response the response body
+         */
+        void onSuccess(@NonNull String response);
+
+        /**
+         * Notifies the network failure with error details
+         *
+         * @param errorCode the HTTP status code, or one of 401 (auth failure), 410 (network
+         *                  error), 204 (parse error), 500 (server error), 408 (timeout), 502 (no
+         *                  connection) or 1000 (connection reset) if the response is not received
+         * @param errorMsg  the the error message
+         */
+        void onFailure(int errorCode, @Nullable String errorMsg);
+    }
+}
@@ -8,12 +8,15 @@
 
 package com.pubmatic.openwrap;
 
-import android.net.Uri;
-import android.util.Log;
 
 import org.json.JSONObject;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketException;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.security.MessageDigest;
@@ -31,6 +34,10 @@ public class POWUtil {
 
     private static final String TAG = "POWUtil";
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
     /**
      * Method is used to generate SHA1 string
      *
@@ -38,22 +45,7 @@ public class POWUtil {
      * @return SHA string
      */
     public static String sha1(String string) {
-        StringBuilder stringBuilder = new StringBuilder();
-
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-1");
-            byte[] bytes = string.getBytes(Charset.forName("UTF-8"));
-            digest.update(bytes, 0, bytes.length);
-            bytes = digest.digest();
-
-            for (final byte b : bytes) {
-                stringBuilder.append(String.format("%02X", b));
-            }
-
-            return stringBuilder.toString().toLowerCase(Locale.getDefault());
-        } catch (Exception e) {
-            return "";
-        }
+        return digest(string, "SHA-1");
     }
 
     /**
@@ -63,19 +55,37 @@ public class POWUtil {
      * @return MD5 string
      */
     public static String md5(String string) {
-        StringBuilder stringBuilder = new StringBuilder();
-
-        try {
-            MessageDigest digest = MessageDigest.getInstance("MD5");
-            byte[] bytes = string.getBytes(Charset.forName("UTF-8"));
-            digest.update(bytes, 0, bytes.length);
-            bytes = digest.digest();
+        return digest(string, "MD5");
+    }
 
-            for (final byte b : bytes) {
-                stringBuilder.append(String.format("%02X", b));
-            }
+    /**
+     * Converts given bytes to lower case hexadecimal string
+     *
+     * @param bytes the bytes to be converted
+     * @return the hexadecimal string
+     */
+    @NonNull
+    static String toHex(@NonNull byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(hex);
+    }
 
-            return stringBuilder.toString().toLowerCase(Locale.getDefault());
+    /**
+     * Generates lower case hexadecimal digest of given string using given algorithm
+     *
+     * @param string    on which the digest algorithm to be perform
+     * @param algorithm the digest algorithm
+     * @return the digest string, empty if the digest could not be generated
+     */
+    @NonNull
+    private static String digest(String string, @NonNull String algorithm) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(algorithm);
+            return toHex(digest.digest(string.getBytes(UTF_8)));
         } catch (Exception e) {
             return "";
         }
@@ -95,7 +105,7 @@ public class POWUtil {
             // encode and append the params to give url
             return URLEncoder.encode(customParams, "UTF-8");
         } catch (UnsupportedEncodingException e) {
-            Log.d(TAG, e.toString());
+            POWLog.d(TAG, e.toString());
             // In case if encoding is not supported then return blank
             return "";
         }
@@ -110,15 +120,15 @@ public class POWUtil {
      */
     @NonNull
     public static String buildUrlWithQueryString(@NonNull String url, @Nullable JSONObject queryJSON) {
-        Uri.Builder uriBuilder = Uri.parse(url).buildUpon();
+        POWQueryStringBuilder queryBuilder = POWQueryStringBuilder.obtain(url);
         if (queryJSON != null) {
             Iterator<String> iterator = queryJSON.keys();
             while (iterator.hasNext()) {
                 String key = iterator.next();
-                uriBuilder.appendQueryParameter(key, String.valueOf(queryJSON.opt(key)));
+                queryBuilder.append(key, String.valueOf(queryJSON.opt(key)));
             }
         }
-        return uriBuilder.build().toString();
+        return queryBuilder.build();
     }
 
     /**
@@ -132,4 +142,24 @@ public class POWUtil {
         return (calendar.get(Calendar.ZONE_OFFSET) + calendar.get(Calendar.DST_OFFSET)) / (60 * 1000);
     }
 
+
+    /**
+     * Returns whether the network call failed as the established connection is reset or closed
+     * by the server, e.g. a stale keep-alive connection, which is likely to succeed on a new
+     * connection
+     *
+     * @param throwable the failure of network call, or its cause
+     * @return true if the connection is reset
+     */
+    static boolean isConnectionReset(@Nullable Throwable throwable) {
+        if (throwable instanceof ConnectException || throwable instanceof NoRouteToHostException) {
+            return false;
+        }
+        if (throwable instanceof SocketException || throwable instanceof EOFException) {
+            return true;
+        }
+        // OkHttp based connections of Android report a closed connection as a plain IOException
+        return throwable instanceof IOException && throwable.getMessage() != null
+                && throwable.getMessage().contains("unexpected end of stream");
+    }
 }
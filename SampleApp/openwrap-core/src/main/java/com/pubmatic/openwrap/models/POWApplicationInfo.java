@@ -8,10 +8,8 @@
 
 package com.pubmatic.openwrap.models;
 
-import android.content.Context;
-import android.content.pm.PackageInfo;
-import android.content.pm.PackageManager;
-import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 /**
  * Provides setters to pass application information like store URL, domain, IAB categories etc.
@@ -19,8 +17,6 @@ import android.util.Log;
  */
 public class POWApplicationInfo {
 
-    private static final String TAG = "POWApplicationInfo";
-
     /**
      * Application name
      */
@@ -54,23 +50,40 @@ public class POWApplicationInfo {
     private String categories;
 
     /**
-     * PMAppInfo constructor to generate
-     * application info and initialize the params with specific value
+     * PMAppInfo constructor to generate application info with the application name and package
+     * name. On Android it is created from the application context using
+     * {@code POWAndroidPlatform#createApplicationInfo(Context)}.
+     *
+     * @param name        the application name
+     * @param packageName the package / bundle name of the application
+     */
+    public POWApplicationInfo(@Nullable String name, @Nullable String packageName) {
+        this.name = name;
+        this.packageName = packageName;
+    }
+
+    /**
+     * Constructs a copy of given application info
      *
-     * @param context android context
-     */
-    public POWApplicationInfo(final Context context) {
-        // Get the application name and version number
-        try {
-            PackageManager manager = context.getPackageManager();
-            PackageInfo info;
-            info = manager.getPackageInfo(context.getPackageName(),
-                    0);
-            name = info.applicationInfo.loadLabel(manager).toString();
-            packageName = context.getPackageName();
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to retrieve app info: " + e.getLocalizedMessage());
-        }
+     * @param info the application info to be copied
+     */
+    private POWApplicationInfo(@NonNull POWApplicationInfo info) {
+        name = info.name;
+        packageName = info.packageName;
+        domain = info.domain;
+        storeURL = info.storeURL;
+        paid = info.paid;
+        categories = info.categories;
+    }
+
+    /**
+     * Returns a copy of this application info
+     *
+     * @return the copy of this application info
+     */
+    @NonNull
+    public POWApplicationInfo copy() {
+        return new POWApplicationInfo(this);
     }
 
     /**
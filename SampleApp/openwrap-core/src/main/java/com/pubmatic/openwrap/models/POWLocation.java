@@ -8,10 +8,6 @@
 
 package com.pubmatic.openwrap.models;
 
-import android.location.Location;
-import android.location.LocationManager;
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 
 /**
@@ -46,32 +42,11 @@ public class POWLocation {
         this.longitude = longitude;
     }
 
-    /**
-     * Instantiate an object of POBLocation using the Android's default location object
-     *
-     * @param location Android's default location object
-     */
-    public POWLocation(@NonNull Location location) {
-
-        if (location != null) {
-            this.latitude = location.getLatitude();
-            this.longitude = location.getLongitude();
-
-            String provider = location.getProvider();
-            if (provider != null && (provider.equalsIgnoreCase("network") || provider.equalsIgnoreCase("gps") || provider.equalsIgnoreCase("wifi")))
-                source = Source.GPS;
-            else
-                source = Source.USER;
-        } else {
-            Log.d("POWLocation", "Provided location object is null");
-        }
-    }
-
 
     /**
      * Returns the latitude, in degrees.
      *
-     * <p>All locations generated by the {@link LocationManager}
+     * <p>All locations generated by the Android {@code LocationManager}
      * will have a valid latitude.
      *
      * @return provides latitude of the location
@@ -82,7 +57,7 @@ public class POWLocation {
 
     /**
      * Returns the longitude, in degrees.
-     * <p>All locations generated by the {@link LocationManager}
+     * <p>All locations generated by the Android {@code LocationManager}
      * will have a valid longitude.
      *
      * @return provides longitude of the location
@@ -8,6 +8,8 @@
 
 package com.pubmatic.openwrap.models;
 
+import androidx.annotation.NonNull;
+
 /**
  * Provides setters to pass user information
  */
@@ -62,6 +64,22 @@ public class POWUserInfo {
 
     }
 
+    /**
+     * Constructs a copy of given user info
+     *
+     * @param info the user info to be copied
+     */
+    public POWUserInfo(@NonNull POWUserInfo info) {
+        birthYear = info.birthYear;
+        gender = info.gender;
+        metro = info.metro;
+        zip = info.zip;
+        city = info.city;
+        country = info.country;
+        userKeywords = info.userKeywords;
+        location = info.location;
+    }
+
     /**
      * Returns user's Birth year
      *
@@ -0,0 +1,55 @@
+package com.pubmatic.openwrap;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class POWAdvertisingInfoTest {
+
+    private static final String ADVERTISING_ID = "38400000-8cf0-11bd-b23e-10b96e40000d";
+
+    @After
+    public void tearDown() {
+        POWConfiguration.getInstance().setHashTypeForAdvertisingId(POWConfiguration.HashType.RAW);
+        POWAdvertisingInfo.clearHashedId();
+    }
+
+    @Test
+    public void testHashedIdCached() {
+        String sha1 = POWAdvertisingInfo.getHashedId(ADVERTISING_ID, POWConfiguration.HashType.SHA1);
+        Assert.assertEquals(POWUtil.sha1(ADVERTISING_ID), sha1);
+        Assert.assertSame(sha1, POWAdvertisingInfo.getHashedId(ADVERTISING_ID, POWConfiguration.HashType.SHA1));
+
+        // Hash is computed again once the cache is cleared
+        POWAdvertisingInfo.clearHashedId();
+        String recomputed = POWAdvertisingInfo.getHashedId(ADVERTISING_ID, POWConfiguration.HashType.SHA1);
+        Assert.assertEquals(sha1, recomputed);
+        Assert.assertNotSame(sha1, recomputed);
+    }
+
+    @Test
+    public void testRequestWithAdvertisingInfo() {
+        POWAdRequest request = new POWAdRequest("156276", 2486, "/15671365/pm_ott_video",
+                new POWAdRequest.POWAdSize(640, 480));
+        request.setAdvertisingInfo(new POWAdvertisingInfo(ADVERTISING_ID, true));
+        String url = request.buildUrl();
+        Assert.assertTrue(url.contains("pwtlmt=1"));
+        Assert.assertTrue(url.contains("pwtdnt=1"));
+        Assert.assertTrue(url.contains("pwtifa=" + ADVERTISING_ID));
+
+        POWConfiguration.getInstance().setHashTypeForAdvertisingId(POWConfiguration.HashType.MD5);
+        url = request.buildUrl();
+        Assert.assertTrue(url.contains("pwtdpidmd5=" + POWUtil.md5(ADVERTISING_ID)));
+        Assert.assertFalse(url.contains("pwtifa="));
+    }
+
+    @Test
+    public void testRequestWithoutAdvertisingId() {
+        POWAdRequest request = new POWAdRequest("156276", 2486, "/15671365/pm_ott_video",
+                new POWAdRequest.POWAdSize(640, 480));
+        request.setAdvertisingInfo(new POWAdvertisingInfo(null, false));
+        String url = request.buildUrl();
+        Assert.assertTrue(url.contains("pwtlmt=0"));
+        Assert.assertFalse(url.contains("pwtifa="));
+    }
+}
@@ -0,0 +1,60 @@
+package com.pubmatic.openwrap;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+public class POWLogTest {
+
+    @After
+    public void tearDown() {
+        POWConfiguration.getInstance().setLogger(null);
+    }
+
+    @Test
+    public void testMessagesRoutedToLogger() {
+        RecordingLogger logger = new RecordingLogger();
+        POWConfiguration.getInstance().setLogger(logger);
+        POWLog.d("tag", "debug message");
+        POWLog.w("tag", "warn message");
+        POWLog.e("tag", "error message");
+        Assert.assertEquals(3, logger.messages.size());
+        Assert.assertEquals("D/tag: debug message", logger.messages.get(0));
+        Assert.assertEquals("W/tag: warn message", logger.messages.get(1));
+        Assert.assertEquals("E/tag: error message", logger.messages.get(2));
+    }
+
+    @Test
+    public void testMessagesDroppedWithoutLogger() {
+        RecordingLogger logger = new RecordingLogger();
+        POWConfiguration.getInstance().setLogger(logger);
+        POWConfiguration.getInstance().setLogger(null);
+        POWLog.d("tag", "debug message");
+        POWLog.e("tag", "error message");
+        Assert.assertTrue(logger.messages.isEmpty());
+    }
+
+    private static class RecordingLogger implements POWLogger {
+        final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void debug(@NonNull String tag, @NonNull String message) {
+            messages.add("D/" + tag + ": " + message);
+        }
+
+        @Override
+        public void warn(@NonNull String tag, @NonNull String message) {
+            messages.add("W/" + tag + ": " + message);
+        }
+
+        @Override
+        public void error(@NonNull String tag, @NonNull String message) {
+            messages.add("E/" + tag + ": " + message);
+        }
+    }
+}
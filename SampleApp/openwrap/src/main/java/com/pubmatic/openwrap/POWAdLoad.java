@@ -0,0 +1,282 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import android.os.Handler;
+import android.util.Log;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Handle of one ad loading started by
+ * {@link POWAdsLoader#loadAd(POWAdRequest, POWAdLoading.AdsLoaderListener)}. Each loading keeps
+ * its own request, deadline and listener, so that any number of loadings can run in parallel,
+ * from any thread, and every callback reaches the listener of its own loading. The listener is
+ * notified at most once.
+ */
+public class POWAdLoad {
+
+    private static final String TAG = "POWAdLoad";
+    private static final String DEADLINE_EXCEEDED = "Deadline exceeded";
+
+    @NonNull
+    private final POWAdRequest request;
+
+    @NonNull
+    private final POWAdLoading.AdsLoaderListener listener;
+
+    @NonNull
+    private final POWIdProvider adClient;
+
+    @NonNull
+    private final POWCommunicator communicator;
+
+    @NonNull
+    private final POWPrefetcher prefetcher;
+
+    @NonNull
+    private final Handler mainHandler;
+
+    /**
+     * Loadings of the owning ads loader which are in progress
+     */
+    @NonNull
+    private final Set<POWAdLoad> activeLoads;
+
+    /**
+     * End-to-end time budget in milliseconds, 0 if disabled
+     */
+    private final int deadline;
+
+    @NonNull
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    @NonNull
+    private final ResponseListener responseListener = new ResponseListener();
+
+    @NonNull
+    private final Runnable deadlineRunnable = this::onDeadline;
+
+    @NonNull
+    private final POWLoadMetrics metrics;
+
+    private long startNanos;
+
+    POWAdLoad(@NonNull POWAdRequest request, @NonNull POWAdLoading.AdsLoaderListener listener,
+              @NonNull POWIdProvider adClient, @NonNull POWCommunicator communicator,
+              @NonNull POWPrefetcher prefetcher, @NonNull Handler mainHandler,
+              @NonNull Set<POWAdLoad> activeLoads, int deadline) {
+        this.request = request;
+        this.listener = listener;
+        this.adClient = adClient;
+        this.communicator = communicator;
+        this.prefetcher = prefetcher;
+        this.mainHandler = mainHandler;
+        this.activeLoads = activeLoads;
+        this.deadline = deadline;
+        this.metrics = new POWLoadMetrics(request.getAdUnitId());
+    }
+
+    /**
+     * Starts the loading
+     */
+    void load() {
+        startNanos = System.nanoTime();
+        activeLoads.add(this);
+        if (deadline > 0) {
+            mainHandler.postDelayed(deadlineRunnable, deadline);
+        }
+        // Serve the response from bid cache or prefetched pool, if available
+        POWAdResponse cachedResponse = POWBidCache.getInstance().get(request.getFingerprint());
+        if (cachedResponse != null) {
+            Log.d(TAG, "Serving response from bid cache");
+            metrics.setCached(true);
+            // Deliver on main thread as the network responses, never before load() returns. The
+            // loading can still be cancelled until then.
+            mainHandler.post(() -> {
+                if (finish()) {
+                    metrics.setDeliveryStartNanos(System.nanoTime());
+                    deliver(cachedResponse);
+                }
+            });
+            return;
+        }
+        // Wait for the prefetch auction of same request, if it is in flight
+        if (prefetcher.await(request.getFingerprint(), responseListener)) {
+            Log.d(TAG, "Waiting for prefetch auction");
+            metrics.setCached(true);
+            return;
+        }
+        // Set the advertising Info to the ad request and proceed with ad loading
+        long adIdStartNanos = System.nanoTime();
+        adClient.getAdvertisingInfo(new POWIdProvider.Listener() {
+            @Override
+            public void onAdvertisingInfoFetched(@NonNull POWAdvertisingInfo adInfo) {
+                metrics.setDuration(POWLoadMetrics.Stage.AD_ID_WAIT, adIdStartNanos, System.nanoTime());
+                request.setAdvertisingInfo(adInfo);
+                proceedAdLoading();
+            }
+
+            @Override
+            public void onAdvertisingInfoFailed() {
+                metrics.setDuration(POWLoadMetrics.Stage.AD_ID_WAIT, adIdStartNanos, System.nanoTime());
+                proceedAdLoading();
+            }
+        });
+    }
+
+    /**
+     * Cancels the loading, its listener is not notified afterwards. OpenWrap call shared with
+     * other loadings of same request continues for them.
+     */
+    public void cancel() {
+        if (finish()) {
+            cancelCalls();
+        }
+    }
+
+    /**
+     * Returns whether the listener is already notified or the loading is cancelled
+     *
+     * @return true if the loading is completed
+     */
+    public boolean isCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Returns the request of this loading
+     *
+     * @return the instance of {@link POWAdRequest}
+     */
+    @NonNull
+    public POWAdRequest getRequest() {
+        return request;
+    }
+
+    private void proceedAdLoading() {
+        // Skip the OpenWrap call if the loading is completed during advertising info fetch, e.g.
+        // by deadline. A call started while it is being cancelled is ignored on response.
+        if (!completed.get()) {
+            communicator.requestAd(request, responseListener, metrics);
+        }
+    }
+
+    private void onDeadline() {
+        if (finish()) {
+            Log.d(TAG, "Deadline of " + deadline + " ms exceeded");
+            cancelCalls();
+            int errorCode = POWError.TIMEOUT_ERROR.getErrorCode();
+            listener.onAdFailed(errorCode, DEADLINE_EXCEEDED);
+            recordMetrics(errorCode);
+        }
+    }
+
+    /**
+     * Cancels the pending prefetch wait and OpenWrap call of this loading
+     */
+    private void cancelCalls() {
+        prefetcher.removeListener(responseListener);
+        communicator.cancel(request, responseListener);
+    }
+
+    /**
+     * Notifies the listener with the response, having its targeting projected if configured. Bid
+     * cache keeps full targeting, so that the projection can be changed.
+     */
+    private void deliver(@NonNull POWAdResponse response) {
+        listener.onAdReceived(project(response, metrics));
+        recordMetrics(POWLoadMetrics.OUTCOME_SUCCESS);
+    }
+
+    /**
+     * Completes the metrics of this loading, once its listener is notified, and publishes them
+     */
+    private void recordMetrics(int outcome) {
+        recordMetrics(metrics, outcome, startNanos);
+    }
+
+    /**
+     * Projects the targeting of given response as per {@link POWConfiguration}, if configured
+     *
+     * @param response the response to be delivered
+     * @param metrics  the metrics of the loading to record the saved targeting bytes
+     * @return the projected response, or the given one if projection is not configured
+     */
+    @NonNull
+    static POWAdResponse project(@NonNull POWAdResponse response, @NonNull POWLoadMetrics metrics) {
+        POWTargetingProjection projection = POWConfiguration.getInstance().getTargetingProjection();
+        if (projection != null) {
+            response = response.project(projection);
+            metrics.setTargetingBytesSaved(response.getTargetingBytesSaved());
+        }
+        return response;
+    }
+
+    /**
+     * Completes the metrics of a loading, once its result is delivered, and publishes them
+     *
+     * @param metrics    the metrics of the loading
+     * @param outcome    {@link POWLoadMetrics#OUTCOME_SUCCESS} or the error code
+     * @param startNanos the start time of the loading
+     */
+    static void recordMetrics(@NonNull POWLoadMetrics metrics, int outcome, long startNanos) {
+        long endNanos = System.nanoTime();
+        metrics.setOutcome(outcome);
+        metrics.setDuration(POWLoadMetrics.Stage.DELIVERY, metrics.getDeliveryStartNanos(), endNanos);
+        metrics.setDuration(POWLoadMetrics.Stage.TOTAL, startNanos, endNanos);
+        POWMetrics.getInstance().record(metrics);
+    }
+
+    /**
+     * Marks the loading as completed
+     *
+     * @return true if the loading is completed by this call, i.e. the listener is to be notified
+     */
+    private boolean finish() {
+        if (!completed.compareAndSet(false, true)) {
+            return false;
+        }
+        mainHandler.removeCallbacks(deadlineRunnable);
+        activeLoads.remove(this);
+        return true;
+    }
+
+    /**
+     * Receives the response of OpenWrap call, or of the prefetch auction, for this loading
+     */
+    private class ResponseListener implements POWCommunicator.CommunicatorListener {
+
+        @Override
+        public void onSuccess(@NonNull POWAdResponse adResponse) {
+            // Response of cancelled or timed out loading is ignored
+            if (finish()) {
+                Log.d(TAG, "Response: " + adResponse.getTargeting());
+                // Cache the response only if it contains the targeting
+                if (adResponse.hasTargeting()) {
+                    POWBidCache.getInstance().put(request.getFingerprint(), adResponse);
+                }
+                deliver(adResponse);
+            }
+        }
+
+        @Override
+        public void onFailure(int errorCode, @Nullable String errorMsg) {
+            Log.d(TAG, "errorcode: " + errorCode + ", errorMsg" + errorMsg);
+            if (finish()) {
+                listener.onAdFailed(errorCode, errorMsg);
+                recordMetrics(errorCode);
+            }
+        }
+    }
+}
@@ -55,4 +55,17 @@ public interface POWAdLoading {
          */
         void onAdFailed(int errorCode, @Nullable String errorMsg);
     }
+
+    /**
+     * Listener for OpenWrap batch ads loading events.
+     */
+    interface BatchAdsLoaderListener {
+        /**
+         * Called when OpenWrap Ad loader completes loading of all the slots of batch request.
+         * Slots which failed to load do not have response in {@link POWBatchAdResponse}
+         *
+         * @param response the instance {@link POWBatchAdResponse}
+         */
+        void onBatchAdReceived(@NonNull POWBatchAdResponse response);
+    }
 }
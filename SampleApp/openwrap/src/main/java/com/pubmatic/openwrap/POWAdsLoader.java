@@ -9,34 +9,79 @@
 package com.pubmatic.openwrap;
 
 import android.content.Context;
-import android.util.Log;
+import android.os.Handler;
+import android.os.Looper;
 
-import com.google.android.gms.ads.identifier.AdvertisingIdClient;
-import com.pubmatic.openwrap.models.POWApplicationInfo;
-
-import org.json.JSONObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 /**
  * Class definition responsible for loading OpenWrap ad. Provides loading event through {@AdsLoaderListener}
- * callbacks
+ * callbacks. Any number of ad loadings can be in progress in parallel, each tracked by its own
+ * {@link POWAdLoad} handle.
  */
-public class POWAdsLoader implements POWAdLoading, POWCommunicator.CommunicatorListener {
-
-    private static final String TAG = "POWAdLoader";
+public class POWAdsLoader implements POWAdLoading {
 
-    private POWAdvertisingIdClient adClient;
+    private POWIdProvider adClient;
 
     @NonNull
     private POWCommunicator communicator;
 
     @Nullable
-    private POWAdRequest adRequest;
+    private volatile AdsLoaderListener adsLoaderListener;
 
-    @Nullable
-    private AdsLoaderListener adsLoaderListener;
+    @NonNull
+    private POWPrefetcher prefetcher;
+
+    @NonNull
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * End-to-end time budget of ad loading in milliseconds, 0 if disabled
+     */
+    private volatile int deadline;
+
+    /**
+     * Ad loadings which are in progress
+     */
+    @NonNull
+    private final Set<POWAdLoad> activeLoads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /**
+     * Forwards the callbacks of {@link POWAdsLoader#loadAd(POWAdRequest)} to the listener set
+     * through {@link POWAdsLoader#setAdsLoaderListener(AdsLoaderListener)}
+     */
+    @NonNull
+    private final AdsLoaderListener loaderListener = new AdsLoaderListener() {
+        @Override
+        public void onAdReceived(@NonNull POWAdResponse response) {
+            AdsLoaderListener listener = adsLoaderListener;
+            if (listener != null) {
+                listener.onAdReceived(response);
+            }
+        }
+
+        @Override
+        public void onAdFailed(int errorCode, @Nullable String errorMsg) {
+            AdsLoaderListener listener = adsLoaderListener;
+            if (listener != null) {
+                listener.onAdFailed(errorCode, errorMsg);
+            }
+        }
+    };
+
+    /**
+     * Batch loaders which are in progress
+     */
+    @NonNull
+    private final List<POWBatchAdLoader> batchLoaders = new ArrayList<>();
 
     /**
      * Constructs the {@link POWAdsLoader} with application context which required for
@@ -45,68 +90,138 @@ public class POWAdsLoader implements POWAdLoading, POWCommunicator.CommunicatorL
      * @param context the instance of application context
      */
     public POWAdsLoader(@NonNull Context context) {
+        // Set the Android defaults, e.g. logger and application info, if not set
+        POWAndroidPlatform.init(context);
         adClient = new POWAdvertisingIdClient(context);
-        // Set the default Application info
-        if(POWConfiguration.getInstance().getAppInfo() == null) {
-            POWConfiguration.getInstance().setAppInfo(new POWApplicationInfo(context));
-        }
         // Create communicator
         communicator = POWCommunicator.getInstance(context.getApplicationContext());
+        prefetcher = POWPrefetcher.getInstance(context.getApplicationContext());
+        // Restore the responses persisted before the process death
+        if (POWConfiguration.getInstance().getBidStoreSize() > 0) {
+            POWBidStore.getInstance(context).restore();
+        }
+        if (POWConfiguration.getInstance().isConnectionWarmUpEnabled()) {
+            communicator.warmUpConnection();
+        }
     }
 
-    @Override
-    public void loadAd(@NonNull POWAdRequest request) {
-        adRequest = request;
-        // Set the advertising Info to the ad request and proceed with ad loading
-        adClient.getAdvertisingInfo(new POWAdvertisingIdClient.AdvertisingIdListener() {
-            @Override
-            public void onAdvertisingInfoFetched(@NonNull AdvertisingIdClient.Info adInfo) {
-                adRequest.setAdvertisingInfo(adInfo);
-                proceedAdLoading();
-            }
+    /**
+     * Returns the timing of connection warm-up with OpenWrap server, see
+     * {@link POWConfiguration#setConnectionWarmUpEnabled(boolean)}
+     *
+     * @return the warm-up metrics, null if warm-up is disabled or not completed yet
+     */
+    @Nullable
+    public POWWarmUpMetrics getWarmUpMetrics() {
+        return communicator.getWarmUpMetrics();
+    }
 
-            @Override
-            public void onAdvertisingInfoFailed() {
-                proceedAdLoading();
-            }
-        });
+    /**
+     * Starts OpenWrap auctions for given requests ahead of time, e.g. while content details are
+     * shown, and keeps the responses in a ready pool. A later {@link POWAdsLoader#loadAd(POWAdRequest)}
+     * for the same request is served from the pool without network call. Pooled responses expire
+     * after bid cache TTL, or {@link POWBidCache#DEFAULT_PREFETCH_TTL} if bid cache is disabled.
+     * At most {@link POWConfiguration#getBidCacheSize()} responses are pooled.
+     *
+     * @param requests the instances of {@link POWAdRequest} to be prefetched
+     */
+    public void prefetch(@NonNull POWAdRequest... requests) {
+        for (POWAdRequest request : requests) {
+            prefetcher.prefetch(request);
+        }
     }
 
-    @Override
-    public void setAdsLoaderListener(@Nullable AdsLoaderListener listener) {
-        adsLoaderListener = listener;
+    /**
+     * Sets the end-to-end time budget of each ad loading, which covers
+     * advertising info fetch, url build and OpenWrap call including its retries. If the ad is not
+     * loaded within the deadline, the loading is cancelled and
+     * {@link AdsLoaderListener#onAdFailed(int, String)} is called immediately with 408 (timeout)
+     * error code, so that the app can proceed with GAM without OpenWrap targeting. Responses
+     * received after the deadline are ignored. The deadline is disabled by default and applies
+     * to the loadings started after it is set.
+     *
+     * @param deadline the time budget in milliseconds, 0 to disable it
+     */
+    public void setDeadline(int deadline) {
+        this.deadline = Math.max(0, deadline);
+    }
+
+    /**
+     * Returns the end-to-end time budget of ad loading
+     *
+     * @return the deadline in milliseconds, 0 if disabled
+     */
+    public int getDeadline() {
+        return deadline;
     }
 
     @Override
-    public void invalidate() {
-        if (adRequest != null) {
-            communicator.cancel(adRequest);
-            adRequest = null;
-        }
+    public void loadAd(@NonNull POWAdRequest request) {
+        loadAd(request, loaderListener);
     }
 
     /**
-     * Helper method to be called in the flow of loadAd
+     * Loads the ad for given request and provides the loading events to given listener, instead
+     * of the one set through {@link POWAdsLoader#setAdsLoaderListener(AdsLoaderListener)}. It can
+     * be called from any thread, while other loadings are in progress.
+     *
+     * @param request  the instance of {@link POWAdRequest}
+     * @param listener the listener to get loading events of this request
+     * @return the handle to cancel the loading
+     */
+    @NonNull
+    public POWAdLoad loadAd(@NonNull POWAdRequest request, @NonNull AdsLoaderListener listener) {
+        POWAdLoad adLoad = new POWAdLoad(request, listener, adClient, communicator, prefetcher,
+                mainHandler, activeLoads, deadline);
+        adLoad.load();
+        return adLoad;
+    }
+
+    /**
+     * Loads the ads for all the slots of given batch request, e.g. pre-roll, mid-roll and post-roll
+     * pods of a content, and provides one {@link POWAdResponse} per slot through the listener.
+     * Slots share advertising info fetch and are requested in parallel, while every slot gets its
+     * own bid even if several slots have identical ad request. The listener is notified on main
+     * thread.
+     *
+     * @param batchRequest the instance of {@link POWBatchAdRequest}
+     * @param listener     the listener to get batch loading result
      */
-    private void proceedAdLoading() {
-        if (adRequest != null) {
-            communicator.requestAd(adRequest, this);
+    public void loadAds(@NonNull POWBatchAdRequest batchRequest,
+                        @NonNull BatchAdsLoaderListener listener) {
+        POWBatchAdLoader batchLoader = new POWBatchAdLoader(adClient, communicator, prefetcher, mainHandler,
+                listener);
+        synchronized (batchLoaders) {
+            // Drop the batch loaders which are already completed
+            Iterator<POWBatchAdLoader> iterator = batchLoaders.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isCompleted()) {
+                    iterator.remove();
+                }
+            }
+            batchLoaders.add(batchLoader);
         }
+        batchLoader.load(batchRequest);
     }
 
     @Override
-    public void onSuccess(@NonNull JSONObject response) {
-        Log.d(TAG, "Response: " + response);
-        if (adsLoaderListener != null && adRequest != null) {
-            adsLoaderListener.onAdReceived(new POWAdResponse(response));
-        }
+    public void setAdsLoaderListener(@Nullable AdsLoaderListener listener) {
+        adsLoaderListener = listener;
     }
 
+    /**
+     * Cancels all the ad loadings of this loader
+     */
     @Override
-    public void onFailure(int errorCode, @Nullable String errorMsg) {
-        Log.d(TAG, "errorcode: " + errorCode + ", errorMsg" + errorMsg);
-        if (adsLoaderListener != null) {
-            adsLoaderListener.onAdFailed(errorCode, errorMsg);
+    public void invalidate() {
+        synchronized (batchLoaders) {
+            for (POWBatchAdLoader batchLoader : batchLoaders) {
+                batchLoader.invalidate();
+            }
+            batchLoaders.clear();
+        }
+        for (POWAdLoad adLoad : activeLoads) {
+            adLoad.cancel();
         }
     }
 }
@@ -9,82 +9,239 @@
 package com.pubmatic.openwrap;
 
 import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.google.android.gms.ads.identifier.AdvertisingIdClient;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 /**
  * This class is to fetch the Advertising Id and LMT state using Google play services and
- * provide it for OW ad request.
+ * provide it for OW ad request, as the Android {@link POWIdProvider}. The last fetched state is
+ * saved in a private preferences file and used on next cold start till it is refreshed in
+ * background. The saved file is read on background executor, when the first client is created.
  */
-public class POWAdvertisingIdClient {
+public class POWAdvertisingIdClient implements POWIdProvider {
 
     private static String TAG = "POWAdIdClient";
-    private static AdvertisingIdClient.Info adInfo;
+    /**
+     * Minimum interval in milliseconds between two fetches from G-Play service
+     */
+    static final long MIN_REFRESH_INTERVAL = 30000;
+    /**
+     * Private preferences file holding the last fetched advertising info
+     */
+    static final String SNAPSHOT_PREFS_NAME = "com.pubmatic.openwrap.advertising_info";
+    static final String SNAPSHOT_ID_KEY = "id";
+    static final String SNAPSHOT_LMT_KEY = "lmt";
+    private static POWAdvertisingInfo adInfo;
+    /**
+     * Whether the saved snapshot is loaded in this application session
+     */
+    private static boolean snapshotLoaded;
+    private static boolean snapshotLoading;
+    /**
+     * Listeners waiting for the saved snapshot to be loaded
+     */
+    @NonNull
+    private static final List<Listener> snapshotListeners = new ArrayList<>();
+    /**
+     * Listeners waiting for the in-flight fetch
+     */
+    @NonNull
+    private static final List<Listener> pendingListeners = new ArrayList<>();
+    private static boolean fetching;
+    /**
+     * Elapsed realtime of last completed fetch, 0 if not fetched yet
+     */
+    private static long lastFetchTime;
     private Context context;
 
     protected POWAdvertisingIdClient(@NonNull Context context) {
         this.context = context.getApplicationContext();
+        synchronized (POWAdvertisingIdClient.class) {
+            startSnapshotLoading();
+        }
+    }
+
+    @Override
+    public void getAdvertisingInfo(@NonNull Listener listener) {
+        POWAdvertisingInfo savedInfo;
+        boolean throttled;
+        boolean startFetch;
+        synchronized (POWAdvertisingIdClient.class) {
+            // On cold start, wait for the snapshot saved in last session rather than for the
+            // G-Play service, as it is loaded much sooner
+            if (!snapshotLoaded) {
+                snapshotListeners.add(listener);
+                startSnapshotLoading();
+                return;
+            }
+            savedInfo = adInfo;
+            throttled = lastFetchTime > 0
+                    && SystemClock.elapsedRealtime() - lastFetchTime < MIN_REFRESH_INTERVAL;
+            // Without saved adInfo, wait for the G-Play service fetch, which delays an Ad request
+            // (100-200 millisec). Concurrent requests share the same fetch.
+            if (savedInfo == null && !throttled) {
+                pendingListeners.add(listener);
+            }
+            startFetch = !fetching && !throttled;
+            if (startFetch) {
+                fetching = true;
+            }
+        }
+        if (startFetch) {
+            POWExecutors.getBackgroundExecutor().execute(this::fetchAdvertisingInfo);
+        }
+        // Immediately return the saved adInfo, while the latest one is fetched in background
+        if (savedInfo != null) {
+            listener.onAdvertisingInfoFetched(savedInfo);
+        } // The fetch has failed recently, so do not wait for another attempt
+        else if (throttled) {
+            listener.onAdvertisingInfoFailed();
+        }
+    }
+
+    /**
+     * Starts loading the saved snapshot on background executor, unless it is already loaded or
+     * being loaded. It must be called while holding the class lock.
+     */
+    private void startSnapshotLoading() {
+        if (snapshotLoaded || snapshotLoading) {
+            return;
+        }
+        snapshotLoading = true;
+        POWExecutors.getBackgroundExecutor().execute(this::loadSavedSnapshot);
     }
 
-    public void getAdvertisingInfo(@NonNull AdvertisingIdListener listener) {
-        // Start the G-Play service and inform the listener
-        // It will delay an Ad request (100-200 millisec) as it will be fetched from G-Play service
-        if (POWAdvertisingIdClient.adInfo == null) {
-            fetchAdvertisingInfo(listener);
+    /**
+     * Loads the snapshot saved in last session and serves the listeners waiting for it. It is
+     * called on background executor.
+     */
+    private void loadSavedSnapshot() {
+        POWAdvertisingInfo savedInfo = loadSnapshot(context);
+        List<Listener> listeners;
+        synchronized (POWAdvertisingIdClient.class) {
+            // Info fetched meanwhile is more recent than the saved one
+            if (adInfo == null) {
+                adInfo = savedInfo;
+            }
+            snapshotLoaded = true;
+            snapshotLoading = false;
+            listeners = new ArrayList<>(snapshotListeners);
+            snapshotListeners.clear();
         }
-        // Start the G-Play service and inform the listener about already saved
-        // This will make a request to fetch latest adInfo but immediately return the saved adInfo
-        else {
-            fetchAdvertisingInfo(null);
-            listener.onAdvertisingInfoFetched(adInfo);
+        for (Listener listener : listeners) {
+            getAdvertisingInfo(listener);
         }
     }
 
-    private void fetchAdvertisingInfo(@Nullable AdvertisingIdListener listener) {
-        new Thread(() -> {
-            AdvertisingIdClient.Info info = null;
-            try {
-                Log.d(TAG, "Fetching the Advertising Id from GPlay service");
-                info = AdvertisingIdClient.getAdvertisingIdInfo(context);
-            } catch (Exception e) {
-                Log.e(TAG, "Unable to fetch the Advertising Id using GPlay service: " + e.getMessage());
+    /**
+     * Fetches the advertising info from G-Play service and notifies the pending listeners. It is
+     * called on background executor.
+     */
+    private void fetchAdvertisingInfo() {
+        POWAdvertisingInfo info = null;
+        try {
+            Log.d(TAG, "Fetching the Advertising Id from GPlay service");
+            AdvertisingIdClient.Info gmsInfo = AdvertisingIdClient.getAdvertisingIdInfo(context);
+            if (gmsInfo != null) {
+                info = new POWAdvertisingInfo(gmsInfo.getId(), gmsInfo.isLimitAdTrackingEnabled());
             }
+        } catch (Exception e) {
+            Log.e(TAG, "Unable to fetch the Advertising Id using GPlay service: " + e.getMessage());
+        }
 
+        if (info != null) {
+            Log.d(TAG, "Fetched Advertising ID: " + info.getId() +
+                    ", and LMT=" + info.isLimitAdTrackingEnabled());
+            // Hash the ID here, on background thread, so that ad requests reuse it
+            if (info.getId() != null) {
+                POWAdvertisingInfo.getHashedId(info.getId(), POWConfiguration.getInstance().getHashTypeForAdvertisingId());
+            }
+        }
+        List<Listener> listeners;
+        synchronized (POWAdvertisingIdClient.class) {
             // Update the latest info in class member
             if (info != null) {
+                POWAdvertisingInfo previousInfo = adInfo;
                 adInfo = info;
-                Log.d(TAG, "Fetched Advertising ID: " + adInfo.getId() +
-                        ", and LMT=" + POWAdvertisingIdClient.adInfo.isLimitAdTrackingEnabled());
-                // Inform the listener about success
-                if (listener != null) {
-                    listener.onAdvertisingInfoFetched(info);
+                if (previousInfo == null || isChanged(previousInfo, info)) {
+                    if (previousInfo != null) {
+                        // Advertising ID is reset or LMT is changed, so drop the values derived
+                        // from the previous one
+                        Log.d(TAG, "Advertising info changed, clearing cached hashes and bids");
+                        POWAdvertisingInfo.clearHashedId();
+                        POWBidCache.getInstance().clear();
+                    }
+                    saveSnapshot(context, info);
                 }
-            } // Inform the listener about failure, if any
-            else if (listener != null) {
+            }
+            lastFetchTime = SystemClock.elapsedRealtime();
+            fetching = false;
+            listeners = new ArrayList<>(pendingListeners);
+            pendingListeners.clear();
+        }
+        for (Listener listener : listeners) {
+            if (info != null) {
+                listener.onAdvertisingInfoFetched(info);
+            } else {
                 listener.onAdvertisingInfoFailed();
             }
-        }).start();
+        }
+    }
+
+    private static boolean isChanged(@NonNull POWAdvertisingInfo previousInfo,
+                                     @NonNull POWAdvertisingInfo info) {
+        String previousId = previousInfo.getId();
+        return previousInfo.isLimitAdTrackingEnabled() != info.isLimitAdTrackingEnabled()
+                || (previousId == null ? info.getId() != null : !previousId.equals(info.getId()));
+    }
+
+    /**
+     * Loads the advertising info saved in last session
+     *
+     * @param context the application context
+     * @return the saved advertising info, null if not saved
+     */
+    @Nullable
+    private static POWAdvertisingInfo loadSnapshot(@NonNull Context context) {
+        SharedPreferences preferences = context.getSharedPreferences(SNAPSHOT_PREFS_NAME, Context.MODE_PRIVATE);
+        if (!preferences.contains(SNAPSHOT_LMT_KEY)) {
+            return null;
+        }
+        Log.d(TAG, "Using the Advertising Id saved in last session");
+        return new POWAdvertisingInfo(preferences.getString(SNAPSHOT_ID_KEY, null),
+                preferences.getBoolean(SNAPSHOT_LMT_KEY, false));
+    }
+
+    /**
+     * Saves the advertising info in background, to be used on next cold start
+     *
+     * @param context the application context
+     * @param info    the advertising info
+     */
+    private static void saveSnapshot(@NonNull Context context, @NonNull POWAdvertisingInfo info) {
+        context.getSharedPreferences(SNAPSHOT_PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putString(SNAPSHOT_ID_KEY, info.getId())
+                .putBoolean(SNAPSHOT_LMT_KEY, info.isLimitAdTrackingEnabled())
+                .apply();
     }
 
     /**
-     * Interface to provide callback for Advertising Id and LMT state
+     * Clears the advertising info held in memory, so that it is loaded again from the saved
+     * snapshot. Used when the application session is to be restarted, e.g. in tests.
      */
-    protected interface AdvertisingIdListener {
-
-        /**
-         * Success callback provides the Advertising info consist of ID and LMT state
-         *
-         * @param adInfo Advertising info consist of ID and LMT state
-         */
-        void onAdvertisingInfoFetched(@NonNull AdvertisingIdClient.Info adInfo);
-
-        /**
-         * Failure callback called if unable to get Advertising info
-         */
-        void onAdvertisingInfoFailed();
+    static synchronized void clearSessionState() {
+        adInfo = null;
+        snapshotLoaded = false;
+        lastFetchTime = 0;
+        POWAdvertisingInfo.clearHashedId();
     }
 }
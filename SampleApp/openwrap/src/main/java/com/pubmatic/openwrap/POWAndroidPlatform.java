@@ -0,0 +1,129 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.location.Location;
+import android.util.Log;
+
+import com.google.android.gms.ads.identifier.AdvertisingIdClient;
+import com.pubmatic.openwrap.models.POWApplicationInfo;
+import com.pubmatic.openwrap.models.POWLocation;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Adapts the Android platform to the platform independent classes of openwrap-core, i.e. creates
+ * their models from Android objects and sets the Android implementations of the platform
+ * interfaces: {@link POWLogger} writing to Logcat and {@link POWAdvertisingIdClient} as the
+ * {@link POWIdProvider}.
+ */
+public final class POWAndroidPlatform {
+
+    private static final String TAG = "POWAndroidPlatform";
+
+    private POWAndroidPlatform() {
+    }
+
+    /**
+     * Creates the application info having the application name and package name of given context
+     *
+     * @param context android context
+     * @return the instance of {@link POWApplicationInfo}
+     */
+    @NonNull
+    public static POWApplicationInfo createApplicationInfo(@NonNull Context context) {
+        String name = null;
+        String packageName = null;
+        // Get the application name and version number
+        try {
+            PackageManager manager = context.getPackageManager();
+            PackageInfo info = manager.getPackageInfo(context.getPackageName(), 0);
+            name = info.applicationInfo.loadLabel(manager).toString();
+            packageName = context.getPackageName();
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to retrieve app info: " + e.getLocalizedMessage());
+        }
+        return new POWApplicationInfo(name, packageName);
+    }
+
+    /**
+     * Creates the location from the Android's default location object. Locations of network, gps
+     * and wifi providers are treated as {@link POWLocation.Source#GPS}, others as
+     * {@link POWLocation.Source#USER}.
+     *
+     * @param location Android's default location object
+     * @return the instance of {@link POWLocation}
+     */
+    @NonNull
+    public static POWLocation createLocation(@NonNull Location location) {
+        String provider = location.getProvider();
+        POWLocation.Source source;
+        if (provider != null && (provider.equalsIgnoreCase("network") || provider.equalsIgnoreCase("gps") || provider.equalsIgnoreCase("wifi")))
+            source = POWLocation.Source.GPS;
+        else
+            source = POWLocation.Source.USER;
+        return new POWLocation(source, location.getLatitude(), location.getLongitude());
+    }
+
+    /**
+     * Sets the advertising info of Google Play services to given ad request
+     *
+     * @param request the ad request
+     * @param adInfo  the advertising info of Google Play services, null to remove it
+     * @deprecated Use {@link POWAdRequest#setAdvertisingInfo(POWAdvertisingInfo)} instead, this
+     * adapter replaces {@code POWAdRequest#setAdvertisingInfo(AdvertisingIdClient.Info)} which
+     * can not be declared in openwrap-core.
+     */
+    @Deprecated
+    public static void setAdvertisingInfo(@NonNull POWAdRequest request, @Nullable AdvertisingIdClient.Info adInfo) {
+        request.setAdvertisingInfo(adInfo != null
+                ? new POWAdvertisingInfo(adInfo.getId(), adInfo.isLimitAdTrackingEnabled()) : null);
+    }
+
+    /**
+     * Sets the Android defaults of the configuration which are not set by the publisher, i.e.
+     * Logcat logger and application info of given context
+     *
+     * @param context android context
+     */
+    static void init(@NonNull Context context) {
+        POWConfiguration configuration = POWConfiguration.getInstance();
+        if (configuration.getLogger() == null) {
+            configuration.setLogger(new LogcatLogger());
+        }
+        if (configuration.getAppInfo() == null) {
+            configuration.setAppInfo(createApplicationInfo(context));
+        }
+    }
+
+    /**
+     * {@link POWLogger} writing the messages to Logcat
+     */
+    private static class LogcatLogger implements POWLogger {
+
+        @Override
+        public void debug(@NonNull String tag, @NonNull String message) {
+            Log.d(tag, message);
+        }
+
+        @Override
+        public void warn(@NonNull String tag, @NonNull String message) {
+            Log.w(tag, message);
+        }
+
+        @Override
+        public void error(@NonNull String tag, @NonNull String message) {
+            Log.e(tag, message);
+        }
+    }
+}
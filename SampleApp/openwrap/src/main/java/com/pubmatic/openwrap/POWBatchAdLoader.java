@@ -0,0 +1,243 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import android.os.Handler;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Class definition responsible for loading all the slots of {@link POWBatchAdRequest}. Advertising
+ * info is fetched once for the batch and every slot gets its own bid: a response available in
+ * {@link POWBidCache} or in flight through {@link POWPrefetcher} serves at most one slot of its
+ * fingerprint, and all the other slots are requested in parallel, each over a network call of its
+ * own which is never shared with other requests of same fingerprint. Slot responses are projected
+ * and measured as the ones of {@link POWAdLoad}, and the listener is notified on main thread.
+ */
+class POWBatchAdLoader {
+
+    private static final String TAG = "POWBatchAdLoader";
+
+    @NonNull
+    private final POWIdProvider adClient;
+
+    @NonNull
+    private final POWCommunicator communicator;
+
+    @NonNull
+    private final POWPrefetcher prefetcher;
+
+    @NonNull
+    private final Handler mainHandler;
+
+    @NonNull
+    private final POWAdLoading.BatchAdsLoaderListener listener;
+
+    @NonNull
+    private final POWBatchAdResponse batchResponse = new POWBatchAdResponse();
+
+    /**
+     * Slots of which the result is awaited
+     */
+    @NonNull
+    private final List<SlotLoad> pendingSlots = new ArrayList<>();
+
+    private boolean notified;
+    private boolean invalidated;
+
+    POWBatchAdLoader(@NonNull POWIdProvider adClient, @NonNull POWCommunicator communicator,
+                     @NonNull POWPrefetcher prefetcher, @NonNull Handler mainHandler,
+                     @NonNull POWAdLoading.BatchAdsLoaderListener listener) {
+        this.adClient = adClient;
+        this.communicator = communicator;
+        this.prefetcher = prefetcher;
+        this.mainHandler = mainHandler;
+        this.listener = listener;
+    }
+
+    /**
+     * Loads all the slots of given batch request
+     *
+     * @param batchRequest the instance of {@link POWBatchAdRequest}
+     */
+    void load(@NonNull POWBatchAdRequest batchRequest) {
+        POWBidCache bidCache = POWBidCache.getInstance();
+        List<SlotLoad> cachedSlots = new ArrayList<>();
+        List<POWAdResponse> cachedResponses = new ArrayList<>();
+        List<SlotLoad> networkSlots = new ArrayList<>();
+        synchronized (this) {
+            // Fingerprints of which the cached or prefetched response is already served to a slot
+            Set<String> servedFingerprints = new HashSet<>();
+            for (POWBatchAdRequest.Slot slot : batchRequest.getSlots()) {
+                SlotLoad slotLoad = new SlotLoad(slot.getPodPosition(), batchRequest.createAdRequest(slot));
+                String fingerprint = slotLoad.adRequest.getFingerprint();
+                pendingSlots.add(slotLoad);
+                if (servedFingerprints.add(fingerprint)) {
+                    POWAdResponse cachedResponse = bidCache.get(fingerprint);
+                    if (cachedResponse != null) {
+                        slotLoad.metrics.setCached(true);
+                        cachedSlots.add(slotLoad);
+                        cachedResponses.add(cachedResponse);
+                        continue;
+                    }
+                    if (prefetcher.await(fingerprint, slotLoad)) {
+                        slotLoad.metrics.setCached(true);
+                        continue;
+                    }
+                }
+                networkSlots.add(slotLoad);
+            }
+        }
+        // Deliver on main thread as the network responses, never before load() returns
+        for (int i = 0; i < cachedSlots.size(); i++) {
+            SlotLoad slotLoad = cachedSlots.get(i);
+            POWAdResponse cachedResponse = cachedResponses.get(i);
+            mainHandler.post(() -> {
+                slotLoad.metrics.setDeliveryStartNanos(System.nanoTime());
+                slotLoad.onSuccess(cachedResponse);
+            });
+        }
+        if (batchRequest.getSlots().isEmpty()) {
+            mainHandler.post(this::notifyIfCompleted);
+        }
+        if (networkSlots.isEmpty()) {
+            return;
+        }
+        Log.d(TAG, "Requesting " + networkSlots.size() + " slots of batch request");
+        // Fetch advertising info once for all the slots
+        long adIdStartNanos = System.nanoTime();
+        adClient.getAdvertisingInfo(new POWIdProvider.Listener() {
+            @Override
+            public void onAdvertisingInfoFetched(@NonNull POWAdvertisingInfo adInfo) {
+                requestSlots(networkSlots, adInfo, adIdStartNanos);
+            }
+
+            @Override
+            public void onAdvertisingInfoFailed() {
+                requestSlots(networkSlots, null, adIdStartNanos);
+            }
+        });
+    }
+
+    /**
+     * Cancels the network calls of pending slots
+     */
+    void invalidate() {
+        List<SlotLoad> slots;
+        synchronized (this) {
+            invalidated = true;
+            slots = new ArrayList<>(pendingSlots);
+            pendingSlots.clear();
+        }
+        for (SlotLoad slotLoad : slots) {
+            prefetcher.removeListener(slotLoad);
+            communicator.cancel(slotLoad.adRequest, slotLoad);
+        }
+    }
+
+    /**
+     * Checks whether the listener is notified or the loading is invalidated
+     *
+     * @return true if the loading is completed
+     */
+    synchronized boolean isCompleted() {
+        return notified || invalidated;
+    }
+
+    /**
+     * Sends the OpenWrap calls of given slots at once, each slot getting a call of its own
+     */
+    private void requestSlots(@NonNull List<SlotLoad> slots, @Nullable POWAdvertisingInfo adInfo,
+                              long adIdStartNanos) {
+        long adIdEndNanos = System.nanoTime();
+        synchronized (this) {
+            if (invalidated) {
+                return;
+            }
+        }
+        // A call started while the batch is being invalidated is ignored on response
+        for (SlotLoad slotLoad : slots) {
+            slotLoad.metrics.setDuration(POWLoadMetrics.Stage.AD_ID_WAIT, adIdStartNanos, adIdEndNanos);
+            slotLoad.adRequest.setAdvertisingInfo(adInfo);
+            communicator.requestAd(slotLoad.adRequest, slotLoad, slotLoad.metrics, false);
+        }
+    }
+
+    /**
+     * Marks given slot as complete
+     *
+     * @param slotLoad the slot of which the result is received
+     * @return true if the result is to be set in batch response
+     */
+    private synchronized boolean complete(@NonNull SlotLoad slotLoad) {
+        return !invalidated && pendingSlots.remove(slotLoad);
+    }
+
+    /**
+     * Notifies the listener once all the slots are complete
+     */
+    private void notifyIfCompleted() {
+        synchronized (this) {
+            if (notified || invalidated || !pendingSlots.isEmpty()) {
+                return;
+            }
+            notified = true;
+        }
+        listener.onBatchAdReceived(batchResponse);
+    }
+
+    /**
+     * Loading of one slot, receiving the result of its OpenWrap call or of the prefetch auction
+     */
+    private class SlotLoad implements POWCommunicator.CommunicatorListener {
+
+        private final int podPosition;
+
+        @NonNull
+        private final POWAdRequest adRequest;
+
+        @NonNull
+        private final POWLoadMetrics metrics;
+
+        private final long startNanos = System.nanoTime();
+
+        SlotLoad(int podPosition, @NonNull POWAdRequest adRequest) {
+            this.podPosition = podPosition;
+            this.adRequest = adRequest;
+            this.metrics = new POWLoadMetrics(adRequest.getAdUnitId());
+        }
+
+        @Override
+        public void onSuccess(@NonNull POWAdResponse adResponse) {
+            // Response is handed out to this slot only, hence it is not cached for reuse
+            if (complete(this)) {
+                batchResponse.setAdResponse(podPosition, POWAdLoad.project(adResponse, metrics));
+                POWAdLoad.recordMetrics(metrics, POWLoadMetrics.OUTCOME_SUCCESS, startNanos);
+                notifyIfCompleted();
+            }
+        }
+
+        @Override
+        public void onFailure(int errorCode, @Nullable String errorMsg) {
+            Log.d(TAG, "Slot request failed, errorcode: " + errorCode + ", errorMsg: " + errorMsg);
+            if (complete(this)) {
+                batchResponse.setError(podPosition, errorCode);
+                POWAdLoad.recordMetrics(metrics, errorCode, startNanos);
+                notifyIfCompleted();
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Model class represents OpenWrap ad request for multiple ad breaks of a content, e.g. pre-roll,
+ * mid-roll and post-roll pods. Publisher should create instance of this class, add a slot for every
+ * ad break and pass it to {@link POWAdsLoader#loadAds(POWBatchAdRequest, POWAdLoading.BatchAdsLoaderListener)}
+ */
+public class POWBatchAdRequest {
+
+    /**
+     * OpenWrap Publisher Id
+     */
+    @NonNull
+    private final String publisherId;
+
+    /**
+     * OpenWrap Profile Id
+     */
+    private final int profileId;
+
+    /**
+     * Request timeout in milliseconds
+     */
+    private int networkTimeout = POWAdRequest.DEFAULT_REQUEST_TIMEOUT;
+
+    /**
+     * OpenWrap Profile Version id
+     */
+    private int versionId = POWAdRequest.DEFAULT_VERSION_ID;
+
+    /**
+     * Ad break slots
+     */
+    @NonNull
+    private final List<Slot> slots = new ArrayList<>();
+
+    /**
+     * Constructs {@link POWBatchAdRequest} with necessary arguments
+     *
+     * @param publisherId the OpenWrap Publisher Id
+     * @param profileId   the OpenWrap Profile Id
+     */
+    public POWBatchAdRequest(@NonNull String publisherId, int profileId) {
+        this.publisherId = publisherId;
+        this.profileId = profileId;
+    }
+
+    /**
+     * Adds the slot for an ad break
+     *
+     * @param podPosition the position of ad break in the content, e.g. 0 for pre-roll. It
+     *                    identifies the slot in {@link POWBatchAdResponse}
+     * @param adUnitId    the OpenWrap Video Ad Unit Id
+     * @param adSize      the Video Ad Size
+     * @return this instance, to chain the calls
+     */
+    @NonNull
+    public POWBatchAdRequest addSlot(int podPosition, @NonNull String adUnitId,
+                                     @NonNull POWAdRequest.POWAdSize adSize) {
+        slots.add(new Slot(podPosition, adUnitId, adSize));
+        return this;
+    }
+
+    /**
+     * Returns the slots added to this request
+     *
+     * @return the list of slots
+     */
+    @NonNull
+    public List<Slot> getSlots() {
+        return Collections.unmodifiableList(slots);
+    }
+
+    /**
+     * OpenWrap Ad request timeout in milliseconds, applicable to every slot
+     *
+     * @return the network timeout in millisecond
+     */
+    public int getNetworkTimeout() {
+        return networkTimeout;
+    }
+
+    /**
+     * Sets OpenWrap request network timeout if you want overwrite default timeout.
+     * Default timeout is {@link POWAdRequest#DEFAULT_REQUEST_TIMEOUT}
+     *
+     * @param networkTimeout the network timeout in milliseconds
+     */
+    public void setNetworkTimeout(int networkTimeout) {
+        this.networkTimeout = networkTimeout;
+    }
+
+    /**
+     * Sets OpenWrap Profile Version Id
+     *
+     * @param versionId the integer OpenWrap version
+     */
+    public void setVersionId(int versionId) {
+        this.versionId = versionId;
+    }
+
+    /**
+     * Creates the {@link POWAdRequest} for given slot using the common parameters of this request
+     *
+     * @param slot the slot of this request
+     * @return the ad request for the slot
+     */
+    @NonNull
+    POWAdRequest createAdRequest(@NonNull Slot slot) {
+        POWAdRequest adRequest = new POWAdRequest(publisherId, profileId, slot.adUnitId, slot.adSize);
+        adRequest.setNetworkTimeout(networkTimeout);
+        adRequest.setVersionId(versionId);
+        return adRequest;
+    }
+
+    /**
+     * Class to maintain an ad break slot of batch request
+     */
+    public static class Slot {
+
+        /**
+         * Position of the ad break in the content
+         */
+        private final int podPosition;
+
+        /**
+         * OpenWrap Ad unit Id
+         */
+        @NonNull
+        private final String adUnitId;
+
+        /**
+         * Size of the video ad
+         */
+        @NonNull
+        private final POWAdRequest.POWAdSize adSize;
+
+        Slot(int podPosition, @NonNull String adUnitId, @NonNull POWAdRequest.POWAdSize adSize) {
+            this.podPosition = podPosition;
+            this.adUnitId = adUnitId;
+            this.adSize = adSize;
+        }
+
+        /**
+         * Returns the position of the ad break in the content
+         *
+         * @return the pod position
+         */
+        public int getPodPosition() {
+            return podPosition;
+        }
+
+        /**
+         * Returns the OpenWrap Ad unit Id
+         *
+         * @return the ad unit id
+         */
+        @NonNull
+        public String getAdUnitId() {
+            return adUnitId;
+        }
+
+        /**
+         * Returns the size of the video ad
+         *
+         * @return the ad size
+         */
+        @NonNull
+        public POWAdRequest.POWAdSize getAdSize() {
+            return adSize;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * This class holds the OpenWrap responses of {@link POWBatchAdRequest}, one per slot identified by
+ * its pod position
+ */
+public class POWBatchAdResponse {
+
+    /**
+     * Error code returned for the slot which has response
+     */
+    public static final int NO_ERROR = 0;
+
+    @NonNull
+    private final Map<Integer, POWAdResponse> responses = new HashMap<>();
+
+    @NonNull
+    private final Map<Integer, Integer> errorCodes = new HashMap<>();
+
+    /**
+     * Constructs empty {@link POWBatchAdResponse}
+     */
+    POWBatchAdResponse() {
+    }
+
+    /**
+     * Sets the response of the slot
+     *
+     * @param podPosition the pod position of the slot
+     * @param response    the OpenWrap response
+     */
+    synchronized void setAdResponse(int podPosition, @NonNull POWAdResponse response) {
+        responses.put(podPosition, response);
+    }
+
+    /**
+     * Sets the error of the slot
+     *
+     * @param podPosition the pod position of the slot
+     * @param errorCode   the error code indicating error type
+     */
+    synchronized void setError(int podPosition, int errorCode) {
+        errorCodes.put(podPosition, errorCode);
+    }
+
+    /**
+     * Retrieve the OpenWrap response of the slot. Null in-case if OpenWrap ad loading failed for
+     * the slot, refer {@link POWBatchAdResponse#getErrorCode(int)} for the reason.
+     *
+     * @param podPosition the pod position of the slot
+     * @return the OpenWrap response
+     */
+    @Nullable
+    public synchronized POWAdResponse getAdResponse(int podPosition) {
+        return responses.get(podPosition);
+    }
+
+    /**
+     * Retrieve the error code of the slot.
+     *
+     * @param podPosition the pod position of the slot
+     * @return the error code, {@link POWBatchAdResponse#NO_ERROR} if slot has response
+     */
+    public synchronized int getErrorCode(int podPosition) {
+        Integer errorCode = errorCodes.get(podPosition);
+        return errorCode != null ? errorCode : NO_ERROR;
+    }
+}
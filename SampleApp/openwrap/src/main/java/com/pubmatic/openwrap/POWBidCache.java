@@ -0,0 +1,321 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import android.os.SystemClock;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * In-memory cache of OpenWrap responses keyed by the ad request fingerprint, see
+ * {@link POWAdRequest#getFingerprint()}. Entries expire after the TTL configured through
+ * {@link POWConfiguration#setBidCacheTTL(long)} and the least recently used entry is evicted once
+ * the cache grows beyond {@link POWConfiguration#getBidCacheSize()}. Changes are persisted to
+ * {@link POWBidStore} if it is enabled through {@link POWConfiguration#setBidStoreSize(int)}.
+ */
+public class POWBidCache {
+
+    /**
+     * Default time in milliseconds for which prefetched OpenWrap response is held, if bid cache
+     * TTL is not configured
+     */
+    public static final long DEFAULT_PREFETCH_TTL = 5 * 60 * 1000;
+
+    /**
+     * Private Static instance
+     */
+    private static volatile POWBidCache sSelf;
+
+    /**
+     * Cached responses in least recently accessed order
+     */
+    @NonNull
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Persisted copy of the cache, null until it is restored
+     */
+    @Nullable
+    private volatile POWBidStore store;
+
+    private long hitCount;
+    private long missCount;
+    private long expiredCount;
+
+    /**
+     * Method to get the shared instance of bid cache.
+     *
+     * @return Shared instance of POWBidCache
+     */
+    @NonNull
+    public static POWBidCache getInstance() {
+        POWBidCache bidCache = sSelf;
+        if (bidCache == null) {
+            synchronized (POWBidCache.class) {
+                bidCache = sSelf;
+                if (bidCache == null) {
+                    bidCache = new POWBidCache();
+                    sSelf = bidCache;
+                }
+            }
+        }
+        return bidCache;
+    }
+
+    /**
+     * Private constructor
+     */
+    private POWBidCache() {
+    }
+
+    /**
+     * Returns the unexpired response cached for given fingerprint
+     *
+     * @param fingerprint the ad request fingerprint
+     * @return the cached response, null if not present or expired
+     */
+    @Nullable
+    synchronized POWAdResponse get(@NonNull String fingerprint) {
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (entry.expiryTime <= SystemClock.elapsedRealtime()) {
+            entries.remove(fingerprint);
+            removeFromStore(fingerprint);
+            expiredCount++;
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        // Prefetched response is meant for single ad break
+        if (entry.consumable) {
+            entries.remove(fingerprint);
+            removeFromStore(fingerprint);
+        }
+        return entry.response;
+    }
+
+    /**
+     * Caches the response for given fingerprint using the configured TTL. It is no-op if bid cache
+     * is disabled through {@link POWConfiguration#setBidCacheTTL(long)}
+     *
+     * @param fingerprint the ad request fingerprint
+     * @param response    the OpenWrap response
+     */
+    synchronized void put(@NonNull String fingerprint, @NonNull POWAdResponse response) {
+        POWConfiguration configuration = POWConfiguration.getInstance();
+        long ttl = configuration.getBidCacheTTL();
+        if (ttl <= 0) {
+            return;
+        }
+        entries.put(fingerprint, new Entry(response, SystemClock.elapsedRealtime() + ttl, false));
+        putToStore(fingerprint, response, ttl, false);
+        trimToSize(configuration.getBidCacheSize());
+    }
+
+    /**
+     * Adds the prefetched response for given fingerprint to the ready pool. Unlike
+     * {@link POWBidCache#put(String, POWAdResponse)} it is held even when bid cache is disabled,
+     * and it is removed once it is served.
+     *
+     * @param fingerprint the ad request fingerprint
+     * @param response    the prefetched OpenWrap response
+     */
+    synchronized void putPrefetched(@NonNull String fingerprint, @NonNull POWAdResponse response) {
+        POWConfiguration configuration = POWConfiguration.getInstance();
+        long ttl = configuration.getBidCacheTTL() > 0 ? configuration.getBidCacheTTL() : DEFAULT_PREFETCH_TTL;
+        entries.put(fingerprint, new Entry(response, SystemClock.elapsedRealtime() + ttl, true));
+        putToStore(fingerprint, response, ttl, true);
+        trimToSize(configuration.getBidCacheSize());
+    }
+
+    /**
+     * Adds the response restored from {@link POWBidStore}, unless a response is already cached
+     * for given fingerprint. It is not persisted again.
+     *
+     * @param fingerprint the ad request fingerprint
+     * @param response    the restored OpenWrap response
+     * @param expiryTime  the expiry time in {@link SystemClock#elapsedRealtime()} base
+     * @param consumable  true if the response is removed once it is served
+     */
+    synchronized void restore(@NonNull String fingerprint, @NonNull POWAdResponse response, long expiryTime,
+                              boolean consumable) {
+        if (!entries.containsKey(fingerprint)) {
+            entries.put(fingerprint, new Entry(response, expiryTime, consumable));
+            trimToSize(POWConfiguration.getInstance().getBidCacheSize());
+        }
+    }
+
+    /**
+     * Sets the store to which the changes are persisted
+     *
+     * @param store the bid store, null to stop persisting
+     */
+    void setStore(@Nullable POWBidStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Checks whether an unexpired response is available for given fingerprint. Unlike
+     * {@link POWBidCache#get(String)} it neither updates access order nor counters.
+     *
+     * @param fingerprint the ad request fingerprint
+     * @return true if unexpired response is available
+     */
+    synchronized boolean contains(@NonNull String fingerprint) {
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            if (mapEntry.getKey().equals(fingerprint)) {
+                return mapEntry.getValue().expiryTime > SystemClock.elapsedRealtime();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the cached response for given fingerprint
+     *
+     * @param fingerprint the ad request fingerprint
+     */
+    synchronized void remove(@NonNull String fingerprint) {
+        if (entries.remove(fingerprint) != null) {
+            removeFromStore(fingerprint);
+        }
+    }
+
+    /**
+     * Removes all the cached responses
+     */
+    public synchronized void clear() {
+        entries.clear();
+        POWBidStore bidStore = store;
+        if (bidStore != null) {
+            bidStore.clear();
+        }
+    }
+
+    /**
+     * Returns the number of responses currently held by the cache, including the expired ones
+     * which are not yet evicted
+     *
+     * @return the number of cached responses
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of ad loads served from the cache
+     *
+     * @return the cache hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of ad loads which could not be served from the cache
+     *
+     * @return the cache miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of cached responses dropped because their TTL elapsed
+     *
+     * @return the expired entry count
+     */
+    public synchronized long getExpiredCount() {
+        return expiredCount;
+    }
+
+    /**
+     * Resets the hit, miss and expiry counters
+     */
+    public synchronized void resetStats() {
+        hitCount = 0;
+        missCount = 0;
+        expiredCount = 0;
+    }
+
+    /**
+     * Drops expired entries first and then the least recently used ones until cache fits in
+     * given size
+     *
+     * @param maxSize the maximum number of entries
+     */
+    private void trimToSize(int maxSize) {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> mapEntry = iterator.next();
+            if (mapEntry.getValue().expiryTime <= now) {
+                iterator.remove();
+                removeFromStore(mapEntry.getKey());
+                expiredCount++;
+            }
+        }
+        iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            removeFromStore(iterator.next().getKey());
+            iterator.remove();
+        }
+    }
+
+    private void putToStore(@NonNull String fingerprint, @NonNull POWAdResponse response, long ttl,
+                            boolean consumable) {
+        POWBidStore bidStore = store;
+        if (bidStore != null) {
+            bidStore.put(fingerprint, response, System.currentTimeMillis() + ttl, consumable);
+        }
+    }
+
+    private void removeFromStore(@NonNull String fingerprint) {
+        POWBidStore bidStore = store;
+        if (bidStore != null) {
+            bidStore.remove(fingerprint);
+        }
+    }
+
+    /**
+     * Cached response along with its expiry time
+     */
+    private static class Entry {
+
+        @NonNull
+        private final POWAdResponse response;
+
+        /**
+         * Expiry time in {@link SystemClock#elapsedRealtime()} base
+         */
+        private final long expiryTime;
+
+        /**
+         * Flag to remove the response once it is served
+         */
+        private final boolean consumable;
+
+        Entry(@NonNull POWAdResponse response, long expiryTime, boolean consumable) {
+            this.response = response;
+            this.expiryTime = expiryTime;
+            this.consumable = consumable;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Persisted copy of {@link POWBidCache}, which keeps the unexpired targeting per request
+ * fingerprint in a private file, so that it survives the process death. It is enabled using
+ * {@link POWConfiguration#setBidStoreSize(int)}.
+ * <p>
+ * The file is append-only: a header followed by put and remove records. It is read once, in
+ * background, when the first ads loader is created, and compacted in background to the live
+ * records whenever an append would grow it beyond the configured size, so that the file never
+ * exceeds it. A record torn by process death ends the file on next read. Only the targeting of
+ * a response is persisted, other fields are not available on a restored response.
+ */
+class POWBidStore {
+
+    static final String FILE_NAME = "com.pubmatic.openwrap.bids";
+
+    private static final String TAG = "POWBidStore";
+    private static final String TARGETING_KEY = "targeting";
+    /**
+     * File header, to be changed along with the record format
+     */
+    private static final int HEADER = 0x504f5701;
+    private static final int HEADER_SIZE = 4;
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 2;
+
+    private static volatile POWBidStore instance;
+
+    @NonNull
+    private final File file;
+
+    /**
+     * Serial executor, so that the file operations are applied in the order of cache changes
+     */
+    @NonNull
+    private final Executor executor = POWExecutors.newSerialExecutor();
+
+    /**
+     * Live records of the file in insertion order, accessed on the executor only
+     */
+    @NonNull
+    private final LinkedHashMap<String, Record> records = new LinkedHashMap<>();
+
+    /**
+     * Size of the file in bytes, -1 until the file is read
+     */
+    private long fileSize = -1;
+
+    private boolean restored;
+
+    /**
+     * Returns the shared instance of bid store
+     *
+     * @param context the application context
+     * @return the instance of {@link POWBidStore}
+     */
+    @NonNull
+    static POWBidStore getInstance(@NonNull Context context) {
+        POWBidStore store = instance;
+        if (store == null) {
+            synchronized (POWBidStore.class) {
+                store = instance;
+                if (store == null) {
+                    store = new POWBidStore(new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+                    instance = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    POWBidStore(@NonNull File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the file in background, once, and restores its unexpired responses to bid cache.
+     * Bid cache then persists its changes to this store.
+     */
+    void restore() {
+        POWBidCache.getInstance().setStore(this);
+        executor.execute(() -> {
+            if (restored) {
+                return;
+            }
+            restored = true;
+            readIfNeeded();
+            long now = System.currentTimeMillis();
+            long elapsedNow = SystemClock.elapsedRealtime();
+            int restoredCount = 0;
+            for (Map.Entry<String, Record> entry : records.entrySet()) {
+                Record record = entry.getValue();
+                if (record.expiryTime <= now) {
+                    continue;
+                }
+                try {
+                    JSONObject responseJson = new JSONObject().put(TARGETING_KEY, new JSONObject(record.targeting));
+                    POWBidCache.getInstance().restore(entry.getKey(), new POWAdResponse(responseJson),
+                            elapsedNow + record.expiryTime - now, record.consumable);
+                    restoredCount++;
+                } catch (JSONException e) {
+                    Log.w(TAG, "Skipping invalid targeting: " + e.getMessage());
+                }
+            }
+            Log.d(TAG, "Restored " + restoredCount + " responses");
+        });
+    }
+
+    /**
+     * Persists the targeting of the response cached for given fingerprint. It is ignored if the
+     * bid store is disabled or the response has no targeting.
+     *
+     * @param fingerprint the ad request fingerprint
+     * @param response    the OpenWrap response
+     * @param expiryTime  the expiry time in {@link System#currentTimeMillis()} base
+     * @param consumable  true if the response is removed once it is served
+     */
+    void put(@NonNull String fingerprint, @NonNull POWAdResponse response, long expiryTime, boolean consumable) {
+        JSONObject targeting = response.getTargeting();
+        int maxSize = POWConfiguration.getInstance().getBidStoreSize();
+        if (targeting == null || maxSize <= 0) {
+            return;
+        }
+        Record record = new Record(targeting.toString(), expiryTime, consumable);
+        byte[] bytes;
+        try {
+            bytes = encode(fingerprint, record);
+        } catch (IOException e) {
+            Log.w(TAG, "Skipping targeting which can not be persisted: " + e.getMessage());
+            return;
+        }
+        if (HEADER_SIZE + bytes.length > maxSize) {
+            Log.w(TAG, "Skipping targeting larger than bid store size");
+            return;
+        }
+        executor.execute(() -> {
+            readIfNeeded();
+            records.remove(fingerprint);
+            records.put(fingerprint, record);
+            append(bytes);
+        });
+    }
+
+    /**
+     * Removes the persisted response of given fingerprint
+     *
+     * @param fingerprint the ad request fingerprint
+     */
+    void remove(@NonNull String fingerprint) {
+        executor.execute(() -> {
+            readIfNeeded();
+            if (records.remove(fingerprint) != null) {
+                try {
+                    append(encode(fingerprint, null));
+                } catch (IOException e) {
+                    Log.w(TAG, "Unable to encode the removal: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes all the persisted responses along with the file
+     */
+    void clear() {
+        executor.execute(() -> {
+            records.clear();
+            fileSize = 0;
+            if (file.exists() && !file.delete()) {
+                Log.w(TAG, "Unable to delete " + file);
+            }
+        });
+    }
+
+    /**
+     * Runs given task on the executor of the store, after the pending file operations
+     *
+     * @param task the task to be run
+     */
+    void execute(@NonNull Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Returns the size of the file
+     *
+     * @return the file size in bytes, 0 if it does not exist
+     */
+    long getFileSize() {
+        return file.length();
+    }
+
+    /**
+     * Appends the record to the file, after compacting the file if the record does not fit in
+     * the configured size
+     *
+     * @param bytes the encoded record
+     */
+    private void append(@NonNull byte[] bytes) {
+        int maxSize = POWConfiguration.getInstance().getBidStoreSize();
+        try {
+            if (fileSize + bytes.length > maxSize) {
+                // Compacted file holds the record already
+                compact(maxSize);
+                return;
+            }
+            boolean created = fileSize == 0;
+            try (FileOutputStream output = new FileOutputStream(file, true)) {
+                if (created) {
+                    output.write(encodeHeader());
+                    fileSize = HEADER_SIZE;
+                }
+                output.write(bytes);
+                fileSize += bytes.length;
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to write " + file + ": " + e.getMessage());
+            records.clear();
+            clearFile();
+        }
+    }
+
+    /**
+     * Rewrites the file with the unexpired live records, dropping the oldest ones until the
+     * file fits in given size
+     */
+    private void compact(int maxSize) throws IOException {
+        long now = System.currentTimeMillis();
+        Iterator<Record> iterator = records.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiryTime <= now) {
+                iterator.remove();
+            }
+        }
+        byte[] bytes = encodeRecords();
+        while (bytes.length > maxSize && !records.isEmpty()) {
+            iterator = records.values().iterator();
+            iterator.next();
+            iterator.remove();
+            bytes = encodeRecords();
+        }
+        if (records.isEmpty()) {
+            clearFile();
+            return;
+        }
+        File compacted = new File(file.getPath() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(compacted)) {
+            output.write(bytes);
+        }
+        if (!compacted.renameTo(file)) {
+            throw new IOException("Unable to replace " + file);
+        }
+        fileSize = bytes.length;
+        Log.d(TAG, "Compacted to " + records.size() + " responses, " + fileSize + " bytes");
+    }
+
+    /**
+     * Reads the live records of the file, once
+     */
+    private void readIfNeeded() {
+        if (fileSize >= 0) {
+            return;
+        }
+        fileSize = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != HEADER) {
+                Log.w(TAG, "Discarding the file of unknown format");
+                clearFile();
+                return;
+            }
+            long size = HEADER_SIZE;
+            while (true) {
+                int type = input.read();
+                if (type == -1) {
+                    break;
+                }
+                String fingerprint = input.readUTF();
+                if (type == RECORD_PUT) {
+                    Record record = new Record(input.readUTF(), input.readLong(), input.readBoolean());
+                    records.remove(fingerprint);
+                    records.put(fingerprint, record);
+                } else if (type == RECORD_REMOVE) {
+                    records.remove(fingerprint);
+                } else {
+                    throw new IOException("Unknown record type " + type);
+                }
+                size += encode(fingerprint, type == RECORD_PUT ? records.get(fingerprint) : null).length;
+            }
+            fileSize = size;
+        } catch (FileNotFoundException e) {
+            // Nothing persisted yet
+        } catch (EOFException e) {
+            // Record torn by process death, the file is rewritten without it
+            Log.w(TAG, "Discarding the incomplete record");
+            compactOrClear();
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to read " + file + ": " + e.getMessage());
+            records.clear();
+            clearFile();
+        }
+    }
+
+    private void compactOrClear() {
+        try {
+            compact(POWConfiguration.getInstance().getBidStoreSize());
+        } catch (IOException e) {
+            records.clear();
+            clearFile();
+        }
+    }
+
+    private void clearFile() {
+        fileSize = 0;
+        if (file.exists() && !file.delete()) {
+            Log.w(TAG, "Unable to delete " + file);
+        }
+    }
+
+    @NonNull
+    private byte[] encodeRecords() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(encodeHeader());
+        for (Map.Entry<String, Record> entry : records.entrySet()) {
+            output.write(encode(entry.getKey(), entry.getValue()));
+        }
+        return output.toByteArray();
+    }
+
+    @NonNull
+    private static byte[] encodeHeader() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE);
+        new DataOutputStream(bytes).writeInt(HEADER);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes the put record, or the remove record if given record is null
+     */
+    @NonNull
+    private static byte[] encode(@NonNull String fingerprint, @Nullable Record record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(record != null ? RECORD_PUT : RECORD_REMOVE);
+        output.writeUTF(fingerprint);
+        if (record != null) {
+            output.writeUTF(record.targeting);
+            output.writeLong(record.expiryTime);
+            output.writeBoolean(record.consumable);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Persisted targeting along with its expiry
+     */
+    private static class Record {
+        @NonNull
+        private final String targeting;
+        /**
+         * Expiry time in {@link System#currentTimeMillis()} base, as elapsed realtime does not
+         * survive reboot
+         */
+        private final long expiryTime;
+        private final boolean consumable;
+
+        Record(@NonNull String targeting, long expiryTime, boolean consumable) {
+            this.targeting = targeting;
+            this.expiryTime = expiryTime;
+            this.consumable = consumable;
+        }
+    }
+}
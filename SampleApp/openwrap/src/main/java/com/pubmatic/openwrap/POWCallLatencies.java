@@ -0,0 +1,124 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Latency histograms of OpenWrap calls, one per ad unit and outcome, recorded by
+ * {@link POWCommunicator}. Histograms are created on the first call of their ad unit and
+ * outcome, later calls are recorded without allocation. Number of tracked ad units is bounded
+ * by {@link POWCallLatencies#MAX_AD_UNITS}, so that memory stays fixed.
+ */
+class POWCallLatencies {
+
+    /**
+     * Maximum number of ad units tracked separately
+     */
+    static final int MAX_AD_UNITS = 32;
+
+    /**
+     * Ad unit id of the calls of the ad units beyond {@link POWCallLatencies#MAX_AD_UNITS}
+     */
+    static final String OTHER_AD_UNITS = "other";
+
+    private static final POWError[] ERRORS = POWError.values();
+    private static final int SUCCESS_SLOT = 0;
+    private static final int OTHER_ERROR_SLOT = ERRORS.length + 1;
+    private static final int SLOT_COUNT = ERRORS.length + 2;
+
+    @NonNull
+    private final ConcurrentHashMap<String, AtomicReferenceArray<POWLatencyHistogram>> adUnits = new ConcurrentHashMap<>();
+
+    /**
+     * Records the latency of a call
+     *
+     * @param adUnitId      the ad unit id of the request
+     * @param outcome       {@link POWLoadMetrics#OUTCOME_SUCCESS} or the error code of the call
+     * @param latencyMicros the latency in microseconds
+     */
+    void record(@NonNull String adUnitId, int outcome, long latencyMicros) {
+        AtomicReferenceArray<POWLatencyHistogram> histograms = adUnits.get(adUnitId);
+        if (histograms == null) {
+            histograms = adUnits.size() < MAX_AD_UNITS ? getOrCreate(adUnitId) : getOrCreate(OTHER_AD_UNITS);
+        }
+        int slot = slotOf(outcome);
+        POWLatencyHistogram histogram = histograms.get(slot);
+        if (histogram == null) {
+            histograms.compareAndSet(slot, null, new POWLatencyHistogram());
+            histogram = histograms.get(slot);
+        }
+        histogram.record(latencyMicros);
+    }
+
+    /**
+     * Returns the summaries of the histograms having any latency recorded
+     *
+     * @param reset true to clear the histograms once summarized, so that next snapshot covers
+     *              the calls completed afterwards
+     * @return the list of summaries, empty if no call is recorded
+     */
+    @NonNull
+    List<POWLatencySummary> snapshot(boolean reset) {
+        List<POWLatencySummary> summaries = new ArrayList<>();
+        for (Map.Entry<String, AtomicReferenceArray<POWLatencyHistogram>> entry : adUnits.entrySet()) {
+            AtomicReferenceArray<POWLatencyHistogram> histograms = entry.getValue();
+            for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                POWLatencyHistogram histogram = histograms.get(slot);
+                if (histogram == null || histogram.getCount() == 0) {
+                    continue;
+                }
+                summaries.add(new POWLatencySummary(entry.getKey(), outcomeOf(slot), histogram));
+                if (reset) {
+                    // Calls recorded while summarizing are dropped along with the others
+                    histogram.reset();
+                }
+            }
+        }
+        return summaries;
+    }
+
+    @NonNull
+    private AtomicReferenceArray<POWLatencyHistogram> getOrCreate(@NonNull String adUnitId) {
+        AtomicReferenceArray<POWLatencyHistogram> histograms = adUnits.get(adUnitId);
+        if (histograms == null) {
+            AtomicReferenceArray<POWLatencyHistogram> newHistograms = new AtomicReferenceArray<>(SLOT_COUNT);
+            histograms = adUnits.putIfAbsent(adUnitId, newHistograms);
+            if (histograms == null) {
+                histograms = newHistograms;
+            }
+        }
+        return histograms;
+    }
+
+    private static int slotOf(int outcome) {
+        if (outcome == POWLoadMetrics.OUTCOME_SUCCESS) {
+            return SUCCESS_SLOT;
+        }
+        for (int i = 0; i < ERRORS.length; i++) {
+            if (ERRORS[i].getErrorCode() == outcome) {
+                return i + 1;
+            }
+        }
+        return OTHER_ERROR_SLOT;
+    }
+
+    private static int outcomeOf(int slot) {
+        if (slot == SUCCESS_SLOT) {
+            return POWLoadMetrics.OUTCOME_SUCCESS;
+        }
+        return slot == OTHER_ERROR_SLOT ? POWLatencySummary.OUTCOME_OTHER_ERROR : ERRORS[slot - 1].getErrorCode();
+    }
+}
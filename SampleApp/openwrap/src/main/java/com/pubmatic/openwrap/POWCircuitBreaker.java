@@ -0,0 +1,171 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import android.os.Handler;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Circuit breaker of OpenWrap calls, which short-circuits the calls while OpenWrap server is
+ * failing, as per {@link POWCircuitBreakerPolicy} set on {@link POWConfiguration}.
+ */
+class POWCircuitBreaker {
+
+    /**
+     * The call is sent
+     */
+    static final int ALLOW = 0;
+    /**
+     * The call is sent as the probe of half-open circuit, its result decides the state
+     */
+    static final int ALLOW_PROBE = 1;
+    /**
+     * The call fails immediately
+     */
+    static final int REJECT = 2;
+
+    private static final String TAG = "POWCircuitBreaker";
+
+    @NonNull
+    private final Handler mainHandler;
+
+    @NonNull
+    private POWCircuitBreakerListener.State state = POWCircuitBreakerListener.State.CLOSED;
+
+    /**
+     * Ring buffer of the recent failure times, sized as per failure threshold
+     */
+    @NonNull
+    private long[] failureTimes = new long[0];
+    private int failureCount;
+    private long openTime;
+    private boolean probeInFlight;
+
+    POWCircuitBreaker(@NonNull Handler mainHandler) {
+        this.mainHandler = mainHandler;
+    }
+
+    /**
+     * Returns whether a new call can be sent
+     *
+     * @return {@link POWCircuitBreaker#ALLOW}, {@link POWCircuitBreaker#ALLOW_PROBE} or
+     * {@link POWCircuitBreaker#REJECT}
+     */
+    int allowRequest() {
+        POWCircuitBreakerPolicy policy = POWConfiguration.getInstance().getCircuitBreakerPolicy();
+        if (policy == null) {
+            return ALLOW;
+        }
+        synchronized (this) {
+            switch (state) {
+                case OPEN:
+                    if (SystemClock.elapsedRealtime() - openTime < policy.getOpenDuration()) {
+                        return REJECT;
+                    }
+                    setState(POWCircuitBreakerListener.State.HALF_OPEN);
+                    probeInFlight = true;
+                    return ALLOW_PROBE;
+                case HALF_OPEN:
+                    if (probeInFlight) {
+                        return REJECT;
+                    }
+                    probeInFlight = true;
+                    return ALLOW_PROBE;
+                default:
+                    return ALLOW;
+            }
+        }
+    }
+
+    /**
+     * Records the call which reached OpenWrap server, which closes the circuit if it is the probe
+     *
+     * @param probe true if the call is the probe of half-open circuit
+     */
+    synchronized void onSuccess(boolean probe) {
+        if (probe) {
+            probeInFlight = false;
+            failureCount = 0;
+            setState(POWCircuitBreakerListener.State.CLOSED);
+        }
+    }
+
+    /**
+     * Records the call failed due to timeout, server error or connection failure, which opens
+     * the circuit if it is the probe or if the failure threshold is reached
+     *
+     * @param probe true if the call is the probe of half-open circuit
+     */
+    void onFailure(boolean probe) {
+        POWCircuitBreakerPolicy policy = POWConfiguration.getInstance().getCircuitBreakerPolicy();
+        synchronized (this) {
+            long now = SystemClock.elapsedRealtime();
+            if (probe) {
+                probeInFlight = false;
+                open(now);
+                return;
+            }
+            if (policy == null || state != POWCircuitBreakerListener.State.CLOSED) {
+                return;
+            }
+            int threshold = policy.getFailureThreshold();
+            if (failureTimes.length != threshold) {
+                failureTimes = new long[threshold];
+                failureCount = 0;
+            }
+            failureTimes[failureCount % threshold] = now;
+            failureCount++;
+            // Oldest of the last threshold failures is within the window
+            if (failureCount >= threshold && now - failureTimes[failureCount % threshold] <= policy.getFailureWindow()) {
+                open(now);
+            }
+        }
+    }
+
+    /**
+     * Releases the probe of half-open circuit which is cancelled before its result, so that
+     * next call is sent as probe
+     */
+    synchronized void onProbeCancelled() {
+        probeInFlight = false;
+    }
+
+    /**
+     * Returns whether the error is counted as a failure of OpenWrap server, i.e. timeout, server
+     * error or connection failure. Other errors, e.g. client errors and parse errors, show that
+     * the server is reachable.
+     */
+    static boolean isFailure(int errorCode) {
+        return errorCode == POWError.TIMEOUT_ERROR.getErrorCode()
+                || errorCode == POWError.NETWORK_ERROR.getErrorCode()
+                || errorCode == POWError.CONNECTION_RESET_ERROR.getErrorCode()
+                || (errorCode >= 500 && errorCode < 600);
+    }
+
+    private void open(long now) {
+        openTime = now;
+        failureCount = 0;
+        setState(POWCircuitBreakerListener.State.OPEN);
+    }
+
+    private void setState(@NonNull POWCircuitBreakerListener.State newState) {
+        if (state == newState) {
+            return;
+        }
+        state = newState;
+        Log.d(TAG, "Circuit state: " + newState);
+        POWCircuitBreakerListener listener = POWConfiguration.getInstance().getCircuitBreakerListener();
+        if (listener != null) {
+            mainHandler.post(() -> listener.onCircuitStateChanged(newState));
+        }
+    }
+}
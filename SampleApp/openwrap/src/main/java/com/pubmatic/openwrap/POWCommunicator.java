@@ -9,35 +9,59 @@
 package com.pubmatic.openwrap;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
-import com.android.volley.AuthFailureError;
-import com.android.volley.DefaultRetryPolicy;
-import com.android.volley.NoConnectionError;
-import com.android.volley.ParseError;
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.ServerError;
-import com.android.volley.TimeoutError;
-import com.android.volley.VolleyError;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
-
+import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 /**
  * Singleton class definition responsible to handle network communication.
- * Internally it uses volley library to make network calls.
+ * Internally it uses the {@link POWTransport} set over {@link POWConfiguration}, or volley
+ * library if none is set, to make network calls.
  */
 class POWCommunicator {
 
     private static final String TAG = "POWCommunicator";
-    private static POWCommunicator communicator;
+    private static final String CIRCUIT_OPEN = "OpenWrap server is failing";
+    private static volatile POWCommunicator communicator;
+    /**
+     * Default transport, created on first use
+     */
+    @Nullable
+    private volatile POWTransport defaultTransport;
+    @NonNull
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    /**
+     * Ongoing network calls mapped with the fingerprint of their requests, or with a key object
+     * of their own if they are not shared
+     */
+    @NonNull
+    private final Map<Object, Flight> flights = new HashMap<>();
+    /**
+     * Latencies of the completed calls per ad unit and outcome
+     */
+    @NonNull
+    private final POWCallLatencies callLatencies = new POWCallLatencies();
+    @NonNull
+    private final POWConnectionWarmer connectionWarmer = new POWConnectionWarmer(POWAdRequest.OW_URL);
     @NonNull
-    private RequestQueue requestQueue;
+    private final POWTimeoutController timeoutController;
+    @NonNull
+    private final POWRetryEngine retryEngine = new POWRetryEngine();
+    @NonNull
+    private final POWCircuitBreaker circuitBreaker = new POWCircuitBreaker(mainHandler);
 
     /**
      * Creates only instance of POWCommunicator for the entire application by using the application
@@ -48,115 +72,446 @@ class POWCommunicator {
      */
     @NonNull
     public static POWCommunicator getInstance(@NonNull Context context) {
-        if (communicator == null) {
+        POWCommunicator instance = communicator;
+        if (instance == null) {
             synchronized (POWCommunicator.class) {
-                if (communicator == null) {
-                    communicator = new POWCommunicator(context);
+                instance = communicator;
+                if (instance == null) {
+                    instance = new POWCommunicator(context);
+                    communicator = instance;
                 }
             }
         }
-        return communicator;
+        return instance;
     }
 
     /**
-     * Constructs POBCommunicator by setting up volley request queue.
+     * Constructs POBCommunicator.
      *
      * @param context instance of application context
      */
     private POWCommunicator(@NonNull Context context) {
-        requestQueue = Volley.newRequestQueue(context);
+        // Default transport does not need the context, it is used to get the network type
+        timeoutController = new POWTimeoutController(context);
     }
 
     /**
-     * Sends the {@link Request.Method#GET} network request using {@link POWAdRequest} and provides callbacks based on network result.
-     * Also sets tag for the request that can be further used cancel the specific request.
+     * Sends the GET network request using {@link POWAdRequest} and provides callbacks based on network result.
+     * Also sets tag for the request that can be further used cancel the specific request. The
+     * url is built and the response is parsed in background, as per parsing mode of the request,
+     * and callbacks are provided on main thread.
+     * <p>
+     * Concurrent requests having same {@link POWAdRequest#getFingerprint()} share one network
+     * call, sent with the network timeout of the first request, and all of their listeners are
+     * notified with its result.
      *
      * @param request              the instance of {@link POWAdRequest} which is required generate request data
      * @param communicatorListener reference of {@link CommunicatorListener}, to get network result callbacks
      */
     public void requestAd(@NonNull POWAdRequest request, @Nullable CommunicatorListener communicatorListener) {
-        String url = request.buildUrl();
-        Log.d(TAG, "url :" + url);
-
-        // Create request
-        JsonObjectRequest jsonRequest = new JsonObjectRequest(Request.Method.GET, url,
-                null,
-                response -> {
-                    Log.d(TAG, "response :" + response);
-                    if (communicatorListener != null) {
-                        communicatorListener.onSuccess(response);
-                    }
-                },
-                error -> {
-                    Log.d(TAG, "error :" + error);
-                    if (communicatorListener != null) {
-                        communicatorListener.onFailure(parseVolleyError(error), error.getMessage());
-                    }
-                });
-
-        // Sets network timeout through retry policy
-        jsonRequest.setRetryPolicy(new DefaultRetryPolicy(request.getNetworkTimeout(),
-                DefaultRetryPolicy.DEFAULT_MAX_RETRIES, DefaultRetryPolicy.DEFAULT_MAX_RETRIES));
-        // Set tag with respect to request
-        jsonRequest.setTag(request.hashCode());
+        requestAd(request, communicatorListener, null);
+    }
 
-        // Make network call
-        requestQueue.add(jsonRequest);
+    /**
+     * Sends the request as {@link POWCommunicator#requestAd(POWAdRequest, CommunicatorListener)}
+     * and records the timing of url build, network call and response parsing in given metrics
+     * before the listener is notified
+     *
+     * @param request              the instance of {@link POWAdRequest} which is required generate request data
+     * @param communicatorListener reference of {@link CommunicatorListener}, to get network result callbacks
+     * @param metrics              the metrics of ad loading, null if not measured
+     */
+    void requestAd(@NonNull POWAdRequest request, @Nullable CommunicatorListener communicatorListener,
+                   @Nullable POWLoadMetrics metrics) {
+        requestAd(request, communicatorListener, metrics, true);
     }
 
     /**
-     * Parse volley error and returns HTTP specific error codes
+     * Sends the request as {@link POWCommunicator#requestAd(POWAdRequest, CommunicatorListener, POWLoadMetrics)},
+     * optionally with a network call of its own, e.g. for the slots of a batch which need a bid
+     * each even if their requests are identical.
      *
-     * @param volleyError the instance of volley error
-     * @return the specific error code
-     */
-    private int parseVolleyError(@NonNull VolleyError volleyError) {
-        if (volleyError.networkResponse != null) {
-            return volleyError.networkResponse.statusCode;
-        } else {
-            POWError error;
-            if (volleyError instanceof ServerError) {
-                error = POWError.SERVER_ERROR;
-            } else if (volleyError instanceof AuthFailureError) {
-                error = POWError.AUTH_FAILURE_ERROR;
-            } else if (volleyError instanceof ParseError) {
-                error = POWError.PARSE_ERROR;
-            } else if (volleyError instanceof NoConnectionError) {
-                error = POWError.NO_CONNECTION_ERROR;
-            } else if (volleyError instanceof TimeoutError) {
-                error = POWError.TIMEOUT_ERROR;
+     * @param request              the instance of {@link POWAdRequest} which is required generate request data
+     * @param communicatorListener reference of {@link CommunicatorListener}, to get network result callbacks
+     * @param metrics              the metrics of ad loading, null if not measured
+     * @param shared               false to neither join the ongoing call of same fingerprint nor let
+     *                             the later requests join this call
+     */
+    void requestAd(@NonNull POWAdRequest request, @Nullable CommunicatorListener communicatorListener,
+                   @Nullable POWLoadMetrics metrics, boolean shared) {
+        String fingerprint = request.getFingerprint();
+        Waiter waiter = new Waiter(request, communicatorListener, metrics);
+        Flight flight;
+        synchronized (flights) {
+            Object key = fingerprint;
+            if (shared) {
+                flight = flights.get(fingerprint);
+                if (flight != null) {
+                    Log.d(TAG, "Joining the ongoing request for " + fingerprint);
+                    flight.waiters.add(waiter);
+                    return;
+                }
             } else {
-                error = POWError.NETWORK_ERROR;
+                // Key object never equals a fingerprint, so no other request can join this call
+                key = new Object();
             }
-            return error.errorCode;
+            int permission = circuitBreaker.allowRequest();
+            if (permission == POWCircuitBreaker.REJECT) {
+                Log.d(TAG, "Circuit is open, failing the request for " + fingerprint);
+                if (communicatorListener != null) {
+                    mainHandler.post(() -> {
+                        if (!waiter.cancelled) {
+                            communicatorListener.onFailure(POWError.CIRCUIT_OPEN_ERROR.getErrorCode(), CIRCUIT_OPEN);
+                        }
+                    });
+                }
+                return;
+            }
+            flight = new Flight(key, request);
+            flight.probe = permission == POWCircuitBreaker.ALLOW_PROBE;
+            flight.waiters.add(waiter);
+            flights.put(key, flight);
         }
+        retryEngine.onCall();
+        Flight newFlight = flight;
+        // Build the url on background executor, off the caller thread
+        POWExecutors.getBackgroundExecutor().execute(() -> {
+            if (newFlight.cancelled) {
+                return;
+            }
+            newFlight.buildStartNanos = System.nanoTime();
+            String url = request.buildUrl();
+            newFlight.buildEndNanos = System.nanoTime();
+            Log.d(TAG, "url :" + url);
+            newFlight.url = url;
+            newFlight.timeout = request.getNetworkTimeout();
+            if (POWConfiguration.getInstance().getAdaptiveTimeout() != null) {
+                newFlight.networkType = timeoutController.getNetworkType();
+                newFlight.timeout = timeoutController.getTimeout(newFlight.networkType, newFlight.timeout);
+            }
+            send(newFlight);
+        });
+    }
 
+    /**
+     * Sends the network call, or its retry, over the transport
+     */
+    private void send(@NonNull Flight flight) {
+        flight.sendNanos = System.nanoTime();
+        getTransport().get(flight.url, flight.timeout, flight, flight);
     }
 
     /**
-     * Cancel the ongoing network request attached to {@link POWAdRequest}
+     * Cancel the ongoing network request attached to {@link POWAdRequest}. The network call is
+     * cancelled only if no other request is waiting for it.
      *
      * @param request the instance of {@link POWAdRequest} to cancel the network request.
      */
     public void cancel(@NonNull POWAdRequest request) {
-        requestQueue.cancelAll(request.hashCode());
+        cancel(request, null);
+    }
+
+    /**
+     * Cancel the ongoing network request attached to {@link POWAdRequest} for given listener,
+     * other listeners of the same request are notified as usual.
+     *
+     * @param request  the instance of {@link POWAdRequest} to cancel the network request.
+     * @param listener the listener passed to {@link POWCommunicator#requestAd(POWAdRequest, CommunicatorListener)},
+     *                 null to cancel for all the listeners
+     */
+    void cancel(@NonNull POWAdRequest request, @Nullable CommunicatorListener listener) {
+        List<Flight> cancelledFlights = null;
+        synchronized (flights) {
+            Iterator<Flight> iterator = flights.values().iterator();
+            while (iterator.hasNext()) {
+                Flight flight = iterator.next();
+                Iterator<Waiter> waiters = flight.waiters.iterator();
+                while (waiters.hasNext()) {
+                    Waiter waiter = waiters.next();
+                    if (waiter.request == request && (listener == null || waiter.listener == listener)) {
+                        // Response may already be in the process of delivery, so it is dropped here
+                        waiter.cancelled = true;
+                        waiters.remove();
+                    }
+                }
+                if (flight.waiters.isEmpty()) {
+                    flight.cancelled = true;
+                    iterator.remove();
+                    if (cancelledFlights == null) {
+                        cancelledFlights = new ArrayList<>(1);
+                    }
+                    cancelledFlights.add(flight);
+                }
+            }
+        }
+        if (cancelledFlights != null) {
+            for (Flight flight : cancelledFlights) {
+                if (flight.probe) {
+                    circuitBreaker.onProbeCancelled();
+                }
+                cancelTransport(flight);
+            }
+        }
+    }
+
+    private void cancelTransport(@NonNull Flight flight) {
+        POWTransport transport = POWConfiguration.getInstance().getTransport();
+        if (transport != null) {
+            transport.cancel(flight);
+        }
+        // Request may have been sent before the transport is changed
+        POWTransport volleyTransport = defaultTransport;
+        if (volleyTransport != null) {
+            volleyTransport.cancel(flight);
+        }
     }
 
     /**
-     * Volley Error equivalent Enum class with error codes
+     * Removes the network call from ongoing ones
+     *
+     * @param flight the completed network call
+     * @return the requests waiting for the call, which are to be notified
      */
-    enum POWError {
-        AUTH_FAILURE_ERROR(401),
-        NETWORK_ERROR(410),
-        PARSE_ERROR(204),
-        SERVER_ERROR(500),
-        TIMEOUT_ERROR(408),
-        NO_CONNECTION_ERROR(502);
+    @NonNull
+    private List<Waiter> finish(@NonNull Flight flight) {
+        synchronized (flights) {
+            if (flights.get(flight.key) == flight) {
+                flights.remove(flight.key);
+            }
+            List<Waiter> waiters = new ArrayList<>(flight.waiters);
+            flight.waiters.clear();
+            return waiters;
+        }
+    }
 
-        private int errorCode;
+    /**
+     * Warms up the connection with OpenWrap server in background, once per application session
+     */
+    void warmUpConnection() {
+        connectionWarmer.warmUp();
+    }
 
-        POWError(int errorCode) {
-            this.errorCode = errorCode;
+    /**
+     * Returns the timing of connection warm-up
+     *
+     * @return the warm-up metrics, null if warm-up is not completed
+     */
+    @Nullable
+    POWWarmUpMetrics getWarmUpMetrics() {
+        return connectionWarmer.getMetrics();
+    }
+
+    /**
+     * Returns the latency summaries of the calls completed by the communicator, per ad unit and
+     * outcome
+     *
+     * @param reset true to clear the latencies once summarized
+     * @return the list of summaries, empty if no call is completed
+     */
+    @NonNull
+    static List<POWLatencySummary> getCallLatencySnapshot(boolean reset) {
+        POWCommunicator instance = communicator;
+        return instance != null ? instance.callLatencies.snapshot(reset) : new ArrayList<>();
+    }
+
+    /**
+     * Returns the transport set over {@link POWConfiguration}, or the default volley transport
+     *
+     * @return the transport to send the requests
+     */
+    @NonNull
+    private POWTransport getTransport() {
+        POWTransport transport = POWConfiguration.getInstance().getTransport();
+        if (transport != null) {
+            return transport;
+        }
+        POWTransport volleyTransport = defaultTransport;
+        if (volleyTransport == null) {
+            synchronized (this) {
+                volleyTransport = defaultTransport;
+                if (volleyTransport == null) {
+                    volleyTransport = new POWVolleyTransport();
+                    defaultTransport = volleyTransport;
+                }
+            }
+        }
+        return volleyTransport;
+    }
+
+    /**
+     * Request waiting for the network call along with its listener
+     */
+    private static class Waiter {
+        @NonNull
+        private final POWAdRequest request;
+        @Nullable
+        private final CommunicatorListener listener;
+        @Nullable
+        private final POWLoadMetrics metrics;
+        private final long startNanos = System.nanoTime();
+        private volatile boolean cancelled;
+
+        Waiter(@NonNull POWAdRequest request, @Nullable CommunicatorListener listener,
+               @Nullable POWLoadMetrics metrics) {
+            this.request = request;
+            this.listener = listener;
+            this.metrics = metrics;
+        }
+    }
+
+    /**
+     * Network call shared by the requests having same fingerprint, unless it is requested as not
+     * shared. It is used as transport tag
+     * and listener, which parses the response in background and notifies the waiting requests on
+     * main thread.
+     */
+    private class Flight implements POWTransport.TransportListener, POWNetworkTimingListener {
+
+        /**
+         * Key of the call in flights map
+         */
+        @NonNull
+        private final Object key;
+        private final boolean streamingParserEnabled;
+        @Nullable
+        private final Set<String> responseFields;
+        /**
+         * Requests waiting for the response, guarded by flights map
+         */
+        @NonNull
+        private final List<Waiter> waiters = new ArrayList<>(1);
+        private volatile boolean cancelled;
+        // Timing of the call, written on background threads before the result is posted to
+        // main thread, which publishes them to the waiters
+        private long buildStartNanos;
+        private long buildEndNanos;
+        private long queueMicros = POWLoadMetrics.NOT_MEASURED;
+        private long connectMicros = POWLoadMetrics.NOT_MEASURED;
+        private long ttfbMicros = POWLoadMetrics.NOT_MEASURED;
+        private long networkMicros = POWLoadMetrics.NOT_MEASURED;
+        private long parseStartNanos;
+        private long parseEndNanos;
+        // Url and timeout of the call, and the network type if adaptive timeout is enabled.
+        // Written before the call is sent and read on transport callbacks, one attempt at a time.
+        private String url;
+        private int timeout;
+        @Nullable
+        private POWTimeoutController.NetworkType networkType;
+        private long sendNanos;
+        private int retries;
+        /**
+         * Whether the call is the probe of half-open circuit
+         */
+        private boolean probe;
+        private boolean serverReached;
+
+        Flight(@NonNull Object key, @NonNull POWAdRequest request) {
+            this.key = key;
+            this.streamingParserEnabled = request.isStreamingParserEnabled();
+            this.responseFields = request.getResponseFields();
+        }
+
+        @Override
+        public void onSuccess(@NonNull String response) {
+            if (cancelled) {
+                return;
+            }
+            Log.d(TAG, "response :" + response);
+            POWAdResponse adResponse;
+            parseStartNanos = System.nanoTime();
+            if (networkType != null) {
+                timeoutController.record(networkType, (parseStartNanos - sendNanos) / 1000000);
+            }
+            serverReached = true;
+            circuitBreaker.onSuccess(probe);
+            try {
+                adResponse = streamingParserEnabled ? POWResponseParser.parse(response, responseFields)
+                        : new POWAdResponse(new JSONObject(response));
+            } catch (JSONException e) {
+                onFailure(POWError.PARSE_ERROR.getErrorCode(), e.getMessage());
+                return;
+            }
+            parseEndNanos = System.nanoTime();
+            mainHandler.post(() -> {
+                for (Waiter waiter : finish(this)) {
+                    if (!waiter.cancelled && waiter.listener != null) {
+                        recordTimings(waiter.metrics, parseEndNanos);
+                        recordLatency(waiter, POWLoadMetrics.OUTCOME_SUCCESS);
+                        waiter.listener.onSuccess(adResponse);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onFailure(int errorCode, @Nullable String errorMsg) {
+            Log.d(TAG, "error :" + errorCode + ", " + errorMsg);
+            long failureNanos = System.nanoTime();
+            // Timed out call counts as a response at the timeout, so that the timeout can grow
+            if (networkType != null && errorCode == POWError.TIMEOUT_ERROR.getErrorCode()) {
+                timeoutController.record(networkType, timeout);
+            }
+            if (cancelled) {
+                return;
+            }
+            long retryDelay = retryEngine.getRetryDelay(errorCode, retries);
+            if (retryDelay != POWRetryEngine.NO_RETRY) {
+                retries++;
+                Log.d(TAG, "Retry " + retries + " in " + retryDelay + " ms");
+                if (retryDelay == 0) {
+                    send(this);
+                } else {
+                    mainHandler.postDelayed(() -> {
+                        if (!cancelled) {
+                            send(this);
+                        }
+                    }, retryDelay);
+                }
+                return;
+            }
+            // Parse error of the response is reported after onSuccess, which already recorded it
+            if (!serverReached) {
+                if (POWCircuitBreaker.isFailure(errorCode)) {
+                    circuitBreaker.onFailure(probe);
+                } else {
+                    circuitBreaker.onSuccess(probe);
+                }
+            }
+            mainHandler.post(() -> {
+                for (Waiter waiter : finish(this)) {
+                    if (!waiter.cancelled && waiter.listener != null) {
+                        recordTimings(waiter.metrics, failureNanos);
+                        recordLatency(waiter, errorCode);
+                        waiter.listener.onFailure(errorCode, errorMsg);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onNetworkTimings(long queueMicros, long connectMicros, long ttfbMicros, long networkMicros) {
+            this.queueMicros = queueMicros;
+            this.connectMicros = connectMicros;
+            this.ttfbMicros = ttfbMicros;
+            this.networkMicros = networkMicros;
+        }
+
+        private void recordLatency(@NonNull Waiter waiter, int outcome) {
+            callLatencies.record(waiter.request.getAdUnitId(), outcome,
+                    (System.nanoTime() - waiter.startNanos) / 1000);
+        }
+
+        private void recordTimings(@Nullable POWLoadMetrics metrics, long deliveryStartNanos) {
+            if (metrics == null) {
+                return;
+            }
+            metrics.setDuration(POWLoadMetrics.Stage.URL_BUILD, buildStartNanos, buildEndNanos);
+            metrics.setDuration(POWLoadMetrics.Stage.QUEUE, queueMicros);
+            metrics.setDuration(POWLoadMetrics.Stage.CONNECT, connectMicros);
+            metrics.setDuration(POWLoadMetrics.Stage.TTFB, ttfbMicros);
+            metrics.setDuration(POWLoadMetrics.Stage.NETWORK, networkMicros);
+            metrics.setDuration(POWLoadMetrics.Stage.PARSE, parseStartNanos, parseEndNanos);
+            metrics.setDeliveryStartNanos(deliveryStartNanos);
         }
     }
 
@@ -165,11 +520,11 @@ class POWCommunicator {
      */
     interface CommunicatorListener {
         /**
-         * Notifies the network success with json data
+         * Notifies the network success with parsed OpenWrap response
          *
-         * @param response the json response
+         * @param response the OpenWrap response
          */
-        void onSuccess(@NonNull JSONObject response);
+        void onSuccess(@NonNull POWAdResponse response);
 
         /**
          * Notifies the network failure with error details
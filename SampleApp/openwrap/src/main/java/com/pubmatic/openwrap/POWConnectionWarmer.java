@@ -0,0 +1,111 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Warms up the connection with OpenWrap server on the background executor, i.e. resolves the
+ * host and opens the TLS connection using a HEAD request. The connection is left in the
+ * platform's keep-alive pool, shared by {@link HttpURLConnection} based transports, so that the
+ * first ad request does not pay for DNS, TCP and TLS setup.
+ */
+class POWConnectionWarmer {
+
+    private static final String TAG = "POWConnectionWarmer";
+    private static final int WARM_UP_TIMEOUT = 5000;
+
+    @NonNull
+    private final String url;
+
+    @NonNull
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    @Nullable
+    private volatile POWWarmUpMetrics metrics;
+
+    /**
+     * Constructs the warmer for given url
+     *
+     * @param url the url of the server to be connected
+     */
+    POWConnectionWarmer(@NonNull String url) {
+        this.url = url;
+    }
+
+    /**
+     * Starts the warm-up on background executor, it is no-op if warm-up is already started
+     */
+    void warmUp() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        // Runs once per session and is bounded by the warm-up timeout, so it keeps at most one
+        // background thread busy for that long
+        POWExecutors.getBackgroundExecutor().execute(this::connect);
+    }
+
+    /**
+     * Returns the warm-up timing
+     *
+     * @return the warm-up metrics, null if warm-up is not completed
+     */
+    @Nullable
+    POWWarmUpMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void connect() {
+        long startTime = SystemClock.elapsedRealtime();
+        long dnsLookupTime = 0;
+        boolean successful = false;
+        HttpURLConnection connection = null;
+        try {
+            URL serverUrl = new URL(url);
+            // Resolve the host, result is cached by the platform resolver
+            InetAddress.getAllByName(serverUrl.getHost());
+            dnsLookupTime = SystemClock.elapsedRealtime() - startTime;
+
+            connection = (HttpURLConnection) serverUrl.openConnection();
+            connection.setRequestMethod("HEAD");
+            connection.setConnectTimeout(WARM_UP_TIMEOUT);
+            connection.setReadTimeout(WARM_UP_TIMEOUT);
+            connection.setUseCaches(false);
+            int statusCode = connection.getResponseCode();
+            // Drain the response, without disconnecting, to return the connection to the pool
+            InputStream stream = statusCode < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (stream != null) {
+                while (stream.read() != -1) {
+                    // Discard the body, HEAD response does not have one
+                }
+                stream.close();
+            }
+            successful = true;
+        } catch (IOException | RuntimeException e) {
+            Log.d(TAG, "Unable to warm up the connection: " + e.getMessage());
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+        long connectionTime = SystemClock.elapsedRealtime() - startTime - dnsLookupTime;
+        metrics = new POWWarmUpMetrics(dnsLookupTime, connectionTime, successful);
+        Log.d(TAG, "Connection warm-up: " + metrics);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Provides the SDK wide executor for short background tasks, e.g. advertising info fetch, url
+ * building and hashing, so that ad loading does not create a new thread for each of them.
+ * Network calls are sent by {@link POWTransport}, which has its own threads.
+ */
+final class POWExecutors {
+
+    /**
+     * Maximum number of background threads
+     */
+    static final int POOL_SIZE = 2;
+    private static final String THREAD_NAME = "POWBackground";
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 30;
+
+    @NonNull
+    private static final ThreadPoolExecutor BACKGROUND_EXECUTOR;
+
+    static {
+        AtomicInteger threadCount = new AtomicInteger();
+        BACKGROUND_EXECUTOR = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE,
+                IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        BACKGROUND_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private POWExecutors() {
+    }
+
+    /**
+     * Returns the bounded executor shared by the SDK background tasks. Tasks must not block on
+     * network, as they delay the other queued tasks, except the one-time connection warm-up of
+     * {@link POWConnectionWarmer}, which is bounded by its timeout.
+     *
+     * @return the background executor
+     */
+    @NonNull
+    static Executor getBackgroundExecutor() {
+        return BACKGROUND_EXECUTOR;
+    }
+
+    /**
+     * Creates an executor which runs its tasks one at a time, in submission order, on the
+     * shared background executor, e.g. for the writes to a file
+     *
+     * @return the serial executor
+     */
+    @NonNull
+    static Executor newSerialExecutor() {
+        return new SerialExecutor();
+    }
+
+    /**
+     * Executor queueing its tasks and submitting the next one once the previous is completed
+     */
+    private static class SerialExecutor implements Executor {
+        @NonNull
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        @Nullable
+        private Runnable active;
+
+        @Override
+        public synchronized void execute(@NonNull Runnable task) {
+            tasks.offer(() -> {
+                try {
+                    task.run();
+                } finally {
+                    scheduleNext();
+                }
+            });
+            if (active == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            active = tasks.poll();
+            if (active != null) {
+                BACKGROUND_EXECUTOR.execute(active);
+            }
+        }
+    }
+}
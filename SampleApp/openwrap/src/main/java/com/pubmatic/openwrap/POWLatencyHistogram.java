@@ -0,0 +1,152 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Fixed memory, lock free histogram of latencies in microseconds. Buckets are log-linear, i.e.
+ * every power of two range is split into {@link POWLatencyHistogram#SUB_BUCKET_COUNT} equal
+ * buckets, so that percentiles are reported within about 6% of the recorded value, up to
+ * {@link POWLatencyHistogram#MAX_TRACKABLE_VALUE}. Recording does not allocate.
+ */
+public class POWLatencyHistogram {
+
+    /**
+     * Highest latency in microseconds tracked with bucket precision, about 67 seconds. Higher
+     * latencies are counted in the last bucket, while max is tracked exactly.
+     */
+    public static final long MAX_TRACKABLE_VALUE = (1L << 26) - 1;
+
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_VALUE) + 1;
+
+    @NonNull
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    @NonNull
+    private final AtomicLong totalCount = new AtomicLong();
+    @NonNull
+    private final AtomicLong sum = new AtomicLong();
+    @NonNull
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the latency
+     *
+     * @param latencyMicros the latency in microseconds, negative values are ignored
+     */
+    public void record(long latencyMicros) {
+        if (latencyMicros < 0) {
+            return;
+        }
+        counts.incrementAndGet(bucketIndex(Math.min(latencyMicros, MAX_TRACKABLE_VALUE)));
+        totalCount.incrementAndGet();
+        sum.addAndGet(latencyMicros);
+        long currentMax = max.get();
+        while (latencyMicros > currentMax && !max.compareAndSet(currentMax, latencyMicros)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of recorded latencies
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Returns the highest recorded latency
+     *
+     * @return the max latency in microseconds, 0 if nothing is recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of recorded latencies
+     *
+     * @return the mean latency in microseconds, 0 if nothing is recorded
+     */
+    public long getMean() {
+        long count = totalCount.get();
+        return count > 0 ? sum.get() / count : 0;
+    }
+
+    /**
+     * Returns the latency at given percentile, i.e. the upper bound of the bucket holding it
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the latency in microseconds, 0 if nothing is recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts.get(i);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        double boundedPercentile = Math.min(Math.max(percentile, 0), 100);
+        long targetCount = Math.max(1, (long) Math.ceil(boundedPercentile / 100 * count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += counts.get(i);
+            if (cumulativeCount >= targetCount) {
+                // Latency can not exceed the recorded max
+                return Math.min(highestValueInBucket(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Clears all the recorded latencies
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Returns the index of the bucket holding given value. Values below
+     * {@link POWLatencyHistogram#SUB_BUCKET_COUNT} have one bucket each, every higher power of two
+     * range has {@link POWLatencyHistogram#SUB_BUCKET_COUNT} buckets.
+     */
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lowestValue = (1L << exponent) + ((long) subBucket << shift);
+        return lowestValue + (1L << shift) - 1;
+    }
+}
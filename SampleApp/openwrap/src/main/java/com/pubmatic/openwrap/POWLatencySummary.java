@@ -0,0 +1,116 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Compact summary of OpenWrap call latencies of one ad unit and outcome, over the interval of
+ * {@link POWMetrics#getCallLatencySnapshot(boolean)}. Latencies are in microseconds, from the
+ * call request till its listener is notified.
+ */
+public class POWLatencySummary {
+
+    /**
+     * Outcome of the calls failed with an error code not defined by OpenWrap SDK
+     */
+    public static final int OUTCOME_OTHER_ERROR = -1;
+
+    @NonNull
+    private final String adUnitId;
+    private final int outcome;
+    private final long count;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long max;
+
+    POWLatencySummary(@NonNull String adUnitId, int outcome, @NonNull POWLatencyHistogram histogram) {
+        this.adUnitId = adUnitId;
+        this.outcome = outcome;
+        this.count = histogram.getCount();
+        this.p50 = histogram.getValueAtPercentile(50);
+        this.p90 = histogram.getValueAtPercentile(90);
+        this.p99 = histogram.getValueAtPercentile(99);
+        this.max = histogram.getMax();
+    }
+
+    /**
+     * Returns the ad unit id of the calls
+     *
+     * @return the ad unit id, "other" for the ad units beyond the number of ad units tracked
+     * separately
+     */
+    @NonNull
+    public String getAdUnitId() {
+        return adUnitId;
+    }
+
+    /**
+     * Returns the outcome of the calls
+     *
+     * @return {@link POWLoadMetrics#OUTCOME_SUCCESS}, the error code of the calls, or
+     * {@link POWLatencySummary#OUTCOME_OTHER_ERROR}
+     */
+    public int getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Returns the number of calls
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the median latency
+     *
+     * @return the 50th percentile in microseconds
+     */
+    public long getP50() {
+        return p50;
+    }
+
+    /**
+     * Returns the 90th percentile latency
+     *
+     * @return the 90th percentile in microseconds
+     */
+    public long getP90() {
+        return p90;
+    }
+
+    /**
+     * Returns the 99th percentile latency
+     *
+     * @return the 99th percentile in microseconds
+     */
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * Returns the highest latency
+     *
+     * @return the max in microseconds
+     */
+    public long getMax() {
+        return max;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "POWLatencySummary{adUnitId=" + adUnitId + ", outcome=" + outcome + ", count=" + count
+                + ", p50=" + p50 + "us, p90=" + p90 + "us, p99=" + p99 + "us, max=" + max + "us}";
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import android.util.Log;
+
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Singleton class aggregating the timing of all the ad loadings into one
+ * {@link POWLatencyHistogram} per stage of {@link POWLoadMetrics.Stage}. Aggregation is lock
+ * free and does not allocate, so it is always enabled.
+ */
+public class POWMetrics {
+
+    private static final String TAG = "POWMetrics";
+    private static volatile POWMetrics instance;
+
+    @NonNull
+    private final POWLatencyHistogram[] stageHistograms;
+
+    private POWMetrics() {
+        POWLoadMetrics.Stage[] stages = POWLoadMetrics.STAGES;
+        stageHistograms = new POWLatencyHistogram[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            stageHistograms[i] = new POWLatencyHistogram();
+        }
+    }
+
+    /**
+     * Returns the shared instance of metrics
+     *
+     * @return the instance of {@link POWMetrics}
+     */
+    @NonNull
+    public static POWMetrics getInstance() {
+        POWMetrics metrics = instance;
+        if (metrics == null) {
+            synchronized (POWMetrics.class) {
+                metrics = instance;
+                if (metrics == null) {
+                    metrics = new POWMetrics();
+                    instance = metrics;
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the histogram of given stage durations, across all the completed ad loadings
+     * since the last reset
+     *
+     * @param stage the stage of ad loading pipeline
+     * @return the histogram of the stage
+     */
+    @NonNull
+    public POWLatencyHistogram getHistogram(@NonNull POWLoadMetrics.Stage stage) {
+        return stageHistograms[stage.ordinal()];
+    }
+
+    /**
+     * Clears the histograms of all the stages
+     */
+    public void reset() {
+        for (POWLatencyHistogram histogram : stageHistograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Returns the compact latency summaries of OpenWrap calls, one per ad unit and outcome,
+     * e.g. to upload them periodically instead of the timing of every ad loading. Latencies are
+     * measured from the call request till its listener is notified, including the calls of
+     * {@link POWBatchAdLoader}.
+     *
+     * @param reset true to clear the latencies once summarized, so that next snapshot covers the
+     *              calls completed afterwards
+     * @return the list of {@link POWLatencySummary}, empty if no call is completed
+     */
+    @NonNull
+    public List<POWLatencySummary> getCallLatencySnapshot(boolean reset) {
+        return POWCommunicator.getCallLatencySnapshot(reset);
+    }
+
+    /**
+     * Records the timing of completed ad loading and notifies the metrics listener, if set
+     *
+     * @param metrics the timing of the ad loading
+     */
+    void record(@NonNull POWLoadMetrics metrics) {
+        for (POWLoadMetrics.Stage stage : POWLoadMetrics.STAGES) {
+            long duration = metrics.getDuration(stage);
+            if (duration != POWLoadMetrics.NOT_MEASURED) {
+                stageHistograms[stage.ordinal()].record(duration);
+            }
+        }
+        POWMetricsListener listener = POWConfiguration.getInstance().getMetricsListener();
+        if (listener != null) {
+            try {
+                listener.onAdLoadMetrics(metrics);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Metrics listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
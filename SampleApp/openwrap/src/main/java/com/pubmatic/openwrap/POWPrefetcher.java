@@ -0,0 +1,207 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Singleton class definition responsible to run OpenWrap auctions ahead of time and keep their
+ * responses in the ready pool of {@link POWBidCache}. It limits the number of auctions in flight
+ * and queues the rest.
+ */
+class POWPrefetcher {
+
+    /**
+     * Maximum number of prefetch auctions running at the same time
+     */
+    static final int MAX_IN_FLIGHT_REQUESTS = 2;
+
+    private static final String TAG = "POWPrefetcher";
+    private static volatile POWPrefetcher prefetcher;
+
+    @NonNull
+    private final POWAdvertisingIdClient adClient;
+
+    @NonNull
+    private final POWCommunicator communicator;
+
+    /**
+     * Prefetch requests waiting for a free slot
+     */
+    @NonNull
+    private final ArrayDeque<POWAdRequest> pendingRequests = new ArrayDeque<>();
+
+    /**
+     * Loaders waiting for in flight prefetch auctions, by request fingerprint
+     */
+    @NonNull
+    private final Map<String, List<POWCommunicator.CommunicatorListener>> inFlightRequests = new HashMap<>();
+
+    /**
+     * Creates only instance of POWPrefetcher for the entire application by using the application
+     * context
+     *
+     * @param context the application context
+     * @return instance of {@link POWPrefetcher}
+     */
+    @NonNull
+    static POWPrefetcher getInstance(@NonNull Context context) {
+        POWPrefetcher instance = prefetcher;
+        if (instance == null) {
+            synchronized (POWPrefetcher.class) {
+                instance = prefetcher;
+                if (instance == null) {
+                    instance = new POWPrefetcher(context.getApplicationContext());
+                    prefetcher = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    private POWPrefetcher(@NonNull Context context) {
+        adClient = new POWAdvertisingIdClient(context);
+        communicator = POWCommunicator.getInstance(context);
+    }
+
+    /**
+     * Queues the given request for prefetching. It is ignored if the response for the same
+     * fingerprint is already in the pool, in flight or queued.
+     *
+     * @param request the instance of {@link POWAdRequest}
+     */
+    synchronized void prefetch(@NonNull POWAdRequest request) {
+        String fingerprint = request.getFingerprint();
+        if (POWBidCache.getInstance().contains(fingerprint) || inFlightRequests.containsKey(fingerprint)) {
+            return;
+        }
+        for (POWAdRequest pendingRequest : pendingRequests) {
+            if (pendingRequest.getFingerprint().equals(fingerprint)) {
+                return;
+            }
+        }
+        // No point in fetching more responses than the pool can hold
+        if (pendingRequests.size() >= POWConfiguration.getInstance().getBidCacheSize()) {
+            Log.w(TAG, "Prefetch queue is full, ignoring request for " + request.getFingerprint());
+            return;
+        }
+        pendingRequests.add(request);
+        startPendingRequests();
+    }
+
+    /**
+     * Registers the listener to be notified with the result of in flight prefetch auction for
+     * given fingerprint.
+     *
+     * @param fingerprint the ad request fingerprint
+     * @param listener    the listener to be notified
+     * @return true if the auction is in flight and listener is registered, false otherwise
+     */
+    synchronized boolean await(@NonNull String fingerprint, @NonNull POWCommunicator.CommunicatorListener listener) {
+        List<POWCommunicator.CommunicatorListener> listeners = inFlightRequests.get(fingerprint);
+        if (listeners == null) {
+            return false;
+        }
+        listeners.add(listener);
+        return true;
+    }
+
+    /**
+     * Removes the listener registered through {@link POWPrefetcher#await(String, POWCommunicator.CommunicatorListener)}
+     *
+     * @param listener the registered listener
+     */
+    synchronized void removeListener(@NonNull POWCommunicator.CommunicatorListener listener) {
+        for (List<POWCommunicator.CommunicatorListener> listeners : inFlightRequests.values()) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Starts the queued requests as long as in flight limit permits
+     */
+    private void startPendingRequests() {
+        while (inFlightRequests.size() < MAX_IN_FLIGHT_REQUESTS && !pendingRequests.isEmpty()) {
+            POWAdRequest request = pendingRequests.poll();
+            inFlightRequests.put(request.getFingerprint(), new ArrayList<>());
+            Log.d(TAG, "Prefetching response for " + request.getFingerprint());
+            adClient.getAdvertisingInfo(new POWIdProvider.Listener() {
+                @Override
+                public void onAdvertisingInfoFetched(@NonNull POWAdvertisingInfo adInfo) {
+                    request.setAdvertisingInfo(adInfo);
+                    communicator.requestAd(request, new PrefetchListener(request.getFingerprint()));
+                }
+
+                @Override
+                public void onAdvertisingInfoFailed() {
+                    communicator.requestAd(request, new PrefetchListener(request.getFingerprint()));
+                }
+            });
+        }
+    }
+
+    /**
+     * Marks the prefetch auction as complete and starts the next queued one
+     *
+     * @param fingerprint the ad request fingerprint
+     * @return the listeners waiting for the auction result
+     */
+    @NonNull
+    private synchronized List<POWCommunicator.CommunicatorListener> complete(@NonNull String fingerprint) {
+        List<POWCommunicator.CommunicatorListener> listeners = inFlightRequests.remove(fingerprint);
+        startPendingRequests();
+        return listeners != null ? listeners : new ArrayList<>();
+    }
+
+    /**
+     * Communicator listener for prefetch auction, it adds the response to the pool unless a
+     * waiting loader consumes it.
+     */
+    private class PrefetchListener implements POWCommunicator.CommunicatorListener {
+
+        @NonNull
+        private final String fingerprint;
+
+        PrefetchListener(@NonNull String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public void onSuccess(@NonNull POWAdResponse adResponse) {
+            List<POWCommunicator.CommunicatorListener> listeners = complete(fingerprint);
+            if (!listeners.isEmpty()) {
+                for (POWCommunicator.CommunicatorListener listener : listeners) {
+                    listener.onSuccess(adResponse);
+                }
+                return;
+            }
+            if (adResponse.hasTargeting()) {
+                POWBidCache.getInstance().putPrefetched(fingerprint, adResponse);
+            }
+        }
+
+        @Override
+        public void onFailure(int errorCode, @Nullable String errorMsg) {
+            Log.d(TAG, "Prefetch failed for " + fingerprint + ", errorcode: " + errorCode);
+            for (POWCommunicator.CommunicatorListener listener : complete(fingerprint)) {
+                listener.onFailure(errorCode, errorMsg);
+            }
+        }
+    }
+}
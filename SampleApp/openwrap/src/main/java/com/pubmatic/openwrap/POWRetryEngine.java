@@ -0,0 +1,84 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Decides the retries of failed OpenWrap calls as per {@link POWRetryPolicy} set on
+ * {@link POWConfiguration}, and keeps the retry budget shared by all the calls.
+ */
+class POWRetryEngine {
+
+    /**
+     * Returned by {@link POWRetryEngine#getRetryDelay(int, int)} if the call is not retried
+     */
+    static final long NO_RETRY = -1;
+
+    @NonNull
+    private final Random random = new Random();
+
+    /**
+     * Retries available in the budget, starts full
+     */
+    private float budget = POWRetryPolicy.MAX_BUDGET;
+
+    /**
+     * Earns the retry budget for a call, to be called once per call excluding retries
+     */
+    void onCall() {
+        float budgetRatio = POWConfiguration.getInstance().getRetryPolicy().getBudgetRatio();
+        synchronized (this) {
+            budget = Math.min(POWRetryPolicy.MAX_BUDGET, budget + budgetRatio);
+        }
+    }
+
+    /**
+     * Returns the delay before the retry of a failed call, and spends the retry budget if it
+     * is to be retried
+     *
+     * @param errorCode the error code of the failed attempt
+     * @param retries   the number of retries already made for the call
+     * @return the delay in milliseconds, {@link POWRetryEngine#NO_RETRY} if the call is not
+     * retried
+     */
+    long getRetryDelay(int errorCode, int retries) {
+        POWRetryPolicy retryPolicy = POWConfiguration.getInstance().getRetryPolicy();
+        if (retries >= retryPolicy.getMaxRetries() || !isRetryable(errorCode) || !spendBudget()) {
+            return NO_RETRY;
+        }
+        if (errorCode == POWError.CONNECTION_RESET_ERROR.getErrorCode()) {
+            return 0;
+        }
+        // Full jitter, so that the calls failed together do not retry together
+        long backoff = Math.min(retryPolicy.getMaxBackoff(),
+                (long) retryPolicy.getInitialBackoff() << Math.min(retries, 30));
+        synchronized (random) {
+            return (long) (random.nextDouble() * (backoff + 1));
+        }
+    }
+
+    /**
+     * Returns whether the error is transient, i.e. the call may succeed if retried
+     */
+    static boolean isRetryable(int errorCode) {
+        return errorCode == POWError.CONNECTION_RESET_ERROR.getErrorCode()
+                || (errorCode >= 500 && errorCode < 600);
+    }
+
+    private synchronized boolean spendBudget() {
+        if (budget < 1) {
+            return false;
+        }
+        budget--;
+        return true;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.util.Log;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Tracks the recent OpenWrap response times per network type and derives the network timeout
+ * of OpenWrap calls from them, as per {@link POWAdaptiveTimeout} set on
+ * {@link POWConfiguration}.
+ */
+class POWTimeoutController {
+
+    /**
+     * Type of the network OpenWrap calls are sent on
+     */
+    enum NetworkType {
+        WIFI,
+        CELLULAR,
+        ETHERNET,
+        UNKNOWN
+    }
+
+    /**
+     * Number of recent response times kept per network type
+     */
+    static final int WINDOW_SIZE = 64;
+
+    /**
+     * Number of response times needed on network type before the timeout is adapted
+     */
+    static final int MIN_SAMPLES = 10;
+
+    private static final String TAG = "POWTimeoutController";
+
+    @Nullable
+    private final Context context;
+
+    /**
+     * Ring buffers of recent response times in milliseconds, one per network type
+     */
+    @NonNull
+    private final long[][] samples = new long[NetworkType.values().length][WINDOW_SIZE];
+
+    /**
+     * Total number of response times recorded per network type
+     */
+    @NonNull
+    private final long[] sampleCounts = new long[NetworkType.values().length];
+
+    POWTimeoutController(@Nullable Context context) {
+        this.context = context != null ? context.getApplicationContext() : null;
+    }
+
+    /**
+     * Returns the network timeout of the OpenWrap call
+     *
+     * @param networkType    the type of current network
+     * @param requestTimeout the network timeout of the ad request, which is the upper limit
+     * @return the timeout in milliseconds
+     */
+    int getTimeout(@NonNull NetworkType networkType, int requestTimeout) {
+        POWAdaptiveTimeout adaptiveTimeout = POWConfiguration.getInstance().getAdaptiveTimeout();
+        if (adaptiveTimeout == null) {
+            return requestTimeout;
+        }
+        long[] window;
+        synchronized (samples) {
+            int count = (int) Math.min(sampleCounts[networkType.ordinal()], WINDOW_SIZE);
+            if (count < MIN_SAMPLES) {
+                return Math.min(requestTimeout, adaptiveTimeout.getMaxTimeout());
+            }
+            window = Arrays.copyOf(samples[networkType.ordinal()], count);
+        }
+        Arrays.sort(window);
+        int index = (int) Math.ceil(adaptiveTimeout.getPercentile() / 100 * window.length) - 1;
+        long timeout = (long) (window[Math.max(0, index)] * adaptiveTimeout.getHeadroom());
+        timeout = Math.max(adaptiveTimeout.getMinTimeout(), Math.min(timeout, adaptiveTimeout.getMaxTimeout()));
+        return (int) Math.min(requestTimeout, timeout);
+    }
+
+    /**
+     * Records the response time of an OpenWrap call
+     *
+     * @param networkType  the type of the network the call is sent on
+     * @param responseTime the response time in milliseconds, or the timeout of a timed out call
+     */
+    void record(@NonNull NetworkType networkType, long responseTime) {
+        synchronized (samples) {
+            long count = sampleCounts[networkType.ordinal()]++;
+            samples[networkType.ordinal()][(int) (count % WINDOW_SIZE)] = responseTime;
+        }
+    }
+
+    /**
+     * Returns the type of active network
+     *
+     * @return the network type, {@link NetworkType#UNKNOWN} if it can not be determined
+     */
+    @NonNull
+    NetworkType getNetworkType() {
+        if (context == null) {
+            return NetworkType.UNKNOWN;
+        }
+        try {
+            ConnectivityManager connectivityManager =
+                    (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            NetworkInfo networkInfo = connectivityManager != null ? connectivityManager.getActiveNetworkInfo() : null;
+            if (networkInfo == null) {
+                return NetworkType.UNKNOWN;
+            }
+            switch (networkInfo.getType()) {
+                case ConnectivityManager.TYPE_WIFI:
+                    return NetworkType.WIFI;
+                case ConnectivityManager.TYPE_MOBILE:
+                    return NetworkType.CELLULAR;
+                case ConnectivityManager.TYPE_ETHERNET:
+                    return NetworkType.ETHERNET;
+                default:
+                    return NetworkType.UNKNOWN;
+            }
+        } catch (SecurityException e) {
+            Log.w(TAG, "Network type is not available: " + e.getMessage());
+            return NetworkType.UNKNOWN;
+        }
+    }
+}
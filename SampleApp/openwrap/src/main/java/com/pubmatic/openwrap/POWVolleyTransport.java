@@ -0,0 +1,155 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import android.util.Log;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.ExecutorDelivery;
+import com.android.volley.NetworkResponse;
+import com.android.volley.NoConnectionError;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.android.volley.toolbox.HurlStack;
+import com.android.volley.toolbox.NoCache;
+
+import java.io.UnsupportedEncodingException;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Default {@link POWTransport} which sends the requests over Volley request queue. Responses are
+ * delivered on Volley network threads, rather than main thread, so that they are parsed in
+ * background.
+ */
+class POWVolleyTransport implements POWTransport {
+
+    private static final String TAG = "POWVolleyTransport";
+    private static final String DEFAULT_CHARSET = "utf-8";
+    private static final int NETWORK_THREAD_POOL_SIZE = 4;
+    @NonNull
+    private final RequestQueue requestQueue;
+
+    /**
+     * Constructs the transport by setting up volley request queue. OpenWrap responses are not
+     * cacheable, so the queue does not use disk cache.
+     */
+    POWVolleyTransport() {
+        requestQueue = new RequestQueue(new NoCache(), new BasicNetwork(new HurlStack()),
+                NETWORK_THREAD_POOL_SIZE, new ExecutorDelivery(Runnable::run));
+        requestQueue.start();
+    }
+
+    @Override
+    public void get(@NonNull String url, int timeout, @NonNull Object tag, @NonNull TransportListener listener) {
+        // Create request
+        BodyRequest bodyRequest = new BodyRequest(url, listener, listener::onSuccess,
+                error -> {
+                    Log.d(TAG, "error :" + error);
+                    listener.onFailure(parseVolleyError(error), error.getMessage());
+                });
+
+        // Sets network timeout through retry policy, retries are made by POWCommunicator as per
+        // POWRetryPolicy
+        bodyRequest.setRetryPolicy(new DefaultRetryPolicy(timeout, 0,
+                DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
+        // Set tag with respect to request
+        bodyRequest.setTag(tag);
+
+        // Make network call
+        requestQueue.add(bodyRequest);
+    }
+
+    @Override
+    public void cancel(@NonNull Object tag) {
+        requestQueue.cancelAll(tag);
+    }
+
+    /**
+     * Parse volley error and returns HTTP specific error codes
+     *
+     * @param volleyError the instance of volley error
+     * @return the specific error code
+     */
+    private int parseVolleyError(@NonNull VolleyError volleyError) {
+        if (volleyError.networkResponse != null) {
+            return volleyError.networkResponse.statusCode;
+        } else {
+            POWError error;
+            if (volleyError instanceof ServerError) {
+                error = POWError.SERVER_ERROR;
+            } else if (volleyError instanceof AuthFailureError) {
+                error = POWError.AUTH_FAILURE_ERROR;
+            } else if (volleyError instanceof ParseError) {
+                error = POWError.PARSE_ERROR;
+            } else if (POWUtil.isConnectionReset(volleyError.getCause())) {
+                error = POWError.CONNECTION_RESET_ERROR;
+            } else if (volleyError instanceof NoConnectionError) {
+                error = POWError.NO_CONNECTION_ERROR;
+            } else if (volleyError instanceof TimeoutError) {
+                error = POWError.TIMEOUT_ERROR;
+            } else {
+                error = POWError.NETWORK_ERROR;
+            }
+            return error.getErrorCode();
+        }
+    }
+
+    /**
+     * GET request providing the response body as string
+     */
+    private static class BodyRequest extends Request<String> {
+
+        @NonNull
+        private final TransportListener transportListener;
+        @NonNull
+        private final Response.Listener<String> listener;
+        private final long enqueueNanos = System.nanoTime();
+
+        BodyRequest(@NonNull String url, @NonNull TransportListener transportListener,
+                    @NonNull Response.Listener<String> listener,
+                    @NonNull Response.ErrorListener errorListener) {
+            super(Method.GET, url, errorListener);
+            this.transportListener = transportListener;
+            this.listener = listener;
+        }
+
+        @Override
+        protected Response<String> parseNetworkResponse(NetworkResponse response) {
+            // Volley measures the network call including retries, the rest is the queue wait.
+            // Connect and TTFB are not exposed.
+            if (transportListener instanceof POWNetworkTimingListener) {
+                long networkMicros = response.networkTimeMs * 1000;
+                long elapsedMicros = (System.nanoTime() - enqueueNanos) / 1000;
+                ((POWNetworkTimingListener) transportListener).onNetworkTimings(
+                        Math.max(0, elapsedMicros - networkMicros), POWLoadMetrics.NOT_MEASURED,
+                        POWLoadMetrics.NOT_MEASURED, networkMicros);
+            }
+            try {
+                String body = new String(response.data, HttpHeaderParser.parseCharset(response.headers, DEFAULT_CHARSET));
+                return Response.success(body, HttpHeaderParser.parseCacheHeaders(response));
+            } catch (UnsupportedEncodingException e) {
+                return Response.error(new ParseError(e));
+            }
+        }
+
+        @Override
+        protected void deliverResponse(String response) {
+            listener.onResponse(response);
+        }
+    }
+}
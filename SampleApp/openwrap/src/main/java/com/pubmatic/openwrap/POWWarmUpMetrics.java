@@ -0,0 +1,84 @@
+/*
+ * Copyright 2006-2020, PubMatic Inc.
+ *
+ * Licensed under the PubMatic License Agreement. All rights reserved.
+ *
+ * https://github.com/PubMatic/android-openwrap-ima-sample/blob/master/LICENSE
+ */
+
+package com.pubmatic.openwrap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Model class represents the timing of connection warm-up with OpenWrap server, see
+ * {@link POWConfiguration#setConnectionWarmUpEnabled(boolean)}
+ */
+public class POWWarmUpMetrics {
+
+    /**
+     * Time taken to resolve OpenWrap host in milliseconds
+     */
+    private final long dnsLookupTime;
+
+    /**
+     * Time taken to open the connection, i.e. TCP and TLS handshake along with the warm-up
+     * request, in milliseconds
+     */
+    private final long connectionTime;
+
+    /**
+     * Flag to indicate whether the connection is opened
+     */
+    private final boolean successful;
+
+    POWWarmUpMetrics(long dnsLookupTime, long connectionTime, boolean successful) {
+        this.dnsLookupTime = dnsLookupTime;
+        this.connectionTime = connectionTime;
+        this.successful = successful;
+    }
+
+    /**
+     * Returns the time taken to resolve OpenWrap host
+     *
+     * @return DNS lookup time in milliseconds
+     */
+    public long getDnsLookupTime() {
+        return dnsLookupTime;
+    }
+
+    /**
+     * Returns the time taken to open the connection, i.e. TCP and TLS handshake along with the
+     * warm-up request
+     *
+     * @return connection time in milliseconds
+     */
+    public long getConnectionTime() {
+        return connectionTime;
+    }
+
+    /**
+     * Returns the total time taken by the warm-up
+     *
+     * @return warm-up time in milliseconds
+     */
+    public long getTotalTime() {
+        return dnsLookupTime + connectionTime;
+    }
+
+    /**
+     * Returns whether the connection is opened and kept for the ad requests
+     *
+     * @return true if warm-up is successful
+     */
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "POWWarmUpMetrics{dnsLookupTime=" + dnsLookupTime + ", connectionTime=" + connectionTime
+                + ", successful=" + successful + "}";
+    }
+}
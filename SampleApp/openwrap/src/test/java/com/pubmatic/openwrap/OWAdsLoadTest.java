@@ -3,6 +3,8 @@ package com.pubmatic.openwrap;
 import android.content.Context;
 import android.os.Build;
 
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -99,11 +101,98 @@ public class OWAdsLoadTest {
         Assert.assertNotNull(adsLoader);
     }
 
+    @Test
+    public void testLoadAdFromPrefetchedPool() throws JSONException {
+        Context appContext = ApplicationProvider.getApplicationContext();
+        POWAdsLoader adsLoader = new POWAdsLoader(appContext);
+        adsLoader.setAdsLoaderListener(adsLoaderListenerImp);
+        POWAdRequest request = new POWAdRequest(PUB_ID, PROFILE_ID, AD_UNIT_ID,
+                new POWAdRequest.POWAdSize(320, 640));
+        POWAdResponse prefetchedResponse = new POWAdResponse(new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE));
+        POWBidCache.getInstance().putPrefetched(request.getFingerprint(), prefetchedResponse);
+        // Response should be delivered on main thread without network call
+        adsLoader.loadAd(request);
+        Assert.assertNull(adsLoaderListenerImp.adResponse);
+        Robolectric.flushForegroundThreadScheduler();
+        Assert.assertEquals(prefetchedResponse, adsLoaderListenerImp.adResponse);
+    }
+
+    @Test
+    public void testCachedLoadCancelledBeforeDelivery() throws JSONException {
+        Context appContext = ApplicationProvider.getApplicationContext();
+        POWAdsLoader adsLoader = new POWAdsLoader(appContext);
+        POWAdRequest request = new POWAdRequest(PUB_ID, PROFILE_ID, AD_UNIT_ID,
+                new POWAdRequest.POWAdSize(320, 640));
+        POWBidCache.getInstance().putPrefetched(request.getFingerprint(),
+                new POWAdResponse(new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE)));
+        POWAdLoad adLoad = adsLoader.loadAd(request, adsLoaderListenerImp);
+        Assert.assertFalse(adLoad.isCompleted());
+        adLoad.cancel();
+        Robolectric.flushForegroundThreadScheduler();
+        Assert.assertNull(adsLoaderListenerImp.adResponse);
+        Assert.assertFalse(adsLoaderListenerImp.isFailed);
+    }
+
+    @Test
+    public void testLoadAdWithDeadline() throws InterruptedException {
+        // Transport which does not respond till the test does, like a stalled network
+        POWCommunicatorTest.RecordingTransport transport = new POWCommunicatorTest.RecordingTransport();
+        POWConfiguration.getInstance().setTransport(transport);
+        try {
+            Context appContext = ApplicationProvider.getApplicationContext();
+            POWAdsLoader adsLoader = new POWAdsLoader(appContext);
+            adsLoader.setAdsLoaderListener(adsLoaderListenerImp);
+            adsLoader.setDeadline(100);
+            Assert.assertEquals(100, adsLoader.getDeadline());
+            POWAdRequest request = new POWAdRequest(PUB_ID, PROFILE_ID, AD_UNIT_ID,
+                    new POWAdRequest.POWAdSize(320, 640));
+            adsLoader.loadAd(request);
+            Assert.assertNotNull(transport.awaitListener());
+            Robolectric.flushForegroundThreadScheduler();
+            Assert.assertTrue(adsLoaderListenerImp.isFailed);
+            Assert.assertEquals(408, adsLoaderListenerImp.errorCode);
+            Assert.assertEquals(1, transport.cancelCount.get());
+
+            // Response received after the deadline is ignored
+            transport.listener.onSuccess(POWAdResponseTest.TEST_TARGETING_RESPONSE);
+            Robolectric.flushForegroundThreadScheduler();
+            Assert.assertNull(adsLoaderListenerImp.adResponse);
+        } finally {
+            POWConfiguration.getInstance().setTransport(null);
+        }
+    }
+
+    @Test
+    public void testParallelLoadsWithHandles() throws JSONException {
+        Context appContext = ApplicationProvider.getApplicationContext();
+        POWAdsLoader adsLoader = new POWAdsLoader(appContext);
+        POWAdRequest firstRequest = new POWAdRequest(PUB_ID, PROFILE_ID, AD_UNIT_ID,
+                new POWAdRequest.POWAdSize(320, 640));
+        POWAdRequest secondRequest = new POWAdRequest(PUB_ID, PROFILE_ID, AD_UNIT_ID,
+                new POWAdRequest.POWAdSize(640, 480));
+        POWAdResponse firstResponse = new POWAdResponse(new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE));
+        POWBidCache.getInstance().putPrefetched(firstRequest.getFingerprint(), firstResponse);
+
+        // Cancelled loading does not notify its listener, nor affects the other loading
+        AdsLoaderListenerImp secondListener = new AdsLoaderListenerImp();
+        POWAdLoad secondLoad = adsLoader.loadAd(secondRequest, secondListener);
+        Assert.assertSame(secondRequest, secondLoad.getRequest());
+        secondLoad.cancel();
+        Assert.assertTrue(secondLoad.isCompleted());
+
+        POWAdLoad firstLoad = adsLoader.loadAd(firstRequest, adsLoaderListenerImp);
+        Robolectric.flushForegroundThreadScheduler();
+        Assert.assertTrue(firstLoad.isCompleted());
+        Assert.assertEquals(firstResponse, adsLoaderListenerImp.adResponse);
+        Assert.assertNull(secondListener.adResponse);
+        Assert.assertFalse(secondListener.isFailed);
+    }
 
     static class AdsLoaderListenerImp implements POWAdLoading.AdsLoaderListener {
 
         POWAdResponse adResponse;
         boolean isFailed;
+        int errorCode;
 
         @Override
         public void onAdReceived(@NonNull POWAdResponse response) {
@@ -113,6 +202,7 @@ public class OWAdsLoadTest {
         @Override
         public void onAdFailed(int errorCode, @Nullable String errorMsg) {
             isFailed = true;
+            this.errorCode = errorCode;
         }
     }
 }
@@ -2,18 +2,24 @@ package com.pubmatic.openwrap;
 
 import android.content.Context;
 
+import com.google.android.gms.ads.identifier.AdvertisingIdClient;
 import com.pubmatic.openwrap.models.POWApplicationInfo;
 import com.pubmatic.openwrap.models.POWLocation;
 import com.pubmatic.openwrap.models.POWUserInfo;
 
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import androidx.test.core.app.ApplicationProvider;
@@ -38,6 +44,11 @@ public class POWAdRequestTest {
     private static final String REQUEST_MIME_KEY = "pwtmime";
     private static final String AD_SERVER_KEY = "adserver";
 
+    @After
+    public void tearDown() {
+        POWConfiguration.getInstance().setCustomKeyValues(new HashMap<String, String>());
+    }
+
     @Test
     public void testRequestWithNecessaryParams() throws JSONException {
         POWAdRequest adRequest = new POWAdRequest(PUB_ID, PROFILE_ID, AD_UNIT_ID, AD_SIZE);
@@ -125,7 +136,7 @@ public class POWAdRequestTest {
 
         // Set Application details
         Context context = ApplicationProvider.getApplicationContext();
-        POWApplicationInfo applicationInfo = new POWApplicationInfo(context);
+        POWApplicationInfo applicationInfo = POWAndroidPlatform.createApplicationInfo(context);
         applicationInfo.setCategories("IAB-1, IAB-2");
         applicationInfo.setDomain("Sports");
         applicationInfo.setPaid(true);
@@ -178,4 +189,47 @@ public class POWAdRequestTest {
         Assert.assertEquals("63.87", queryParams.getString("pwtlon"));
         Assert.assertEquals(POWConfiguration.Linearity.LINEAR.getValue(), queryParams.getInt("pwtvlin"));
     }
+
+    @Test
+    public void testCustomParamsOrder() {
+        POWConfiguration.getInstance().setEnableGDPR(true);
+        Map<String, String> customParams = new LinkedHashMap<>();
+        customParams.put("hobbies", "sports");
+        customParams.put(AD_UNIT_ID_KEY, "/15671365/custom_video");
+        customParams.put("pwtgdpr", "0");
+        customParams.put("age", "22");
+        POWConfiguration.getInstance().setCustomKeyValues(customParams);
+
+        POWAdRequest adRequest = new POWAdRequest(PUB_ID, PROFILE_ID, AD_UNIT_ID, AD_SIZE);
+        String url = adRequest.buildUrl();
+        List<String> keys = new ArrayList<>();
+        for (String param : url.substring(url.indexOf('?') + 1).split("&")) {
+            keys.add(param.substring(0, param.indexOf('=')));
+        }
+
+        // Overridden params keep their position, rest of the custom params are added at the end
+        Assert.assertTrue(keys.indexOf("pwtgdpr") < keys.indexOf(PUB_ID_KEY));
+        Assert.assertEquals(Arrays.asList(PUB_ID_KEY, PROFILE_ID_KEY, AD_UNIT_ID_KEY, AD_SIZE_KEY),
+                keys.subList(keys.indexOf(PUB_ID_KEY), keys.indexOf(PUB_ID_KEY) + 4));
+        Assert.assertEquals(Arrays.asList("hobbies", "age"), keys.subList(keys.size() - 2, keys.size()));
+        Assert.assertEquals(keys.indexOf("pwtgdpr"), keys.lastIndexOf("pwtgdpr"));
+        Assert.assertEquals(keys.indexOf(AD_UNIT_ID_KEY), keys.lastIndexOf(AD_UNIT_ID_KEY));
+        Assert.assertTrue(url.contains("&pwtgdpr=0&"));
+        Assert.assertTrue(url.contains("&pwtm_iu=%2F15671365%2Fcustom_video&"));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedAdvertisingInfoAdapter() {
+        POWAdRequest adRequest = new POWAdRequest(PUB_ID, PROFILE_ID, AD_UNIT_ID, AD_SIZE);
+        POWAndroidPlatform.setAdvertisingInfo(adRequest,
+                new AdvertisingIdClient.Info("38400000-8cf0-11bd-b23e-10b96e40000d", true));
+        POWAdvertisingInfo adInfo = adRequest.getAdvertisingInfo();
+        Assert.assertNotNull(adInfo);
+        Assert.assertEquals("38400000-8cf0-11bd-b23e-10b96e40000d", adInfo.getId());
+        Assert.assertTrue(adInfo.isLimitAdTrackingEnabled());
+
+        POWAndroidPlatform.setAdvertisingInfo(adRequest, null);
+        Assert.assertNull(adRequest.getAdvertisingInfo());
+    }
 }
@@ -0,0 +1,188 @@
+package com.pubmatic.openwrap;
+
+import android.content.Context;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.test.core.app.ApplicationProvider;
+
+/**
+ * Starts many ad loadings in parallel from several threads, against a local mock OpenWrap server
+ * which echoes the ad unit id in targeting, and verifies that every callback reaches the
+ * listener of its own loading exactly once, and never the listener of a cancelled loading.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class POWAdsLoaderStressTest {
+
+    private static final int THREADS = 8;
+    private static final int LOADS_PER_THREAD = 50;
+    private static final int CANCEL_EVERY = 5;
+    private static final long TIMEOUT_MILLIS = 30000;
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String url;
+
+    /**
+     * Value of the mock server nodelay property before the test, restored after it
+     */
+    @Nullable
+    private String nodelay;
+
+    @Before
+    public void setUp() throws IOException {
+        nodelay = System.setProperty(NODELAY_PROPERTY, "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/openrtb/2.5/video", exchange -> {
+            String adUnitId = "";
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query != null && query.startsWith("pwtm_iu=")) {
+                adUnitId = URLDecoder.decode(query.substring("pwtm_iu=".length()), "UTF-8");
+            }
+            byte[] body = ("{\"targeting\":{\"pwtau\":\"" + adUnitId + "\",\"pwtecp\":\"3.00\"}}").getBytes("UTF-8");
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(THREADS);
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/openrtb/2.5/video";
+        POWConfiguration.getInstance().setTransport(new POWHttpTransport.Builder().setPoolSize(THREADS).build());
+    }
+
+    @After
+    public void tearDown() {
+        POWConfiguration.getInstance().setTransport(null);
+        POWBidCache.getInstance().clear();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        if (nodelay != null) {
+            System.setProperty(NODELAY_PROPERTY, nodelay);
+        } else {
+            System.clearProperty(NODELAY_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testParallelLoads() throws InterruptedException {
+        Context context = ApplicationProvider.getApplicationContext();
+        POWAdsLoader adsLoader = new POWAdsLoader(context);
+        List<LoadListener> listeners = new ArrayList<>();
+        CountDownLatch started = new CountDownLatch(THREADS);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int threadIndex = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < LOADS_PER_THREAD; i++) {
+                    // Pairs of threads share ad units, so that some of the calls are coalesced
+                    String adUnitId = "/15671365/stress_" + (threadIndex / 2) + "_" + i;
+                    boolean cancelled = i % CANCEL_EVERY == 0;
+                    LoadListener listener = new LoadListener(adUnitId, cancelled);
+                    synchronized (listeners) {
+                        listeners.add(listener);
+                    }
+                    POWAdLoad adLoad = adsLoader.loadAd(createRequest(adUnitId), listener);
+                    if (cancelled) {
+                        adLoad.cancel();
+                    }
+                }
+                started.countDown();
+            });
+            threads[t].start();
+        }
+        Assert.assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!isCompleted(listeners) && System.currentTimeMillis() < deadline) {
+            Robolectric.flushForegroundThreadScheduler();
+            LockSupport.parkNanos(1_000_000);
+        }
+        Robolectric.flushForegroundThreadScheduler();
+
+        Assert.assertEquals(THREADS * LOADS_PER_THREAD, listeners.size());
+        for (LoadListener listener : listeners) {
+            if (listener.cancelled) {
+                Assert.assertEquals(listener.adUnitId, 0, listener.callbackCount.get());
+            } else {
+                Assert.assertEquals(listener.adUnitId, 1, listener.callbackCount.get());
+                Assert.assertEquals(listener.adUnitId, listener.receivedAdUnitId);
+            }
+        }
+    }
+
+    @NonNull
+    private POWAdRequest createRequest(@NonNull String adUnitId) {
+        return new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID, adUnitId,
+                POWAdRequestTest.AD_SIZE) {
+            @Override
+            public String buildUrl() {
+                try {
+                    return url + "?pwtm_iu=" + URLEncoder.encode(adUnitId, "UTF-8");
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    private static boolean isCompleted(@NonNull List<LoadListener> listeners) {
+        for (LoadListener listener : listeners) {
+            if (!listener.cancelled && listener.callbackCount.get() == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static class LoadListener implements POWAdLoading.AdsLoaderListener {
+        final String adUnitId;
+        final boolean cancelled;
+        final AtomicInteger callbackCount = new AtomicInteger();
+        volatile String receivedAdUnitId;
+
+        LoadListener(@NonNull String adUnitId, boolean cancelled) {
+            this.adUnitId = adUnitId;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public void onAdReceived(@NonNull POWAdResponse response) {
+            receivedAdUnitId = response.getTargetingValues().get("pwtau");
+            callbackCount.incrementAndGet();
+        }
+
+        @Override
+        public void onAdFailed(int errorCode, @Nullable String errorMsg) {
+            callbackCount.incrementAndGet();
+        }
+    }
+}
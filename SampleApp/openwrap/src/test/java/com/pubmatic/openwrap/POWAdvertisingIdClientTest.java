@@ -1,8 +1,8 @@
 package com.pubmatic.openwrap;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 
-import com.google.android.gms.ads.identifier.AdvertisingIdClient;
 import com.pubmatic.openwrap.models.POWApplicationInfo;
 
 import org.json.JSONException;
@@ -31,11 +31,81 @@ public class POWAdvertisingIdClientTest {
         Assert.assertEquals(true, listener.isFailed);
     }
 
-    static class POWAdvertisingIdListener implements POWAdvertisingIdClient.AdvertisingIdListener {
-        AdvertisingIdClient.Info adInfo;
-        boolean isFailed;
+    @Test
+    public void testConcurrentFetchesCoalesced() throws InterruptedException {
+        Context context = ApplicationProvider.getApplicationContext();
+        POWAdvertisingIdListener[] listeners = new POWAdvertisingIdListener[5];
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = new POWAdvertisingIdListener();
+            new POWAdvertisingIdClient(context).getAdvertisingInfo(listeners[i]);
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!listeners[listeners.length - 1].isCompleted() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // All the listeners are notified with the result of same fetch
+        for (POWAdvertisingIdListener listener : listeners) {
+            Assert.assertTrue(listener.isCompleted());
+            Assert.assertEquals(listeners[0].isFailed, listener.isFailed);
+        }
+
+        // Within minimum refresh interval, result is provided without waiting for another fetch
+        POWAdvertisingIdListener listener = new POWAdvertisingIdListener();
+        new POWAdvertisingIdClient(context).getAdvertisingInfo(listener);
+        Assert.assertTrue(listener.isCompleted());
+    }
+
+    @Test
+    public void testSavedSnapshotOnColdStart() throws InterruptedException {
+        Context context = ApplicationProvider.getApplicationContext();
+        SharedPreferences preferences = context.getSharedPreferences(
+                POWAdvertisingIdClient.SNAPSHOT_PREFS_NAME, Context.MODE_PRIVATE);
+        String advertisingId = "38400000-8cf0-11bd-b23e-10b96e40000d";
+        preferences.edit()
+                .putString(POWAdvertisingIdClient.SNAPSHOT_ID_KEY, advertisingId)
+                .putBoolean(POWAdvertisingIdClient.SNAPSHOT_LMT_KEY, true)
+                .commit();
+        POWAdvertisingIdClient.clearSessionState();
+        try {
+            // Saved info is loaded in background and provided without waiting for G-Play service
+            POWAdvertisingIdListener listener = new POWAdvertisingIdListener();
+            new POWAdvertisingIdClient(context).getAdvertisingInfo(listener);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!listener.isCompleted() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertFalse(listener.isFailed);
+            Assert.assertNotNull(listener.adInfo);
+            Assert.assertEquals(advertisingId, listener.adInfo.getId());
+            Assert.assertTrue(listener.adInfo.isLimitAdTrackingEnabled());
+        } finally {
+            preferences.edit().clear().commit();
+            POWAdvertisingIdClient.clearSessionState();
+        }
+    }
+
+    @Test
+    public void testHashedAdvertisingId() {
+        String advertisingId = "38400000-8cf0-11bd-b23e-10b96e40000d";
+        String md5 = POWAdvertisingInfo.getHashedId(advertisingId, POWConfiguration.HashType.MD5);
+        Assert.assertEquals(POWUtil.md5(advertisingId), md5);
+        Assert.assertSame(md5, POWAdvertisingInfo.getHashedId(advertisingId, POWConfiguration.HashType.MD5));
+        Assert.assertEquals(POWUtil.sha1(advertisingId),
+                POWAdvertisingInfo.getHashedId(advertisingId, POWConfiguration.HashType.SHA1));
+        Assert.assertEquals(advertisingId,
+                POWAdvertisingInfo.getHashedId(advertisingId, POWConfiguration.HashType.RAW));
+
+        // Hash is computed again once the advertising ID is reset
+        String resetId = "6d092e6a-1f40-4a2b-9a4f-3a0c2c0e8c51";
+        Assert.assertEquals(POWUtil.md5(resetId),
+                POWAdvertisingInfo.getHashedId(resetId, POWConfiguration.HashType.MD5));
+    }
+
+    static class POWAdvertisingIdListener implements POWIdProvider.Listener {
+        volatile POWAdvertisingInfo adInfo;
+        volatile boolean isFailed;
         @Override
-        public void onAdvertisingInfoFetched(@NonNull AdvertisingIdClient.Info info) {
+        public void onAdvertisingInfoFetched(@NonNull POWAdvertisingInfo info) {
             adInfo = info;
         }
 
@@ -43,5 +113,9 @@ public class POWAdvertisingIdClientTest {
         public void onAdvertisingInfoFailed() {
             isFailed = true;
         }
+
+        boolean isCompleted() {
+            return isFailed || adInfo != null;
+        }
     }
 }
@@ -0,0 +1,114 @@
+package com.pubmatic.openwrap;
+
+import android.content.Context;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import androidx.test.core.app.ApplicationProvider;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWBatchAdRequestTest {
+
+    private static final POWAdRequest.POWAdSize MID_ROLL_SIZE = new POWAdRequest.POWAdSize(640, 480);
+
+    @Test
+    public void testSlotRequests() {
+        POWBatchAdRequest batchRequest = new POWBatchAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID);
+        batchRequest.setNetworkTimeout(1000);
+        batchRequest.addSlot(0, POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE)
+                .addSlot(1, POWAdRequestTest.AD_UNIT_ID, MID_ROLL_SIZE);
+        Assert.assertEquals(2, batchRequest.getSlots().size());
+
+        POWBatchAdRequest.Slot midRoll = batchRequest.getSlots().get(1);
+        Assert.assertEquals(1, midRoll.getPodPosition());
+        POWAdRequest adRequest = batchRequest.createAdRequest(midRoll);
+        Assert.assertEquals(1000, adRequest.getNetworkTimeout());
+        Assert.assertEquals(new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                POWAdRequestTest.AD_UNIT_ID, MID_ROLL_SIZE).getFingerprint(), adRequest.getFingerprint());
+    }
+
+    @Test
+    public void testLoadAdsFromPrefetchedPool() throws JSONException {
+        // Loader is created first, as it sets the default app info which is part of fingerprint
+        Context context = ApplicationProvider.getApplicationContext();
+        POWAdsLoader adsLoader = new POWAdsLoader(context);
+        POWBatchAdRequest batchRequest = new POWBatchAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID);
+        batchRequest.addSlot(0, POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE)
+                .addSlot(1, POWAdRequestTest.AD_UNIT_ID, MID_ROLL_SIZE);
+        POWAdResponse preRollResponse = new POWAdResponse(new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE));
+        POWAdResponse midRollResponse = new POWAdResponse(new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE));
+        for (POWBatchAdRequest.Slot slot : batchRequest.getSlots()) {
+            POWBidCache.getInstance().putPrefetched(batchRequest.createAdRequest(slot).getFingerprint(),
+                    slot.getPodPosition() == 0 ? preRollResponse : midRollResponse);
+        }
+
+        final POWBatchAdResponse[] batchResponse = new POWBatchAdResponse[1];
+        adsLoader.loadAds(batchRequest, response -> batchResponse[0] = response);
+
+        // Listener is notified on main thread, after loadAds() returns
+        Assert.assertNull(batchResponse[0]);
+        Robolectric.flushForegroundThreadScheduler();
+        Assert.assertNotNull(batchResponse[0]);
+        Assert.assertEquals(preRollResponse, batchResponse[0].getAdResponse(0));
+        Assert.assertEquals(midRollResponse, batchResponse[0].getAdResponse(1));
+        Assert.assertEquals(POWBatchAdResponse.NO_ERROR, batchResponse[0].getErrorCode(1));
+        Assert.assertNull(batchResponse[0].getAdResponse(2));
+    }
+
+    @Test
+    public void testCachedResponseServesOneSlot() throws JSONException {
+        Context context = ApplicationProvider.getApplicationContext();
+        POWAdsLoader adsLoader = new POWAdsLoader(context);
+        POWBatchAdRequest batchRequest = new POWBatchAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID);
+        batchRequest.addSlot(0, POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE)
+                .addSlot(1, POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+        String fingerprint = batchRequest.createAdRequest(batchRequest.getSlots().get(0)).getFingerprint();
+        POWAdResponse cachedResponse = new POWAdResponse(new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE));
+        POWBidCache.getInstance().putPrefetched(fingerprint, cachedResponse);
+
+        final POWBatchAdResponse[] batchResponse = new POWBatchAdResponse[1];
+        adsLoader.loadAds(batchRequest, response -> batchResponse[0] = response);
+
+        // Second slot runs its own auction instead of sharing the cached bid
+        Assert.assertNull(batchResponse[0]);
+        Assert.assertFalse(POWBidCache.getInstance().contains(fingerprint));
+        adsLoader.invalidate();
+        Robolectric.flushForegroundThreadScheduler();
+        Assert.assertNull(batchResponse[0]);
+    }
+
+    @Test
+    public void testIdenticalSlotsRequestedInParallel() throws InterruptedException {
+        POWCommunicatorTest.RecordingTransport transport = new POWCommunicatorTest.RecordingTransport();
+        POWConfiguration.getInstance().setTransport(transport);
+        try {
+            Context context = ApplicationProvider.getApplicationContext();
+            POWAdsLoader adsLoader = new POWAdsLoader(context);
+            POWBatchAdRequest batchRequest = new POWBatchAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID);
+            batchRequest.addSlot(0, POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE)
+                    .addSlot(1, POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+
+            final POWBatchAdResponse[] batchResponse = new POWBatchAdResponse[1];
+            adsLoader.loadAds(batchRequest, response -> batchResponse[0] = response);
+
+            // Both the slots are sent at once, each over its own call
+            Assert.assertTrue(transport.awaitRequests(2));
+            // Plain loading of same request neither joins a slot call nor is joined by the slots
+            adsLoader.loadAd(batchRequest.createAdRequest(batchRequest.getSlots().get(0)),
+                    new OWAdsLoadTest.AdsLoaderListenerImp());
+            Assert.assertTrue(transport.awaitRequests(3));
+
+            adsLoader.invalidate();
+            Assert.assertEquals(3, transport.cancelCount.get());
+            Assert.assertNull(batchResponse[0]);
+        } finally {
+            POWConfiguration.getInstance().setTransport(null);
+        }
+    }
+}
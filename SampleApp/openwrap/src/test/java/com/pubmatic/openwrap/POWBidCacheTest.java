@@ -0,0 +1,114 @@
+package com.pubmatic.openwrap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWBidCacheTest {
+
+    private POWBidCache bidCache;
+    private POWAdResponse adResponse;
+
+    @Before
+    public void setUp() throws JSONException {
+        bidCache = POWBidCache.getInstance();
+        bidCache.clear();
+        bidCache.resetStats();
+        adResponse = new POWAdResponse(new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE));
+        POWConfiguration.getInstance().setBidCacheTTL(60000);
+        POWConfiguration.getInstance().setBidCacheSize(POWConfiguration.DEFAULT_BID_CACHE_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        POWConfiguration.getInstance().setBidCacheTTL(0);
+        bidCache.clear();
+    }
+
+    @Test
+    public void testCacheHitAndMiss() {
+        POWAdRequest adRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+        Assert.assertNull(bidCache.get(adRequest.getFingerprint()));
+        bidCache.put(adRequest.getFingerprint(), adResponse);
+
+        POWAdRequest sameRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+        Assert.assertEquals(adResponse, bidCache.get(sameRequest.getFingerprint()));
+
+        POWAdRequest otherRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                POWAdRequestTest.AD_UNIT_ID, new POWAdRequest.POWAdSize(640, 480));
+        Assert.assertNull(bidCache.get(otherRequest.getFingerprint()));
+
+        Assert.assertEquals(1, bidCache.getHitCount());
+        Assert.assertEquals(2, bidCache.getMissCount());
+    }
+
+    @Test
+    public void testConsentChangeMisses() {
+        POWConfiguration configuration = POWConfiguration.getInstance();
+        configuration.setGdprConsent("consent-before");
+        POWAdRequest adRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+        bidCache.put(adRequest.getFingerprint(), adResponse);
+        Assert.assertEquals(adResponse, bidCache.get(adRequest.getFingerprint()));
+
+        // Response of the auction run under previous consent is not served
+        configuration.setGdprConsent("consent-after");
+        Assert.assertNull(bidCache.get(adRequest.getFingerprint()));
+        configuration.setCCPAString("1YYN");
+        Assert.assertNull(bidCache.get(adRequest.getFingerprint()));
+
+        // Same consent forms same fingerprint, e.g. in next application session
+        String fingerprint = adRequest.getFingerprint();
+        configuration.setCCPAString("1YYN");
+        Assert.assertEquals(fingerprint, adRequest.getFingerprint());
+    }
+
+    @Test
+    public void testCacheExpiry() throws InterruptedException {
+        POWConfiguration.getInstance().setBidCacheTTL(50);
+        bidCache.put("fingerprint", adResponse);
+        Thread.sleep(100);
+        Assert.assertNull(bidCache.get("fingerprint"));
+        Assert.assertEquals(1, bidCache.getExpiredCount());
+        Assert.assertEquals(0, bidCache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        POWConfiguration.getInstance().setBidCacheSize(2);
+        bidCache.put("first", adResponse);
+        bidCache.put("second", adResponse);
+        // Access first so that second becomes least recently used
+        bidCache.get("first");
+        bidCache.put("third", adResponse);
+        Assert.assertEquals(2, bidCache.size());
+        Assert.assertNotNull(bidCache.get("first"));
+        Assert.assertNull(bidCache.get("second"));
+        Assert.assertNotNull(bidCache.get("third"));
+    }
+
+    @Test
+    public void testCacheDisabled() {
+        POWConfiguration.getInstance().setBidCacheTTL(0);
+        bidCache.put("fingerprint", adResponse);
+        Assert.assertEquals(0, bidCache.size());
+    }
+
+    @Test
+    public void testPrefetchedResponseIsServedOnce() {
+        POWConfiguration.getInstance().setBidCacheTTL(0);
+        bidCache.putPrefetched("fingerprint", adResponse);
+        Assert.assertTrue(bidCache.contains("fingerprint"));
+        Assert.assertEquals(adResponse, bidCache.get("fingerprint"));
+        Assert.assertFalse(bidCache.contains("fingerprint"));
+        Assert.assertNull(bidCache.get("fingerprint"));
+    }
+}
@@ -0,0 +1,183 @@
+package com.pubmatic.openwrap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWBidStoreTest {
+
+    private static final int STORE_SIZE = 2048;
+
+    private File file;
+    private POWBidCache bidCache;
+    private POWAdResponse adResponse;
+
+    @Before
+    public void setUp() throws IOException, JSONException {
+        file = File.createTempFile("bids", null);
+        Assert.assertTrue(file.delete());
+        bidCache = POWBidCache.getInstance();
+        bidCache.setStore(null);
+        bidCache.clear();
+        adResponse = new POWAdResponse(new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE));
+        POWConfiguration.getInstance().setBidCacheTTL(60000);
+        POWConfiguration.getInstance().setBidCacheSize(POWConfiguration.DEFAULT_BID_CACHE_SIZE);
+        POWConfiguration.getInstance().setBidStoreSize(STORE_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        bidCache.setStore(null);
+        bidCache.clear();
+        POWConfiguration.getInstance().setBidCacheTTL(0);
+        POWConfiguration.getInstance().setBidStoreSize(0);
+        file.delete();
+    }
+
+    @Test
+    public void testRestoreAfterProcessDeath() throws InterruptedException, JSONException {
+        POWBidStore store = restoreStore();
+        bidCache.put("fingerprint", adResponse);
+        await(store);
+        Assert.assertTrue(file.length() > 0);
+
+        simulateProcessDeath();
+        Assert.assertFalse(bidCache.contains("fingerprint"));
+        await(restoreStore());
+
+        POWAdResponse restored = bidCache.get("fingerprint");
+        Assert.assertNotNull(restored);
+        Assert.assertNotNull(restored.getTargeting());
+        Assert.assertEquals(adResponse.getTargeting().toString(), restored.getTargeting().toString());
+    }
+
+    @Test
+    public void testExpiredResponseNotRestored() throws InterruptedException {
+        POWConfiguration.getInstance().setBidCacheTTL(50);
+        POWBidStore store = restoreStore();
+        bidCache.put("fingerprint", adResponse);
+        await(store);
+        Thread.sleep(100);
+
+        simulateProcessDeath();
+        await(restoreStore());
+        Assert.assertFalse(bidCache.contains("fingerprint"));
+    }
+
+    @Test
+    public void testConsumedResponseNotRestored() throws InterruptedException {
+        POWBidStore store = restoreStore();
+        bidCache.putPrefetched("prefetched", adResponse);
+        bidCache.putPrefetched("consumed", adResponse);
+        Assert.assertNotNull(bidCache.get("consumed"));
+        await(store);
+
+        simulateProcessDeath();
+        await(restoreStore());
+        Assert.assertTrue(bidCache.contains("prefetched"));
+        Assert.assertFalse(bidCache.contains("consumed"));
+        // Restored prefetched response is still served only once
+        Assert.assertNotNull(bidCache.get("prefetched"));
+        Assert.assertFalse(bidCache.contains("prefetched"));
+    }
+
+    @Test
+    public void testSizeCap() throws InterruptedException {
+        POWConfiguration.getInstance().setBidCacheSize(100);
+        POWBidStore store = restoreStore();
+        for (int i = 0; i < 50; i++) {
+            bidCache.put("fingerprint" + i, adResponse);
+            bidCache.remove("fingerprint" + (i - 1));
+            bidCache.put("fingerprint" + (i - 1), adResponse);
+        }
+        await(store);
+        Assert.assertTrue(file.length() <= STORE_SIZE);
+
+        simulateProcessDeath();
+        await(restoreStore());
+        Assert.assertTrue(bidCache.contains("fingerprint49"));
+        Assert.assertTrue(bidCache.contains("fingerprint48"));
+        Assert.assertFalse(bidCache.contains("fingerprint0"));
+    }
+
+    @Test
+    public void testOversizedResponseSkipped() throws InterruptedException {
+        POWConfiguration.getInstance().setBidStoreSize(64);
+        POWBidStore store = restoreStore();
+        bidCache.put("fingerprint", adResponse);
+        await(store);
+        Assert.assertFalse(file.exists());
+        Assert.assertTrue(bidCache.contains("fingerprint"));
+    }
+
+    @Test
+    public void testTornRecordDiscarded() throws InterruptedException, IOException {
+        POWBidStore store = restoreStore();
+        bidCache.put("complete", adResponse);
+        bidCache.put("torn", adResponse);
+        await(store);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(randomAccessFile.length() - 10);
+        }
+
+        simulateProcessDeath();
+        await(restoreStore());
+        Assert.assertTrue(bidCache.contains("complete"));
+        Assert.assertFalse(bidCache.contains("torn"));
+    }
+
+    @Test
+    public void testUnknownFormatDiscarded() throws InterruptedException, IOException {
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write("not a bid store".getBytes("UTF-8"));
+        }
+        await(restoreStore());
+        Assert.assertEquals(0, bidCache.size());
+        Assert.assertFalse(file.exists());
+    }
+
+    @Test
+    public void testClear() throws InterruptedException {
+        POWBidStore store = restoreStore();
+        bidCache.put("fingerprint", adResponse);
+        await(store);
+        Assert.assertTrue(file.exists());
+
+        bidCache.clear();
+        await(store);
+        Assert.assertFalse(file.exists());
+    }
+
+    private POWBidStore restoreStore() {
+        POWBidStore store = new POWBidStore(file);
+        store.restore();
+        return store;
+    }
+
+    /**
+     * Drops the in-memory state, as the process death does
+     */
+    private void simulateProcessDeath() {
+        bidCache.setStore(null);
+        bidCache.clear();
+    }
+
+    private static void await(POWBidStore store) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        store.execute(latch::countDown);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+}
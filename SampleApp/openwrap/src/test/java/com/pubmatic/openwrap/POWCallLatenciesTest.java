@@ -0,0 +1,77 @@
+package com.pubmatic.openwrap;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWCallLatenciesTest {
+
+    private static final String AD_UNIT_ID = "/15671365/pm_ott_video";
+    private POWCallLatencies callLatencies;
+
+    @Before
+    public void setUp() {
+        callLatencies = new POWCallLatencies();
+    }
+
+    @Test
+    public void testSnapshotPerAdUnitAndOutcome() {
+        for (long latency = 1; latency <= 1000; latency++) {
+            callLatencies.record(AD_UNIT_ID, POWLoadMetrics.OUTCOME_SUCCESS, latency);
+        }
+        callLatencies.record(AD_UNIT_ID, POWError.TIMEOUT_ERROR.getErrorCode(), 5000);
+        callLatencies.record("/15671365/other_unit", POWError.NO_CONNECTION_ERROR.getErrorCode(), 20);
+        callLatencies.record(AD_UNIT_ID, 999, 30);
+
+        List<POWLatencySummary> summaries = callLatencies.snapshot(false);
+        Assert.assertEquals(4, summaries.size());
+        POWLatencySummary success = find(summaries, AD_UNIT_ID, POWLoadMetrics.OUTCOME_SUCCESS);
+        Assert.assertNotNull(success);
+        Assert.assertEquals(1000, success.getCount());
+        Assert.assertEquals(500, success.getP50(), 500 / POWLatencyHistogram.SUB_BUCKET_COUNT);
+        Assert.assertEquals(900, success.getP90(), 900 / POWLatencyHistogram.SUB_BUCKET_COUNT);
+        Assert.assertEquals(990, success.getP99(), 990 / POWLatencyHistogram.SUB_BUCKET_COUNT);
+        Assert.assertEquals(1000, success.getMax());
+        POWLatencySummary timeout = find(summaries, AD_UNIT_ID, POWError.TIMEOUT_ERROR.getErrorCode());
+        Assert.assertNotNull(timeout);
+        Assert.assertEquals(5000, timeout.getMax());
+        Assert.assertNotNull(find(summaries, "/15671365/other_unit",
+                POWError.NO_CONNECTION_ERROR.getErrorCode()));
+        Assert.assertNotNull(find(summaries, AD_UNIT_ID, POWLatencySummary.OUTCOME_OTHER_ERROR));
+
+        // Snapshot without reset keeps the latencies, reset clears them
+        Assert.assertEquals(4, callLatencies.snapshot(true).size());
+        Assert.assertTrue(callLatencies.snapshot(false).isEmpty());
+    }
+
+    @Test
+    public void testAdUnitsBeyondLimit() {
+        for (int i = 0; i < POWCallLatencies.MAX_AD_UNITS + 10; i++) {
+            callLatencies.record("/15671365/unit_" + i, POWLoadMetrics.OUTCOME_SUCCESS, 100);
+        }
+        List<POWLatencySummary> summaries = callLatencies.snapshot(false);
+        Assert.assertEquals(POWCallLatencies.MAX_AD_UNITS + 1, summaries.size());
+        POWLatencySummary other = find(summaries, POWCallLatencies.OTHER_AD_UNITS, POWLoadMetrics.OUTCOME_SUCCESS);
+        Assert.assertNotNull(other);
+        Assert.assertEquals(10, other.getCount());
+    }
+
+    @Nullable
+    private static POWLatencySummary find(@NonNull List<POWLatencySummary> summaries,
+                                          @NonNull String adUnitId, int outcome) {
+        for (POWLatencySummary summary : summaries) {
+            if (summary.getAdUnitId().equals(adUnitId) && summary.getOutcome() == outcome) {
+                return summary;
+            }
+        }
+        return null;
+    }
+}
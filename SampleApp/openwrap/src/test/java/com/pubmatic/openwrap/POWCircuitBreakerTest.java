@@ -0,0 +1,165 @@
+package com.pubmatic.openwrap;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.test.core.app.ApplicationProvider;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWCircuitBreakerTest {
+
+    private static final int OPEN_DURATION = 200;
+
+    private final List<POWCircuitBreakerListener.State> states = new ArrayList<>();
+    private POWCircuitBreaker circuitBreaker;
+
+    @Before
+    public void setUp() {
+        POWConfiguration.getInstance().setCircuitBreakerPolicy(new POWCircuitBreakerPolicy.Builder()
+                .setFailureThreshold(3)
+                .setFailureWindow(10000)
+                .setOpenDuration(OPEN_DURATION)
+                .build());
+        POWConfiguration.getInstance().setCircuitBreakerListener(states::add);
+        circuitBreaker = new POWCircuitBreaker(new Handler(Looper.getMainLooper()));
+    }
+
+    @After
+    public void tearDown() {
+        POWConfiguration.getInstance().setCircuitBreakerPolicy(null);
+        POWConfiguration.getInstance().setCircuitBreakerListener(null);
+        POWConfiguration.getInstance().setTransport(null);
+    }
+
+    @Test
+    public void testOpenAndRecover() throws InterruptedException {
+        circuitBreaker.onFailure(false);
+        circuitBreaker.onFailure(false);
+        Assert.assertEquals(POWCircuitBreaker.ALLOW, circuitBreaker.allowRequest());
+        circuitBreaker.onFailure(false);
+        Assert.assertEquals(POWCircuitBreaker.REJECT, circuitBreaker.allowRequest());
+
+        // One probe after open duration, which opens the circuit again on failure
+        Thread.sleep(OPEN_DURATION + 50);
+        Assert.assertEquals(POWCircuitBreaker.ALLOW_PROBE, circuitBreaker.allowRequest());
+        Assert.assertEquals(POWCircuitBreaker.REJECT, circuitBreaker.allowRequest());
+        circuitBreaker.onFailure(true);
+        Assert.assertEquals(POWCircuitBreaker.REJECT, circuitBreaker.allowRequest());
+
+        // Cancelled probe is replaced by next call, and successful probe closes the circuit
+        Thread.sleep(OPEN_DURATION + 50);
+        Assert.assertEquals(POWCircuitBreaker.ALLOW_PROBE, circuitBreaker.allowRequest());
+        circuitBreaker.onProbeCancelled();
+        Assert.assertEquals(POWCircuitBreaker.ALLOW_PROBE, circuitBreaker.allowRequest());
+        circuitBreaker.onSuccess(true);
+        Assert.assertEquals(POWCircuitBreaker.ALLOW, circuitBreaker.allowRequest());
+
+        Robolectric.flushForegroundThreadScheduler();
+        Assert.assertEquals(Arrays.asList(POWCircuitBreakerListener.State.OPEN,
+                POWCircuitBreakerListener.State.HALF_OPEN, POWCircuitBreakerListener.State.OPEN,
+                POWCircuitBreakerListener.State.HALF_OPEN, POWCircuitBreakerListener.State.CLOSED), states);
+    }
+
+    @Test
+    public void testFailuresOutsideWindow() throws InterruptedException {
+        POWConfiguration.getInstance().setCircuitBreakerPolicy(new POWCircuitBreakerPolicy.Builder()
+                .setFailureThreshold(2)
+                .setFailureWindow(50)
+                .build());
+        circuitBreaker.onFailure(false);
+        Thread.sleep(100);
+        circuitBreaker.onFailure(false);
+        Assert.assertEquals(POWCircuitBreaker.ALLOW, circuitBreaker.allowRequest());
+        circuitBreaker.onFailure(false);
+        Assert.assertEquals(POWCircuitBreaker.REJECT, circuitBreaker.allowRequest());
+
+        POWConfiguration.getInstance().setCircuitBreakerPolicy(null);
+        Assert.assertEquals(POWCircuitBreaker.ALLOW, circuitBreaker.allowRequest());
+    }
+
+    @Test
+    public void testErrorClasses() {
+        Assert.assertTrue(POWCircuitBreaker.isFailure(POWError.TIMEOUT_ERROR.getErrorCode()));
+        Assert.assertTrue(POWCircuitBreaker.isFailure(POWError.NO_CONNECTION_ERROR.getErrorCode()));
+        Assert.assertTrue(POWCircuitBreaker.isFailure(POWError.CONNECTION_RESET_ERROR.getErrorCode()));
+        Assert.assertTrue(POWCircuitBreaker.isFailure(503));
+        Assert.assertFalse(POWCircuitBreaker.isFailure(POWError.PARSE_ERROR.getErrorCode()));
+        Assert.assertFalse(POWCircuitBreaker.isFailure(400));
+    }
+
+    @Test
+    public void testCommunicatorFailsFast() throws InterruptedException {
+        POWCommunicatorTest.RecordingTransport transport = new POWCommunicatorTest.RecordingTransport();
+        POWConfiguration.getInstance().setTransport(transport);
+        POWConfiguration.getInstance().setRetryPolicy(new POWRetryPolicy.Builder().setMaxRetries(0).build());
+        try {
+            POWCommunicator communicator = POWCommunicator.getInstance(ApplicationProvider.getApplicationContext());
+            for (int i = 0; i < 3; i++) {
+                transport.listener = null;
+                request(communicator, "/15671365/circuit_" + i);
+                POWTransport.TransportListener listener = transport.awaitListener();
+                Assert.assertNotNull(listener);
+                listener.onFailure(POWError.TIMEOUT_ERROR.getErrorCode(), "timeout");
+            }
+            Robolectric.flushForegroundThreadScheduler();
+
+            // Open circuit fails the request without network call
+            int requestCount = transport.requestCount.get();
+            RecordingListener rejected = request(communicator, "/15671365/circuit_rejected");
+            Robolectric.flushForegroundThreadScheduler();
+            Assert.assertEquals(POWError.CIRCUIT_OPEN_ERROR.getErrorCode(), rejected.errorCode);
+            Assert.assertEquals(requestCount, transport.requestCount.get());
+
+            // Probe closes the circuit
+            Thread.sleep(OPEN_DURATION + 50);
+            transport.listener = null;
+            RecordingListener probe = request(communicator, "/15671365/circuit_probe");
+            POWTransport.TransportListener listener = transport.awaitListener();
+            Assert.assertNotNull(listener);
+            listener.onSuccess(POWAdResponseTest.TEST_TARGETING_RESPONSE);
+            Robolectric.flushForegroundThreadScheduler();
+            Assert.assertNotNull(probe.adResponse);
+            Assert.assertEquals(Arrays.asList(POWCircuitBreakerListener.State.OPEN,
+                    POWCircuitBreakerListener.State.HALF_OPEN, POWCircuitBreakerListener.State.CLOSED), states);
+        } finally {
+            POWConfiguration.getInstance().setRetryPolicy(null);
+        }
+    }
+
+    @NonNull
+    private static RecordingListener request(@NonNull POWCommunicator communicator, @NonNull String adUnitId) {
+        RecordingListener listener = new RecordingListener();
+        communicator.requestAd(new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                adUnitId, POWAdRequestTest.AD_SIZE), listener);
+        return listener;
+    }
+
+    private static class RecordingListener implements POWCommunicator.CommunicatorListener {
+        POWAdResponse adResponse;
+        int errorCode;
+
+        @Override
+        public void onSuccess(@NonNull POWAdResponse response) {
+            adResponse = response;
+        }
+
+        @Override
+        public void onFailure(int errorCode, @Nullable String errorMsg) {
+            this.errorCode = errorCode;
+        }
+    }
+}
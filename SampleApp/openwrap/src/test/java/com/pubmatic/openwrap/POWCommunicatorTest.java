@@ -2,7 +2,6 @@ package com.pubmatic.openwrap;
 
 import android.content.Context;
 
-import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -10,6 +9,8 @@ import org.junit.runner.RunWith;
 import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.test.core.app.ApplicationProvider;
@@ -36,7 +37,7 @@ public class POWCommunicatorTest {
         Thread.sleep(5000);
         Robolectric.flushForegroundThreadScheduler();
         Robolectric.flushBackgroundThreadScheduler();
-        Assert.assertNotNull(communicatorListenerImp.responseJson);
+        Assert.assertNotNull(communicatorListenerImp.adResponse);
     }
 
     @Test
@@ -59,14 +60,120 @@ public class POWCommunicatorTest {
         Assert.assertTrue(communicatorListenerImp.isFailure);
     }
 
+    @Test
+    public void requestAdTestCoalescing() throws InterruptedException {
+        RecordingTransport transport = new RecordingTransport();
+        POWConfiguration.getInstance().setTransport(transport);
+        try {
+            POWCommunicator communicator = POWCommunicator.getInstance(ApplicationProvider.getApplicationContext());
+            POWAdRequest firstRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                    POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+            POWAdRequest secondRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                    POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+            POWAdRequest cancelledRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                    POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+            CommunicatorListenerImp secondListener = new CommunicatorListenerImp();
+            CommunicatorListenerImp cancelledListener = new CommunicatorListenerImp();
+            communicator.requestAd(firstRequest, communicatorListenerImp);
+            communicator.requestAd(secondRequest, secondListener);
+            communicator.requestAd(cancelledRequest, cancelledListener);
+
+            // Cancelling one of the requests keeps the shared call for the others
+            communicator.cancel(cancelledRequest);
+            Assert.assertNotNull(transport.awaitListener());
+            Assert.assertEquals(1, transport.requestCount.get());
+            Assert.assertEquals(0, transport.cancelCount.get());
+
+            transport.listener.onSuccess(POWAdResponseTest.TEST_TARGETING_RESPONSE);
+            Robolectric.flushForegroundThreadScheduler();
+            Assert.assertNotNull(communicatorListenerImp.adResponse);
+            Assert.assertSame(communicatorListenerImp.adResponse, secondListener.adResponse);
+            Assert.assertNull(cancelledListener.adResponse);
+
+            // The call is cancelled once all the requests are cancelled
+            communicator.requestAd(firstRequest, communicatorListenerImp);
+            communicator.cancel(firstRequest);
+            Assert.assertEquals(1, transport.cancelCount.get());
+        } finally {
+            POWConfiguration.getInstance().setTransport(null);
+        }
+    }
+
+    @Test
+    public void requestAdTestUnshared() throws InterruptedException {
+        RecordingTransport transport = new RecordingTransport();
+        POWConfiguration.getInstance().setTransport(transport);
+        try {
+            POWCommunicator communicator = POWCommunicator.getInstance(ApplicationProvider.getApplicationContext());
+            POWAdRequest sharedRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                    POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+            POWAdRequest unsharedRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                    POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+            POWAdRequest joiningRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                    POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+            CommunicatorListenerImp unsharedListener = new CommunicatorListenerImp();
+            CommunicatorListenerImp joiningListener = new CommunicatorListenerImp();
+            communicator.requestAd(sharedRequest, communicatorListenerImp);
+            communicator.requestAd(unsharedRequest, unsharedListener, null, false);
+            communicator.requestAd(joiningRequest, joiningListener);
+
+            // Unshared request gets its own call, the later request joins the shared one
+            Assert.assertTrue(transport.awaitRequests(2));
+            communicator.cancel(unsharedRequest);
+            Assert.assertEquals(1, transport.cancelCount.get());
+            communicator.cancel(sharedRequest);
+            communicator.cancel(joiningRequest);
+            Assert.assertEquals(2, transport.cancelCount.get());
+        } finally {
+            POWConfiguration.getInstance().setTransport(null);
+        }
+    }
+
+    /**
+     * Transport which records the requests and lets the test provide the response
+     */
+    static class RecordingTransport implements POWTransport {
+        final AtomicInteger requestCount = new AtomicInteger();
+        final AtomicInteger cancelCount = new AtomicInteger();
+        volatile TransportListener listener;
+
+        @Override
+        public void get(@NonNull String url, int timeout, @NonNull Object tag, @NonNull TransportListener listener) {
+            requestCount.incrementAndGet();
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel(@NonNull Object tag) {
+            cancelCount.incrementAndGet();
+        }
+
+        @Nullable
+        TransportListener awaitListener() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (listener == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            return listener;
+        }
+
+        boolean awaitRequests(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (requestCount.get() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            return requestCount.get() == count;
+        }
+    }
+
     static class CommunicatorListenerImp implements POWCommunicator.CommunicatorListener {
 
-        JSONObject responseJson;
+        POWAdResponse adResponse;
         boolean isFailure;
 
         @Override
-        public void onSuccess(@NonNull JSONObject response) {
-            responseJson = response;
+        public void onSuccess(@NonNull POWAdResponse response) {
+            adResponse = response;
         }
 
         @Override
@@ -29,8 +29,12 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.lang.reflect.Constructor;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import androidx.test.core.app.ApplicationProvider;
 
@@ -69,17 +73,99 @@ public class POWConfigurationTest {
         Context context = ApplicationProvider.getApplicationContext();
         POWConfiguration configuration = POWConfiguration.getInstance();
 
-        POWApplicationInfo appInfo = new POWApplicationInfo(context);
+        POWApplicationInfo appInfo = POWAndroidPlatform.createApplicationInfo(context);
+        appInfo.setDomain("Sports");
         configuration.setAppInfo(appInfo);
-        org.junit.Assert.assertEquals(appInfo, configuration.getAppInfo());
+        POWApplicationInfo configuredAppInfo = configuration.getAppInfo();
+        org.junit.Assert.assertNotNull(configuredAppInfo);
+        org.junit.Assert.assertNotSame(appInfo, configuredAppInfo);
+        org.junit.Assert.assertEquals(appInfo.getName(), configuredAppInfo.getName());
+        org.junit.Assert.assertEquals(appInfo.getPackageName(), configuredAppInfo.getPackageName());
+        org.junit.Assert.assertEquals("Sports", configuredAppInfo.getDomain());
 
         POWUserInfo userInfo = new POWUserInfo();
+        userInfo.setCity("NewYork");
         configuration.setUserInfo(userInfo);
-        org.junit.Assert.assertEquals(userInfo, configuration.getUserInfo());
+        POWUserInfo configuredUserInfo = configuration.getUserInfo();
+        org.junit.Assert.assertNotNull(configuredUserInfo);
+        org.junit.Assert.assertNotSame(userInfo, configuredUserInfo);
+        org.junit.Assert.assertEquals("NewYork", configuredUserInfo.getCity());
 
         Map<String, String> map = new HashMap<>(1);
         configuration.setCustomKeyValues(map);
         org.junit.Assert.assertEquals(map, configuration.getCustomKeyValues());
     }
 
+    @Test
+    public void testSnapshotConsistentWithConcurrentUpdates() throws Exception {
+        POWConfiguration configuration = POWConfiguration.getInstance();
+        Map<String, String> keyValues = new HashMap<>(2);
+        AtomicBoolean running = new AtomicBoolean(true);
+        // Writer keeps both the values equal in every update, mutating the same map
+        Thread writer = new Thread(() -> {
+            int value = 0;
+            while (running.get()) {
+                value++;
+                keyValues.put("owk1", String.valueOf(value));
+                keyValues.put("owk2", String.valueOf(value));
+                configuration.setCustomKeyValues(keyValues);
+                configuration.setCCPAString("1YN" + (value % 10));
+            }
+        });
+        writer.start();
+        try {
+            POWAdRequest adRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                    POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+            Pattern owk1 = Pattern.compile("[?&]owk1=(\\d+)");
+            Pattern owk2 = Pattern.compile("[?&]owk2=(\\d+)");
+            for (int i = 0; i < 2000; i++) {
+                String url = adRequest.buildUrl();
+                Matcher first = owk1.matcher(url);
+                Matcher second = owk2.matcher(url);
+                if (first.find()) {
+                    Assert.assertTrue(second.find());
+                    Assert.assertEquals(first.group(1), second.group(1));
+                }
+
+                // Snapshot never changes once published
+                POWConfiguration.Snapshot snapshot = configuration.getSnapshot();
+                Map<String, String> snapshotValues = snapshot.getCustomKeyValues();
+                if (snapshotValues != null && snapshotValues.containsKey("owk1")) {
+                    Assert.assertEquals(snapshotValues.get("owk1"), snapshotValues.get("owk2"));
+                }
+                Assert.assertSame(snapshotValues, snapshot.getCustomKeyValues());
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+            configuration.setCustomKeyValues(new HashMap<String, String>());
+        }
+    }
+
+    @Test
+    public void testInfoChangedAfterSetNotApplied() {
+        POWConfiguration configuration = POWConfiguration.getInstance();
+        POWUserInfo userInfo = new POWUserInfo();
+        userInfo.setCity("NewYork");
+        configuration.setUserInfo(userInfo);
+        POWConfiguration.Snapshot snapshot = configuration.getSnapshot();
+
+        // Neither the set object nor the returned copy changes the published snapshot
+        userInfo.setCity("Boston");
+        configuration.getUserInfo().setCity("Chicago");
+        org.junit.Assert.assertSame(snapshot, configuration.getSnapshot());
+        org.junit.Assert.assertEquals("NewYork", snapshot.getUserInfo().getCity());
+        org.junit.Assert.assertEquals("NewYork", configuration.getUserInfo().getCity());
+
+        configuration.setUserInfo(userInfo);
+        org.junit.Assert.assertEquals("Boston", configuration.getSnapshot().getUserInfo().getCity());
+    }
+
+    @Test
+    public void testCircuitBreakerDisabledByDefault() throws Exception {
+        // Fresh configuration, as the shared instance is changed by other tests
+        Constructor<POWConfiguration> constructor = POWConfiguration.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        Assert.assertNull(constructor.newInstance().getCircuitBreakerPolicy());
+    }
 }
@@ -0,0 +1,59 @@
+package com.pubmatic.openwrap;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWConnectionWarmerTest {
+
+    @Test
+    public void testWarmUp() throws IOException, InterruptedException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        List<String> methods = Collections.synchronizedList(new ArrayList<>());
+        server.createContext("/", exchange -> {
+            methods.add(exchange.getRequestMethod());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            POWConnectionWarmer warmer = new POWConnectionWarmer("http://127.0.0.1:"
+                    + server.getAddress().getPort() + "/openrtb/2.5/video");
+            warmer.warmUp();
+            // Warm-up is done once
+            warmer.warmUp();
+            for (int i = 0; i < 50 && warmer.getMetrics() == null; i++) {
+                Thread.sleep(100);
+            }
+            POWWarmUpMetrics metrics = warmer.getMetrics();
+            Assert.assertNotNull(metrics);
+            Assert.assertTrue(metrics.isSuccessful());
+            Assert.assertTrue(metrics.getTotalTime() >= metrics.getConnectionTime());
+            Assert.assertEquals(Collections.singletonList("HEAD"), methods);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testWarmUpFailure() throws InterruptedException {
+        POWConnectionWarmer warmer = new POWConnectionWarmer("http://127.0.0.1:1/openrtb/2.5/video");
+        warmer.warmUp();
+        for (int i = 0; i < 50 && warmer.getMetrics() == null; i++) {
+            Thread.sleep(100);
+        }
+        Assert.assertNotNull(warmer.getMetrics());
+        Assert.assertFalse(warmer.getMetrics().isSuccessful());
+    }
+}
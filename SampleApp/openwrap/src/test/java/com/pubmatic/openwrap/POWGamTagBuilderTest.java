@@ -0,0 +1,77 @@
+package com.pubmatic.openwrap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWGamTagBuilderTest {
+
+    static final String GAM_TAG = "https://pubads.g.doubleclick.net/gampad/live/ads?iu=/15671365/pm_ott_video"
+            + "&description_url=http://pubmatic.com/&tfcd=0&npa=0&sz=640x480&gdfp_req=1&output=vast"
+            + "&unviewed_position_start=1&env=vp&impl=s";
+
+    @Test
+    public void testSameAsGenerateEncodedQueryParams() throws JSONException {
+        JSONObject targeting = new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE).getJSONObject("targeting");
+        assertSameAsLegacy(targeting);
+    }
+
+    @Test
+    public void testSpecialCharacters() throws JSONException {
+        JSONObject targeting = new JSONObject();
+        targeting.put("space key", "a b+c");
+        targeting.put("reserved", "!~'()*_-.?/#&=%");
+        targeting.put("unicode", "é€😀");
+        targeting.put("malformed", "\ud83d");
+        targeting.put("number", 3.5);
+        assertSameAsLegacy(targeting);
+    }
+
+    @Test
+    public void testEmptyTargeting() {
+        POWGamTagBuilder builder = new POWGamTagBuilder(GAM_TAG);
+        Assert.assertEquals(GAM_TAG, builder.build(null));
+        Assert.assertEquals(GAM_TAG, builder.build(new JSONObject()));
+    }
+
+    @Test
+    public void testExistingCustParams() throws JSONException {
+        JSONObject targeting = new JSONObject().put("pwtecp", "3.00");
+        Assert.assertEquals("https://gam/ads?cust_params=section%3Dsports%26pwtecp%3D3.00&env=vp",
+                new POWGamTagBuilder("https://gam/ads?cust_params=section%3Dsports&env=vp").build(targeting));
+        Assert.assertEquals("https://gam/ads?iu=1&cust_params=pwtecp%3D3.00",
+                new POWGamTagBuilder("https://gam/ads?iu=1&cust_params=").build(targeting));
+        // Parameter only ending with cust_params is not replaced
+        Assert.assertEquals("https://gam/ads?my_cust_params=1&cust_params=pwtecp%3D3.00",
+                new POWGamTagBuilder("https://gam/ads?my_cust_params=1").build(targeting));
+    }
+
+    @Test
+    public void testTagWithoutQuery() throws JSONException {
+        JSONObject targeting = new JSONObject().put("pwtecp", "3.00");
+        Assert.assertEquals("https://gam/ads?cust_params=pwtecp%3D3.00",
+                new POWGamTagBuilder("https://gam/ads").build(targeting));
+        Assert.assertEquals("https://gam/ads?cust_params=pwtecp%3D3.00",
+                new POWGamTagBuilder("https://gam/ads?").build(targeting));
+        Assert.assertEquals("https://gam/ads?iu=1&cust_params=pwtecp%3D3.00#frag",
+                new POWGamTagBuilder("https://gam/ads?iu=1#frag").build(targeting));
+    }
+
+    @Test
+    public void testBuilderReuse() throws JSONException {
+        POWGamTagBuilder builder = new POWGamTagBuilder(GAM_TAG);
+        String first = builder.build(new JSONObject().put("pwtecp", "3.00"));
+        String second = builder.build(new JSONObject().put("pwtecp", "1.50"));
+        Assert.assertEquals(GAM_TAG + "&cust_params=pwtecp%3D3.00", first);
+        Assert.assertEquals(GAM_TAG + "&cust_params=pwtecp%3D1.50", second);
+    }
+
+    private static void assertSameAsLegacy(JSONObject targeting) {
+        String legacy = GAM_TAG + "&cust_params=" + POWUtil.generateEncodedQueryParams(targeting);
+        Assert.assertEquals(legacy, new POWGamTagBuilder(GAM_TAG).build(targeting));
+    }
+}
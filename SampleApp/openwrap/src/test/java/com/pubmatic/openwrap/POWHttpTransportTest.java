@@ -0,0 +1,148 @@
+package com.pubmatic.openwrap;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Sends the requests to a local mock OpenWrap server over {@link POWHttpTransport} and verifies
+ * the responses, errors and cancellation
+ */
+@RunWith(RobolectricTestRunner.class)
+public class POWHttpTransportTest {
+
+    private static final int TIMEOUT = 5000;
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private HttpServer server;
+    private String url;
+    private final AtomicInteger gzipResponses = new AtomicInteger();
+
+    /**
+     * Value of the mock server nodelay property before the test, restored after it
+     */
+    @Nullable
+    private String nodelay;
+
+    @Before
+    public void setUp() throws IOException {
+        // Avoid Nagle's delay on the mock server, which otherwise slows down every response
+        nodelay = System.setProperty(NODELAY_PROPERTY, "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/openrtb/2.5/video", exchange -> {
+            byte[] body = POWAdResponseTest.TEST_TARGETING_RESPONSE.getBytes("UTF-8");
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(body);
+                }
+                body = compressed.toByteArray();
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                gzipResponses.incrementAndGet();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.createContext("/error", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/openrtb/2.5/video?pubId=156276";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        if (nodelay != null) {
+            System.setProperty(NODELAY_PROPERTY, nodelay);
+        } else {
+            System.clearProperty(NODELAY_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testHttpTransportResponse() throws Exception {
+        POWTransport transport = new POWHttpTransport.Builder().setPoolSize(2).build();
+        ResponseListener listener = send(transport, url, "tag");
+        Assert.assertEquals(POWAdResponseTest.TEST_TARGETING_RESPONSE, listener.response);
+        Assert.assertEquals(1, gzipResponses.get());
+
+        POWTransport plainTransport = new POWHttpTransport.Builder().setGzipEnabled(false).build();
+        Assert.assertNotNull(send(plainTransport, url, "tag").response);
+        Assert.assertEquals(1, gzipResponses.get());
+
+        String errorUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/error";
+        Assert.assertEquals(503, send(transport, errorUrl, "tag").errorCode);
+    }
+
+    @Test
+    public void testHttpTransportCancel() throws Exception {
+        POWTransport transport = new POWHttpTransport.Builder().build();
+        ResponseListener listener = new ResponseListener();
+        transport.get(url, TIMEOUT, "cancelled", listener);
+        transport.cancel("cancelled");
+        Thread.sleep(200);
+        Robolectric.flushForegroundThreadScheduler();
+        Assert.assertFalse(listener.isCompleted());
+    }
+
+    /**
+     * Sends the request and waits for the response
+     */
+    @NonNull
+    private static ResponseListener send(@NonNull POWTransport transport, @NonNull String url,
+                                         @NonNull Object tag) {
+        ResponseListener listener = new ResponseListener();
+        transport.get(url, TIMEOUT, tag, listener);
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!listener.isCompleted() && System.currentTimeMillis() < deadline) {
+            Robolectric.flushForegroundThreadScheduler();
+            if (!listener.isCompleted()) {
+                LockSupport.parkNanos(20_000);
+            }
+        }
+        return listener;
+    }
+
+    static class ResponseListener implements POWTransport.TransportListener {
+        volatile String response;
+        volatile int errorCode;
+
+        @Override
+        public void onSuccess(@NonNull String response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onFailure(int errorCode, @Nullable String errorMsg) {
+            this.errorCode = errorCode;
+        }
+
+        boolean isCompleted() {
+            return response != null || errorCode != 0;
+        }
+    }
+}
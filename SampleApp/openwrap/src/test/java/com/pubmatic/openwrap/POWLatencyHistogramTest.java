@@ -0,0 +1,61 @@
+package com.pubmatic.openwrap;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWLatencyHistogramTest {
+
+    private POWLatencyHistogram histogram;
+
+    @Before
+    public void setUp() {
+        histogram = new POWLatencyHistogram();
+    }
+
+    @Test
+    public void testPercentiles() {
+        for (long latency = 1; latency <= 100000; latency++) {
+            histogram.record(latency);
+        }
+        Assert.assertEquals(100000, histogram.getCount());
+        Assert.assertEquals(100000, histogram.getMax());
+        Assert.assertEquals(50000, histogram.getMean());
+        assertWithinPrecision(50000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(90000, histogram.getValueAtPercentile(90));
+        assertWithinPrecision(99000, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(100000, histogram.getValueAtPercentile(100));
+        Assert.assertEquals(1, histogram.getValueAtPercentile(0));
+    }
+
+    @Test
+    public void testSmallAndOutOfRangeValues() {
+        histogram.record(-1);
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+
+        histogram.record(3);
+        Assert.assertEquals(3, histogram.getValueAtPercentile(50));
+        histogram.record(POWLatencyHistogram.MAX_TRACKABLE_VALUE * 2);
+        Assert.assertEquals(POWLatencyHistogram.MAX_TRACKABLE_VALUE * 2, histogram.getMax());
+        Assert.assertEquals(POWLatencyHistogram.MAX_TRACKABLE_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testReset() {
+        histogram.record(1000);
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getMean());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        Assert.assertTrue("expected " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected / POWLatencyHistogram.SUB_BUCKET_COUNT);
+    }
+}
@@ -0,0 +1,117 @@
+package com.pubmatic.openwrap;
+
+import android.content.Context;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.test.core.app.ApplicationProvider;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWMetricsTest {
+
+    private final List<POWLoadMetrics> recordedMetrics = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        POWMetrics.getInstance().reset();
+        POWConfiguration.getInstance().setMetricsListener(recordedMetrics::add);
+    }
+
+    @After
+    public void tearDown() {
+        POWConfiguration.getInstance().setMetricsListener(null);
+        POWConfiguration.getInstance().setTransport(null);
+        POWBidCache.getInstance().clear();
+    }
+
+    @Test
+    public void testNetworkLoadingMetrics() throws InterruptedException {
+        POWCommunicatorTest.RecordingTransport transport = new POWCommunicatorTest.RecordingTransport();
+        POWConfiguration.getInstance().setTransport(transport);
+        Context appContext = ApplicationProvider.getApplicationContext();
+        POWAdsLoader adsLoader = new POWAdsLoader(appContext);
+        adsLoader.loadAd(createRequest(), new NoOpListener());
+        POWTransport.TransportListener listener = transport.awaitListener();
+        Assert.assertNotNull(listener);
+        ((POWNetworkTimingListener) listener).onNetworkTimings(10, 200, 3000, 4000);
+        listener.onSuccess(POWAdResponseTest.TEST_TARGETING_RESPONSE);
+        Robolectric.flushForegroundThreadScheduler();
+
+        Assert.assertEquals(1, recordedMetrics.size());
+        POWLoadMetrics metrics = recordedMetrics.get(0);
+        Assert.assertEquals(OWAdsLoadTest.AD_UNIT_ID, metrics.getAdUnitId());
+        Assert.assertEquals(POWLoadMetrics.OUTCOME_SUCCESS, metrics.getOutcome());
+        Assert.assertFalse(metrics.isCached());
+        Assert.assertEquals(10, metrics.getDuration(POWLoadMetrics.Stage.QUEUE));
+        Assert.assertEquals(200, metrics.getDuration(POWLoadMetrics.Stage.CONNECT));
+        Assert.assertEquals(3000, metrics.getDuration(POWLoadMetrics.Stage.TTFB));
+        Assert.assertEquals(4000, metrics.getDuration(POWLoadMetrics.Stage.NETWORK));
+        for (POWLoadMetrics.Stage stage : POWLoadMetrics.STAGES) {
+            Assert.assertTrue(stage.name(), metrics.getDuration(stage) >= 0);
+            Assert.assertEquals(stage.name(), 1, POWMetrics.getInstance().getHistogram(stage).getCount());
+        }
+        Assert.assertTrue(metrics.getDuration(POWLoadMetrics.Stage.TOTAL)
+                >= metrics.getDuration(POWLoadMetrics.Stage.PARSE));
+
+        boolean summarized = false;
+        for (POWLatencySummary summary : POWMetrics.getInstance().getCallLatencySnapshot(true)) {
+            if (summary.getAdUnitId().equals(OWAdsLoadTest.AD_UNIT_ID)
+                    && summary.getOutcome() == POWLoadMetrics.OUTCOME_SUCCESS) {
+                summarized = true;
+            }
+        }
+        Assert.assertTrue(summarized);
+    }
+
+    @Test
+    public void testCachedLoadingMetrics() throws JSONException {
+        // Loader is created first, as it sets the default app info which is part of fingerprint
+        Context appContext = ApplicationProvider.getApplicationContext();
+        POWAdsLoader adsLoader = new POWAdsLoader(appContext);
+        POWAdRequest request = createRequest();
+        POWBidCache.getInstance().putPrefetched(request.getFingerprint(),
+                new POWAdResponse(new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE)));
+        adsLoader.loadAd(request, new NoOpListener());
+        // Cached response is delivered on main thread too
+        Assert.assertTrue(recordedMetrics.isEmpty());
+        Robolectric.flushForegroundThreadScheduler();
+
+        Assert.assertEquals(1, recordedMetrics.size());
+        POWLoadMetrics metrics = recordedMetrics.get(0);
+        Assert.assertTrue(metrics.isCached());
+        Assert.assertEquals(POWLoadMetrics.NOT_MEASURED, metrics.getDuration(POWLoadMetrics.Stage.NETWORK));
+        Assert.assertTrue(metrics.getDuration(POWLoadMetrics.Stage.TOTAL) >= 0);
+        Assert.assertEquals(0, POWMetrics.getInstance().getHistogram(POWLoadMetrics.Stage.NETWORK).getCount());
+        Assert.assertEquals(1, POWMetrics.getInstance().getHistogram(POWLoadMetrics.Stage.TOTAL).getCount());
+    }
+
+    @NonNull
+    private static POWAdRequest createRequest() {
+        return new POWAdRequest(OWAdsLoadTest.PUB_ID, OWAdsLoadTest.PROFILE_ID, OWAdsLoadTest.AD_UNIT_ID,
+                new POWAdRequest.POWAdSize(320, 640));
+    }
+
+    private static class NoOpListener implements POWAdLoading.AdsLoaderListener {
+
+        @Override
+        public void onAdReceived(@NonNull POWAdResponse response) {
+        }
+
+        @Override
+        public void onAdFailed(int errorCode, @Nullable String errorMsg) {
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.pubmatic.openwrap;
+
+import android.net.Uri;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWQueryStringBuilderTest {
+
+    private static final String OW_URL = "https://ow.pubmatic.com/openrtb/2.5/video";
+    private static final String BIDDER_PARAMS = "{\"pubmatic\":{\"keywords\":[{\"key\":\"dctr\",\"value\":[\"val1\",\"val2\"]}]}}";
+    private static final String[] TEST_VALUES = {"plain", "/15671365/pm_ott_video", "a b&c=d?e#f",
+            "_-!.~'()*", "{\"pubmatic\":{\"keywords\":[\"val1\"]}}", "ünïcödé", "日本語", "😀", "%20+"};
+
+    @Test
+    public void testEncodingSameAsUri() {
+        for (String value : TEST_VALUES) {
+            String expected = Uri.parse("https://ow.pubmatic.com/video").buildUpon()
+                    .appendQueryParameter(value, value).build().toString();
+            String actual = POWQueryStringBuilder.obtain("https://ow.pubmatic.com/video")
+                    .append(value, value).build();
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testUrlWithQueryAndFragment() {
+        String url = "https://www.google.com/path?existing=1#fragment";
+        String expected = Uri.parse(url).buildUpon().appendQueryParameter("key", "value").build().toString();
+        Assert.assertEquals(expected, POWQueryStringBuilder.obtain(url).append("key", "value").build());
+    }
+
+    @Test
+    public void testEmptyUrl() {
+        Assert.assertEquals("", POWQueryStringBuilder.obtain("").build());
+        Assert.assertEquals("?key=1", POWQueryStringBuilder.obtain("").append("key", 1).build());
+    }
+
+    @Test
+    public void testNumericAndNullValues() {
+        String url = POWQueryStringBuilder.obtain("https://www.google.com")
+                .append("int", -5)
+                .append("double", 74.58d)
+                .append("null", (String) null)
+                .build();
+        Assert.assertEquals("https://www.google.com?int=-5&double=74.58", url);
+    }
+
+    @Test
+    public void testOverriddenParams() {
+        Map<String, String> overriddenParams = new LinkedHashMap<>();
+        overriddenParams.put("int", "overridden");
+        overriddenParams.put("new", "3");
+        overriddenParams.put("null", null);
+        POWQueryStringBuilder queryBuilder = POWQueryStringBuilder.obtain("https://www.google.com");
+        queryBuilder.setOverriddenParams(overriddenParams);
+        queryBuilder.append("key", "1").append("int", 2).append("null", "4").appendRemainingOverrides();
+        Assert.assertEquals("https://www.google.com?key=1&int=overridden&null=4&new=3", queryBuilder.build());
+    }
+
+    @Test
+    public void testSameUrlAsJsonAndUri() throws JSONException {
+        // Previous url building path, i.e. populating a JSONObject and walking it through Uri.Builder
+        JSONObject params = new JSONObject();
+        params.put("pwtapp", "1");
+        params.put("pwtplt", "video");
+        params.put("adserver", "DFP");
+        params.put("f", "json");
+        params.put("pwtmime", "1");
+        params.put("pubId", POWAdRequestTest.PUB_ID);
+        params.put("profId", POWAdRequestTest.PROFILE_ID);
+        params.put("pwtm_iu", POWAdRequestTest.AD_UNIT_ID);
+        params.put("pwtv", 2);
+        params.put("pwtm_sz", POWAdRequestTest.AD_SIZE.getFormattedAdSize());
+        params.put("pwtvlin", 1);
+        params.put("pwtlmt", 0);
+        params.put("pwtdnt", 0);
+        params.put("pwtifa", "38400000-8cf0-11bd-b23e-10b96e40000d");
+        params.put("pwtjs", 1);
+        params.put("pwtuto", 330);
+        params.put("pwtm_url", "https://play.google.com/store/apps/details?id=com.example.lite&hl=en_IN");
+        params.put("pwtappbdl", "com.pubmatic.openwrap.ottsampleapplication");
+        params.put("pwtbidrprm", BIDDER_PARAMS);
+        Uri.Builder uriBuilder = Uri.parse(OW_URL).buildUpon();
+        Iterator<String> iterator = params.keys();
+        while (iterator.hasNext()) {
+            String key = iterator.next();
+            uriBuilder.appendQueryParameter(key, String.valueOf(params.opt(key)));
+        }
+
+        String url = POWQueryStringBuilder.obtain(OW_URL)
+                .append("pwtapp", "1")
+                .append("pwtplt", "video")
+                .append("adserver", "DFP")
+                .append("f", "json")
+                .append("pwtmime", "1")
+                .append("pubId", POWAdRequestTest.PUB_ID)
+                .append("profId", POWAdRequestTest.PROFILE_ID)
+                .append("pwtm_iu", POWAdRequestTest.AD_UNIT_ID)
+                .append("pwtv", 2)
+                .append("pwtm_sz", POWAdRequestTest.AD_SIZE.getFormattedAdSize())
+                .append("pwtvlin", 1)
+                .append("pwtlmt", 0)
+                .append("pwtdnt", 0)
+                .append("pwtifa", "38400000-8cf0-11bd-b23e-10b96e40000d")
+                .append("pwtjs", 1)
+                .append("pwtuto", 330)
+                .append("pwtm_url", "https://play.google.com/store/apps/details?id=com.example.lite&hl=en_IN")
+                .append("pwtappbdl", "com.pubmatic.openwrap.ottsampleapplication")
+                .append("pwtbidrprm", BIDDER_PARAMS)
+                .build();
+        Assert.assertEquals(uriBuilder.build().toString(), url);
+    }
+}
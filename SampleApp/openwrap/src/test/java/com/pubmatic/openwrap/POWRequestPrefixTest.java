@@ -0,0 +1,79 @@
+package com.pubmatic.openwrap;
+
+import android.content.Context;
+
+import com.pubmatic.openwrap.models.POWApplicationInfo;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import androidx.test.core.app.ApplicationProvider;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWRequestPrefixTest {
+
+    @After
+    public void tearDown() {
+        POWConfiguration.getInstance().setCustomKeyValues(new HashMap<String, String>());
+    }
+
+    @Test
+    public void testPrefixReusedUntilConfigurationChanged() throws JSONException {
+        POWConfiguration configuration = POWConfiguration.getInstance();
+        POWRequestPrefix prefix = POWAdRequest.getRequestPrefix(configuration.getSnapshot());
+        Assert.assertSame(prefix, POWAdRequest.getRequestPrefix(configuration.getSnapshot()));
+
+        configuration.setCCPAString("1YNN");
+        POWRequestPrefix updatedPrefix = POWAdRequest.getRequestPrefix(configuration.getSnapshot());
+        Assert.assertNotSame(prefix, updatedPrefix);
+        Assert.assertTrue(updatedPrefix.getValue().contains("pwtccpa=1YNN"));
+
+        POWAdRequest adRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+        String url = adRequest.buildUrl();
+        Assert.assertTrue(url.startsWith(updatedPrefix.getValue() + "&"));
+        JSONObject queryParams = POWUtilTest.getQueryParams(url);
+        Assert.assertEquals("1YNN", queryParams.getString("pwtccpa"));
+        Assert.assertEquals(POWAdRequestTest.PUB_ID, queryParams.getString("pubId"));
+    }
+
+    @Test
+    public void testPrefixInvalidatedOnAppInfoChange() {
+        Context context = ApplicationProvider.getApplicationContext();
+        POWConfiguration configuration = POWConfiguration.getInstance();
+        POWApplicationInfo appInfo = POWAndroidPlatform.createApplicationInfo(context);
+        configuration.setAppInfo(appInfo);
+        POWRequestPrefix prefix = POWAdRequest.getRequestPrefix(configuration.getSnapshot());
+        Assert.assertTrue(prefix.isValid(configuration.getSnapshot()));
+
+        // Change of the app info takes effect only once it is set again
+        appInfo.setDomain("Sports");
+        Assert.assertTrue(prefix.isValid(configuration.getSnapshot()));
+        configuration.setAppInfo(appInfo);
+        Assert.assertFalse(prefix.isValid(configuration.getSnapshot()));
+        Assert.assertTrue(POWAdRequest.getRequestPrefix(configuration.getSnapshot()).getValue().contains("pwtappdom=Sports"));
+    }
+
+    @Test
+    public void testCustomParamOverridesPrefixParam() throws JSONException {
+        POWConfiguration configuration = POWConfiguration.getInstance();
+        configuration.setEnableGDPR(true);
+        Map<String, String> customParams = new HashMap<>();
+        customParams.put("pwtgdpr", "0");
+        configuration.setCustomKeyValues(customParams);
+
+        POWAdRequest adRequest = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE);
+        String url = adRequest.buildUrl();
+        Assert.assertEquals(url.indexOf("pwtgdpr="), url.lastIndexOf("pwtgdpr="));
+        Assert.assertEquals(0, POWUtilTest.getQueryParams(url).getInt("pwtgdpr"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.pubmatic.openwrap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWResponseParserTest {
+
+    private static final int DEBUG_BIDS = 200;
+
+    @Test
+    public void testTargeting() throws JSONException {
+        POWAdResponse adResponse = POWResponseParser.parse(POWAdResponseTest.TEST_TARGETING_RESPONSE, null);
+        JSONObject expected = new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE).getJSONObject("targeting");
+        POWTargeting targeting = adResponse.getTargetingValues();
+        Assert.assertNotNull(targeting);
+        Assert.assertEquals(expected.length(), targeting.size());
+        Assert.assertEquals("3.00", targeting.get("pwtecp"));
+        Assert.assertEquals("/15671365/pm_ott_video", targeting.get("pwtsid"));
+        Assert.assertEquals(expected.toString(), adResponse.getTargeting().toString());
+        Assert.assertTrue(adResponse.hasTargeting());
+    }
+
+    @Test
+    public void testSkippedAndRequestedFields() throws JSONException {
+        String response = "{ \"ext\": {\"debug\": [{\"a\": \"}]\\\"\"}, [1, 2, {}]], \"b\": null},"
+                + " \"id\": \"req-1\", \"seatbid\": [{\"bid\": [{\"price\": 3.5}]}],"
+                + " \"targeting\": {\"pwtecp\": 3.50, \"pwtbst\": true, \"pwtdeal\": null,"
+                + " \"pwtsid\": \"caf\\u00e9 \\\"video\\\"\\/\\n\", \"pwtext\": {\"k\": [1]}}, \"nbr\": 0 }";
+        POWAdResponse adResponse = POWResponseParser.parse(response, Collections.singleton("id"));
+        POWTargeting targeting = adResponse.getTargetingValues();
+        Assert.assertNotNull(targeting);
+        Assert.assertEquals(4, targeting.size());
+        Assert.assertEquals("3.50", targeting.get("pwtecp"));
+        Assert.assertEquals("true", targeting.get("pwtbst"));
+        Assert.assertNull(targeting.get("pwtdeal"));
+        Assert.assertEquals("café \"video\"/\n", targeting.get("pwtsid"));
+        Assert.assertEquals("{\"k\": [1]}", targeting.get("pwtext"));
+        Assert.assertEquals("req-1", adResponse.getField("id"));
+        Assert.assertNull(adResponse.getField("seatbid"));
+    }
+
+    @Test
+    public void testWithoutTargeting() throws JSONException {
+        POWAdResponse adResponse = POWResponseParser.parse("{}", null);
+        Assert.assertNull(adResponse.getTargeting());
+        Assert.assertNull(adResponse.getTargetingValues());
+        Assert.assertFalse(adResponse.hasTargeting());
+
+        adResponse = POWResponseParser.parse("{\"targeting\":{}}", null);
+        Assert.assertEquals(0, adResponse.getTargeting().length());
+        Assert.assertFalse(adResponse.hasTargeting());
+    }
+
+    @Test
+    public void testMalformedResponse() {
+        String[] responses = {"", "[]", "{\"targeting\":{\"a\":\"b\"}", "{\"a\":}", "{\"targeting\":{\"a\":\"b\\x\"}}",
+                "{\"a\":1} trailing", "{\"a\":\"unterminated}"};
+        for (String response : responses) {
+            try {
+                POWResponseParser.parse(response, null);
+                Assert.fail("Parsed malformed response: " + response);
+            } catch (JSONException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testSameTargetingAsJSONObject() throws JSONException {
+        String response = createDebugResponse();
+        Assert.assertEquals(new POWAdResponse(new JSONObject(response)).getTargeting().toString(),
+                POWResponseParser.parse(response, null).getTargeting().toString());
+    }
+
+    /**
+     * Creates large OpenWrap response in debug mode, having bids of many bidders along with the
+     * debug info
+     */
+    private static String createDebugResponse() throws JSONException {
+        JSONObject response = new JSONObject(POWAdResponseTest.TEST_TARGETING_RESPONSE);
+        StringBuilder debug = new StringBuilder("{\"id\":\"2a96119c\",\"seatbid\":[");
+        for (int i = 0; i < DEBUG_BIDS; i++) {
+            if (i > 0) {
+                debug.append(',');
+            }
+            debug.append("{\"seat\":\"bidder").append(i).append("\",\"bid\":[{\"id\":\"bid-").append(i)
+                    .append("\",\"impid\":\"1\",\"price\":").append(i % 7).append(".25,\"adm\":\"<VAST version=\\\"3.0\\\">")
+                    .append("<Ad id=\\\"").append(i).append("\\\"><InLine><AdSystem>OpenWrap</AdSystem></InLine></Ad></VAST>\",")
+                    .append("\"ext\":{\"prebid\":{\"type\":\"video\",\"targeting\":{\"hb_pb\":\"").append(i % 7)
+                    .append(".20\",\"hb_bidder\":\"bidder").append(i).append("\"}}}}]}");
+        }
+        debug.append("],\"ext\":{\"debug\":{\"httpcalls\":{\"pubmatic\":[{\"uri\":\"https://hbopenbid.pubmatic.com\",")
+                .append("\"requestbody\":\"{\\\"id\\\":\\\"1\\\"}\",\"status\":200}]}}}}");
+        response.put("ext", new JSONObject(debug.toString()));
+        return response.toString();
+    }
+}
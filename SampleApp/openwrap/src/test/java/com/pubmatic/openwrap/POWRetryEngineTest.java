@@ -0,0 +1,217 @@
+package com.pubmatic.openwrap;
+
+import android.content.Context;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+
+/**
+ * Verifies the retry rules against a local OpenWrap server which injects the scripted faults,
+ * e.g. server errors and connection resets, in its responses.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class POWRetryEngineTest {
+
+    private static final int RESET = -1;
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    private FaultServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new FaultServer();
+        POWConfiguration.getInstance().setTransport(new POWHttpTransport.Builder().build());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        POWConfiguration.getInstance().setTransport(null);
+        POWConfiguration.getInstance().setRetryPolicy(null);
+        server.close();
+    }
+
+    @Test
+    public void testServerErrorRetriedWithBackoff() {
+        POWConfiguration.getInstance().setRetryPolicy(new POWRetryPolicy.Builder()
+                .setMaxRetries(2).setInitialBackoff(20).build());
+        server.faults.add(503);
+        server.faults.add(500);
+        POWCommunicatorTest.CommunicatorListenerImp listener = request();
+        Assert.assertNotNull(listener.adResponse);
+        Assert.assertEquals(3, server.requestCount.get());
+    }
+
+    @Test
+    public void testServerErrorRetriesLimited() {
+        POWConfiguration.getInstance().setRetryPolicy(new POWRetryPolicy.Builder()
+                .setMaxRetries(1).setInitialBackoff(20).build());
+        server.faults.add(503);
+        server.faults.add(503);
+        server.faults.add(503);
+        POWCommunicatorTest.CommunicatorListenerImp listener = request();
+        Assert.assertTrue(listener.isFailure);
+        Assert.assertEquals(2, server.requestCount.get());
+    }
+
+    @Test
+    public void testClientErrorAndParseErrorNotRetried() {
+        POWConfiguration.getInstance().setRetryPolicy(new POWRetryPolicy.Builder().setMaxRetries(3).build());
+        server.faults.add(400);
+        Assert.assertTrue(request().isFailure);
+        Assert.assertEquals(1, server.requestCount.get());
+
+        server.faults.add(204);
+        Assert.assertTrue(request().isFailure);
+        Assert.assertEquals(2, server.requestCount.get());
+    }
+
+    @Test
+    public void testConnectionResetRetriedQuickly() {
+        // Backoff longer than the test takes, so that only an immediate retry succeeds in time
+        POWConfiguration.getInstance().setRetryPolicy(new POWRetryPolicy.Builder()
+                .setMaxRetries(2).setInitialBackoff(60000).setMaxBackoff(60000).build());
+        // Platform HTTP client may retry a reset itself once, two resets are surfaced either way
+        server.faults.add(RESET);
+        server.faults.add(RESET);
+        long start = System.currentTimeMillis();
+        POWCommunicatorTest.CommunicatorListenerImp listener = request();
+        Assert.assertNotNull(listener.adResponse);
+        Assert.assertEquals(3, server.requestCount.get());
+        Assert.assertTrue(System.currentTimeMillis() - start < TIMEOUT_MILLIS);
+    }
+
+    @Test
+    public void testRetryBudget() {
+        POWConfiguration.getInstance().setRetryPolicy(new POWRetryPolicy.Builder()
+                .setMaxRetries(3).setBudgetRatio(0.1f).build());
+        POWRetryEngine retryEngine = new POWRetryEngine();
+        int serverError = POWError.SERVER_ERROR.getErrorCode();
+        int retries = 0;
+        for (int call = 0; call < 100; call++) {
+            retryEngine.onCall();
+            for (int attempt = 0; retryEngine.getRetryDelay(serverError, attempt) != POWRetryEngine.NO_RETRY; attempt++) {
+                retries++;
+            }
+        }
+        // Saved budget plus the budget earned by the calls, instead of 3 retries per call
+        Assert.assertTrue("retries: " + retries, retries <= POWRetryPolicy.MAX_BUDGET + 10);
+        Assert.assertTrue("retries: " + retries, retries >= 10);
+    }
+
+    @Test
+    public void testJitteredBackoff() {
+        POWConfiguration.getInstance().setRetryPolicy(new POWRetryPolicy.Builder()
+                .setMaxRetries(10).setInitialBackoff(100).setMaxBackoff(400).setBudgetRatio(1).build());
+        POWRetryEngine retryEngine = new POWRetryEngine();
+        int serverError = POWError.SERVER_ERROR.getErrorCode();
+        long[] maxDelays = {100, 200, 400, 400};
+        boolean jittered = false;
+        for (int i = 0; i < 50; i++) {
+            retryEngine.onCall();
+            for (int retry = 0; retry < maxDelays.length; retry++) {
+                retryEngine.onCall();
+                long delay = retryEngine.getRetryDelay(serverError, retry);
+                Assert.assertTrue(delay >= 0 && delay <= maxDelays[retry]);
+                jittered |= delay != maxDelays[retry];
+            }
+        }
+        Assert.assertTrue(jittered);
+        Assert.assertEquals(0, retryEngine.getRetryDelay(
+                POWError.CONNECTION_RESET_ERROR.getErrorCode(), 0));
+        Assert.assertEquals(POWRetryEngine.NO_RETRY, retryEngine.getRetryDelay(
+                POWError.TIMEOUT_ERROR.getErrorCode(), 0));
+    }
+
+    @NonNull
+    private POWCommunicatorTest.CommunicatorListenerImp request() {
+        Context context = ApplicationProvider.getApplicationContext();
+        POWAdRequest request = new POWAdRequest(POWAdRequestTest.PUB_ID, POWAdRequestTest.PROFILE_ID,
+                POWAdRequestTest.AD_UNIT_ID, POWAdRequestTest.AD_SIZE) {
+            @Override
+            public String buildUrl() {
+                return "http://127.0.0.1:" + server.serverSocket.getLocalPort() + "/openrtb/2.5/video";
+            }
+        };
+        POWCommunicatorTest.CommunicatorListenerImp listener = new POWCommunicatorTest.CommunicatorListenerImp();
+        POWCommunicator.getInstance(context).requestAd(request, listener);
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (listener.adResponse == null && !listener.isFailure && System.currentTimeMillis() < deadline) {
+            Robolectric.flushForegroundThreadScheduler();
+            LockSupport.parkNanos(1_000_000);
+        }
+        return listener;
+    }
+
+    /**
+     * Minimal HTTP server which responds with the scripted status codes, or resets the
+     * connection, and with a valid OpenWrap response once the script is over
+     */
+    private static class FaultServer {
+        final ServerSocket serverSocket;
+        final ConcurrentLinkedQueue<Integer> faults = new ConcurrentLinkedQueue<>();
+        final AtomicInteger requestCount = new AtomicInteger();
+
+        FaultServer() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread thread = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try (Socket socket = serverSocket.accept()) {
+                        handle(socket);
+                    } catch (IOException e) {
+                        // Closed server or reset connection
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void handle(@NonNull Socket socket) throws IOException {
+            readRequestHeaders(socket.getInputStream());
+            requestCount.incrementAndGet();
+            Integer fault = faults.poll();
+            if (fault != null && fault == RESET) {
+                socket.setSoLinger(true, 0);
+                return;
+            }
+            int status = fault != null ? fault : 200;
+            byte[] body = status == 200 ? POWAdResponseTest.TEST_TARGETING_RESPONSE.getBytes("UTF-8") : new byte[0];
+            OutputStream output = socket.getOutputStream();
+            output.write(("HTTP/1.1 " + status + " Fault\r\nContent-Type: application/json\r\n"
+                    + (status == 204 ? "" : "Content-Length: " + body.length + "\r\n")
+                    + "Connection: close\r\n\r\n").getBytes("UTF-8"));
+            output.write(body);
+            output.flush();
+        }
+
+        private static void readRequestHeaders(@NonNull InputStream input) throws IOException {
+            int matched = 0;
+            int b;
+            while (matched < 4 && (b = input.read()) != -1) {
+                matched = (b == (matched % 2 == 0 ? '\r' : '\n')) ? matched + 1 : (b == '\r' ? 1 : 0);
+            }
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
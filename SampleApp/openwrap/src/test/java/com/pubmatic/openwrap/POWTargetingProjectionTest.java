@@ -0,0 +1,89 @@
+package com.pubmatic.openwrap;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWTargetingProjectionTest {
+
+    private static final String MULTI_BIDDER_RESPONSE = "{\"id\":\"auction-1\",\"targeting\":{"
+            + "\"pwtbst\":\"1\",\"pwtecp\":\"3.00\",\"pwtpb\":\"3.00\",\"pwtdid\":\"deal-1\","
+            + "\"pwtcid\":\"2a96119c\",\"pwtcurl\":\"https://ow.pubmatic.com\",\"pwtcpath\":\"/cache\","
+            + "\"pwtpid\":\"pubmatic\",\"pwtsz\":\"0x0\",\"pwtplt\":\"video\",\"pwtprofid\":\"2486\","
+            + "\"pwtecp_pubmatic\":\"3.00\",\"pwtpb_pubmatic\":\"3.00\",\"pwtecp_appnexus\":\"1.50\","
+            + "\"pwtpb_appnexus\":\"1.50\",\"pwtcid_appnexus\":\"7f3e\",\"pwtm_iu\":\"/15671365/pm_ott_video\"}}";
+
+    @Test
+    public void testDefaultProjection() throws JSONException {
+        POWAdResponse response = new POWAdResponse(new JSONObject(MULTI_BIDDER_RESPONSE));
+        POWAdResponse projected = response.project(new POWTargetingProjection.Builder().build());
+
+        POWTargeting targeting = projected.getTargetingValues();
+        Assert.assertNotNull(targeting);
+        Assert.assertEquals(POWTargetingProjection.DEFAULT_KEYS.size(), targeting.size());
+        for (String key : POWTargetingProjection.DEFAULT_KEYS) {
+            Assert.assertEquals(response.getTargetingValues().get(key), targeting.get(key));
+        }
+        Assert.assertNull(targeting.get("pwtecp_appnexus"));
+        Assert.assertNull(targeting.get("pwtpid"));
+        Assert.assertEquals(POWTargetingProjection.DEFAULT_KEYS.size(), projected.getTargeting().length());
+        // Top level fields are kept
+        Assert.assertEquals("auction-1", projected.getField("id"));
+        Assert.assertNull(projected.getField("targeting"));
+    }
+
+    @Test
+    public void testBidderKeysKept() throws JSONException {
+        POWAdResponse response = new POWAdResponse(new JSONObject(MULTI_BIDDER_RESPONSE));
+        POWTargeting targeting = response.project(new POWTargetingProjection.Builder()
+                .setKeys(new HashSet<>(Arrays.asList("pwtecp", "pwtpb")))
+                .setBidderKeysDropped(false)
+                .build()).getTargetingValues();
+        Assert.assertNotNull(targeting);
+        Assert.assertEquals(6, targeting.size());
+        Assert.assertEquals("1.50", targeting.get("pwtpb_appnexus"));
+        Assert.assertNull(targeting.get("pwtcid_appnexus"));
+    }
+
+    @Test
+    public void testAllKeysWithoutBidderKeys() throws JSONException {
+        POWAdResponse response = new POWAdResponse(new JSONObject(MULTI_BIDDER_RESPONSE));
+        POWTargeting targeting = response.project(new POWTargetingProjection.Builder()
+                .setKeys(null)
+                .build()).getTargetingValues();
+        Assert.assertNotNull(targeting);
+        Assert.assertEquals(12, targeting.size());
+        Assert.assertNull(targeting.get("pwtecp_pubmatic"));
+        // Key having underscore is not per-bidder key unless its prefix is a targeting key
+        Assert.assertEquals("/15671365/pm_ott_video", targeting.get("pwtm_iu"));
+    }
+
+    @Test
+    public void testTargetingBytesSaved() throws JSONException {
+        POWAdResponse response = new POWAdResponse(new JSONObject(MULTI_BIDDER_RESPONSE));
+        POWAdResponse projected = response.project(new POWTargetingProjection.Builder().build());
+
+        POWGamTagBuilder builder = new POWGamTagBuilder(POWGamTagBuilderTest.GAM_TAG);
+        int fullLength = builder.build(response.getTargeting()).length();
+        int projectedLength = builder.build(projected.getTargeting()).length();
+        Assert.assertEquals(fullLength - projectedLength, projected.getTargetingBytesSaved());
+        Assert.assertTrue(projected.getTargetingBytesSaved() > 0);
+        Assert.assertEquals(0, response.getTargetingBytesSaved());
+    }
+
+    @Test
+    public void testResponseWithoutTargeting() throws JSONException {
+        POWAdResponse projected = new POWAdResponse(new JSONObject("{\"id\":\"auction-1\"}"))
+                .project(new POWTargetingProjection.Builder().build());
+        Assert.assertNull(projected.getTargeting());
+        Assert.assertEquals(0, projected.getTargetingBytesSaved());
+        Assert.assertEquals("auction-1", projected.getField("id"));
+    }
+}
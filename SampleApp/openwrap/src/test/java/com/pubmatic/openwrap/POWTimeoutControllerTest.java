@@ -0,0 +1,81 @@
+package com.pubmatic.openwrap;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class POWTimeoutControllerTest {
+
+    private POWTimeoutController timeoutController;
+
+    @Before
+    public void setUp() {
+        timeoutController = new POWTimeoutController(null);
+        POWConfiguration.getInstance().setAdaptiveTimeout(new POWAdaptiveTimeout.Builder()
+                .setPercentile(90)
+                .setHeadroom(2)
+                .setMinTimeout(300)
+                .setMaxTimeout(3000)
+                .build());
+    }
+
+    @After
+    public void tearDown() {
+        POWConfiguration.getInstance().setAdaptiveTimeout(null);
+    }
+
+    @Test
+    public void testDisabled() {
+        POWConfiguration.getInstance().setAdaptiveTimeout(null);
+        recordSamples(POWTimeoutController.NetworkType.WIFI, 100);
+        Assert.assertEquals(POWAdRequest.DEFAULT_REQUEST_TIMEOUT, timeoutController.getTimeout(
+                POWTimeoutController.NetworkType.WIFI, POWAdRequest.DEFAULT_REQUEST_TIMEOUT));
+    }
+
+    @Test
+    public void testTimeoutPerNetworkType() {
+        // Max timeout is used until enough responses are observed
+        Assert.assertEquals(3000, timeoutController.getTimeout(
+                POWTimeoutController.NetworkType.WIFI, POWAdRequest.DEFAULT_REQUEST_TIMEOUT));
+
+        recordSamples(POWTimeoutController.NetworkType.WIFI, 200);
+        recordSamples(POWTimeoutController.NetworkType.CELLULAR, 2000);
+        // 90th percentile of the response times, doubled
+        Assert.assertEquals(362, timeoutController.getTimeout(
+                POWTimeoutController.NetworkType.WIFI, POWAdRequest.DEFAULT_REQUEST_TIMEOUT));
+        Assert.assertEquals(3000, timeoutController.getTimeout(
+                POWTimeoutController.NetworkType.CELLULAR, POWAdRequest.DEFAULT_REQUEST_TIMEOUT));
+        Assert.assertEquals(3000, timeoutController.getTimeout(
+                POWTimeoutController.NetworkType.UNKNOWN, POWAdRequest.DEFAULT_REQUEST_TIMEOUT));
+
+        // Timeout of the request is the upper limit
+        Assert.assertEquals(200, timeoutController.getTimeout(POWTimeoutController.NetworkType.WIFI, 200));
+    }
+
+    @Test
+    public void testTimeoutBounds() {
+        for (int i = 0; i < POWTimeoutController.WINDOW_SIZE; i++) {
+            timeoutController.record(POWTimeoutController.NetworkType.WIFI, 10);
+        }
+        Assert.assertEquals(300, timeoutController.getTimeout(
+                POWTimeoutController.NetworkType.WIFI, POWAdRequest.DEFAULT_REQUEST_TIMEOUT));
+
+        // Only recent responses are considered, so timeouts on a degraded network raise it
+        for (int i = 0; i < POWTimeoutController.WINDOW_SIZE; i++) {
+            timeoutController.record(POWTimeoutController.NetworkType.WIFI, 1200);
+        }
+        Assert.assertEquals(2400, timeoutController.getTimeout(
+                POWTimeoutController.NetworkType.WIFI, POWAdRequest.DEFAULT_REQUEST_TIMEOUT));
+    }
+
+    private void recordSamples(POWTimeoutController.NetworkType networkType, int maxResponseTime) {
+        // Responses spread evenly up to the max response time, the window keeps the last ones
+        for (int i = 1; i <= POWTimeoutController.WINDOW_SIZE; i++) {
+            timeoutController.record(networkType, (long) maxResponseTime * i / POWTimeoutController.WINDOW_SIZE);
+        }
+    }
+}
@@ -9,7 +9,12 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
 import java.net.URLDecoder;
 import java.util.Set;
 
@@ -34,6 +39,13 @@ public class POWUtilTest {
         Assert.assertEquals(testValue2, queryJson.getString(testKey2));
     }
 
+    @Test
+    public void testDigest() {
+        Assert.assertEquals("900150983cd24fb0d6963f7d28e17f72", POWUtil.md5("abc"));
+        Assert.assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", POWUtil.sha1("abc"));
+        Assert.assertEquals("00ff7f80", POWUtil.toHex(new byte[]{0, -1, 127, -128}));
+    }
+
     @NonNull
     public static JSONObject getQueryParams(@NonNull String url) throws JSONException {
         Uri uri = Uri.parse(url);
@@ -74,4 +86,15 @@ public class POWUtilTest {
         String finalString = POWUtil.generateEncodedQueryParams(emptyJson);
         Assert.assertEquals(0, finalString.length());
     }
+
+    @Test
+    public void testIsConnectionReset() {
+        Assert.assertTrue(POWUtil.isConnectionReset(new SocketException("Connection reset")));
+        Assert.assertTrue(POWUtil.isConnectionReset(new EOFException()));
+        Assert.assertTrue(POWUtil.isConnectionReset(new IOException("unexpected end of stream on Connection")));
+        Assert.assertFalse(POWUtil.isConnectionReset(new ConnectException("Connection refused")));
+        Assert.assertFalse(POWUtil.isConnectionReset(new SocketTimeoutException()));
+        Assert.assertFalse(POWUtil.isConnectionReset(new IOException("Some error")));
+        Assert.assertFalse(POWUtil.isConnectionReset(null));
+    }
 }
@@ -21,6 +21,8 @@ import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.util.Log;
 
+import com.pubmatic.openwrap.POWAndroidPlatform;
+
 import junit.framework.Assert;
 
 import org.junit.Test;
@@ -42,7 +44,7 @@ public class POWApplicationInfoTest {
     @Test
     public void testAllClass() {
         Context context = ApplicationProvider.getApplicationContext();
-        POWApplicationInfo appInfo = new POWApplicationInfo(context);
+        POWApplicationInfo appInfo = POWAndroidPlatform.createApplicationInfo(context);
 
         // Test methods
         String appName = null, packageName = null;
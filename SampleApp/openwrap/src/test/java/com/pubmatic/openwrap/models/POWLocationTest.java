@@ -18,6 +18,8 @@ package com.pubmatic.openwrap.models;
 
 import android.location.Location;
 
+import com.pubmatic.openwrap.POWAndroidPlatform;
+
 import junit.framework.Assert;
 
 import org.junit.Test;
@@ -50,7 +52,7 @@ public class POWLocationTest {
         androidLocation.setLongitude(TEST_LONGITUDE);
         androidLocation.setAccuracy(TEST_ACCURACY);
 
-        POWLocation locationTwo = new POWLocation(androidLocation);
+        POWLocation locationTwo = POWAndroidPlatform.createLocation(androidLocation);
 
         Assert.assertEquals(TEST_LATITUDE, locationTwo.getLatitude());
         Assert.assertEquals(TEST_LONGITUDE, locationTwo.getLongitude());